@@ -0,0 +1,10 @@
+package product.bench;
+
+/**
+ * Receiver-type profile of the benchmarked call sites.
+ * MONO: one product class and one policy class; MEGA: all of them mixed.
+ */
+public enum CallSite {
+    MONO,
+    MEGA
+}
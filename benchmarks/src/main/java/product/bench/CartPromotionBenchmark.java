@@ -0,0 +1,111 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.DigitalProduct;
+import product.Product;
+import product.checkout.Cart;
+import product.checkout.CartPromotion;
+import product.checkout.CartPromotionOptimizer;
+import product.checkout.PromotionPlan;
+import product.checkout.PromotionScope;
+import product.pricing.BogoHalfPromotion;
+import product.pricing.Buy3Pay2Promotion;
+import product.pricing.FixedPromotion;
+import product.pricing.PercentagePromotion;
+import product.pricing.Promotion;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CartPromotionOptimizer on 50-line carts with 20 promotions, against the
+ * greedy fallback alone (zero budget).
+ *
+ * mixed: a third CART promotions, half of all promotions in one of two
+ * exclusivity groups; grouped: six ungrouped CART promotions and fourteen
+ * promotions in four groups, so none can be fixed up front and all 20 are
+ * searched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartPromotionBenchmark {
+    private static final int CARTS = 64;
+    private static final int LINES = 50;
+    private static final int PROMOTIONS = 20;
+
+    @Param({"mixed", "grouped"})
+    public String promotions;
+
+    private CartPromotionOptimizer optimizer;
+    private CartPromotionOptimizer greedy;
+    private Cart[] carts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        boolean grouped = "grouped".equals(promotions);
+        String[] groups = grouped ? new String[] {"a", "b", "c", "d"} : new String[] {null, null, "a", "b"};
+        List<CartPromotion> list = new ArrayList<>(PROMOTIONS);
+        for (int i = 0; i < PROMOTIONS; i++) {
+            Promotion promotion;
+            switch (random.nextInt(4)) {
+                case 0: promotion = new PercentagePromotion(5 + random.nextInt(26)); break;
+                case 1: promotion = new FixedPromotion(10 + random.nextInt(200)); break;
+                case 2: promotion = new Buy3Pay2Promotion(); break;
+                default: promotion = new BogoHalfPromotion();
+            }
+            boolean stackable = random.nextBoolean();
+            if (grouped && i < 6) {
+                list.add(new CartPromotion(promotion, PromotionScope.CART, null, stackable));
+            } else {
+                PromotionScope scope = !grouped && random.nextInt(3) == 0 ? PromotionScope.CART
+                        : grouped && random.nextBoolean() ? PromotionScope.CART : PromotionScope.LINE;
+                list.add(new CartPromotion(promotion, scope, groups[random.nextInt(groups.length)], stackable));
+            }
+        }
+        optimizer = new CartPromotionOptimizer(list);
+        greedy = new CartPromotionOptimizer(list, Duration.ZERO);
+
+        carts = new Cart[CARTS];
+        for (int c = 0; c < CARTS; c++) {
+            List<Product> products = new ArrayList<>(LINES);
+            int[] quantities = new int[LINES];
+            for (int i = 0; i < LINES; i++) {
+                double price = 50 + random.nextInt(5_000);
+                products.add(i % 2 == 0
+                        ? new DigitalProduct("CP-" + i, "File " + i, null, price, 100, 100, null)
+                        : new Product("CP-" + i, "Item " + i, null, price, 100, null));
+                quantities[i] = 1 + random.nextInt(6);
+            }
+            carts[c] = new Cart(products, quantities);
+        }
+    }
+
+    @Benchmark
+    public PromotionPlan optimize() {
+        return optimizer.optimize(carts[next++ & (CARTS - 1)]);
+    }
+
+    @Benchmark
+    public PromotionPlan greedyOnly() {
+        return greedy.optimize(carts[next++ & (CARTS - 1)]);
+    }
+}
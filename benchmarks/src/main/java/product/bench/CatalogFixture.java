@@ -0,0 +1,111 @@
+package product.bench;
+
+import product.DigitalProduct;
+import product.PhysicalProduct;
+import product.Product;
+import product.pricing.BogoHalf;
+import product.pricing.BogoHalfPromotion;
+import product.pricing.Buy3Pay2Promotion;
+import product.pricing.FixedOff;
+import product.pricing.FixedPromotion;
+import product.pricing.PercentageOff;
+import product.pricing.PercentagePromotion;
+import product.pricing.PricePolicy;
+import product.shipping.ExpressShipping;
+import product.shipping.FreeShipping;
+import product.shipping.ShippingPolicy;
+import product.shipping.StandardShipping;
+import product.tax.FlatVat;
+import product.tax.NoTax;
+import product.tax.ProgressiveTaxStrategy;
+import product.tax.ReducedDigitalVat;
+import product.tax.TaxPolicy;
+
+import java.util.Random;
+
+/**
+ * Shared benchmark data: a catalog of products and the policies applied to it.
+ *
+ * MONO builds a single product class and a single policy class per call site,
+ * so the JIT can inline the only receiver. MEGA mixes three product classes
+ * and all policy classes, which makes the call sites megamorphic.
+ */
+final class CatalogFixture {
+    private static final long SEED = 42L;
+
+    final Product[] products;
+    final PhysicalProduct[] physical;
+    final int[] qtys;
+    final double[] prices;
+    final double[] weights;
+    final double[] lengths;
+    final double[] widths;
+    final double[] heights;
+    final PricePolicy[] policies;
+    final TaxPolicy[] taxes;
+    final ShippingPolicy[] shippingPolicies;
+
+    CatalogFixture(int catalogSize, int policyCount, CallSite callSite) {
+        Random random = new Random(SEED);
+        boolean mega = callSite == CallSite.MEGA;
+
+        products = new Product[catalogSize];
+        physical = new PhysicalProduct[catalogSize];
+        qtys = new int[catalogSize];
+        prices = new double[catalogSize];
+        weights = new double[catalogSize];
+        lengths = new double[catalogSize];
+        widths = new double[catalogSize];
+        heights = new double[catalogSize];
+
+        ShippingPolicy[] shippingKinds = mega
+                ? new ShippingPolicy[] { new StandardShipping(), new ExpressShipping(), new FreeShipping() }
+                : new ShippingPolicy[] { new StandardShipping() };
+        shippingPolicies = shippingKinds;
+
+        for (int i = 0; i < catalogSize; i++) {
+            double price = 100 + random.nextInt(500_000);
+            weights[i] = 0.1 + random.nextDouble() * 20;
+            lengths[i] = 1 + random.nextInt(100);
+            widths[i] = 1 + random.nextInt(100);
+            heights[i] = 1 + random.nextInt(50);
+
+            PhysicalProduct box = new PhysicalProduct("PH-" + i, "Physical " + i, "", price, 5,
+                    weights[i], lengths[i], widths[i], heights[i], shippingKinds[i % shippingKinds.length]);
+            box.setCostPrice(price * 0.7);
+            physical[i] = box;
+
+            Product p = box;
+            if (mega && i % 3 == 1) {
+                p = new DigitalProduct("DG-" + i, "Digital " + i, price, 600_000);
+            } else if (mega && i % 3 == 2) {
+                p = new Product("GN-" + i, "Generic " + i, price);
+            }
+            p.setCostPrice(price * 0.7);
+            products[i] = p;
+            prices[i] = p.getPrice();
+            qtys[i] = 1 + random.nextInt(6);
+        }
+
+        policies = new PricePolicy[policyCount];
+        for (int k = 0; k < policyCount; k++) {
+            policies[k] = mega ? megamorphicPolicy(k) : new PercentagePromotion(5 + k);
+        }
+
+        taxes = mega
+                ? new TaxPolicy[] { new FlatVat(12), new ProgressiveTaxStrategy(), new ReducedDigitalVat(5), new NoTax() }
+                : new TaxPolicy[] { new FlatVat(12) };
+    }
+
+    private static PricePolicy megamorphicPolicy(int k) {
+        switch (k % 7) {
+            case 0: return new PercentagePromotion(5 + k);
+            case 1: return new FixedPromotion(50 + k);
+            case 2: return new Buy3Pay2Promotion();
+            case 3: return new BogoHalfPromotion();
+            case 4: return new PercentageOff(3 + k);
+            case 5: return new FixedOff(25 + k);
+            default: return new BogoHalf();
+        }
+    }
+}
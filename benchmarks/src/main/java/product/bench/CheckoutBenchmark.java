@@ -0,0 +1,92 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import product.DigitalProduct;
+import product.PhysicalProduct;
+import product.Product;
+import product.checkout.Cart;
+import product.checkout.CheckoutResult;
+import product.checkout.CheckoutService;
+import product.pricing.BogoHalfPromotion;
+import product.pricing.Buy3Pay2Promotion;
+import product.pricing.PercentagePromotion;
+import product.pricing.PolicySet;
+import product.shipping.ExpressShipping;
+import product.shipping.ShipmentPlanner;
+import product.shipping.StandardShipping;
+import product.tax.FlatVat;
+import product.tax.ReducedDigitalVat;
+import product.tax.TaxResolver;
+import product.tax.TaxResolverHolder;
+import product.tax.TaxRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CheckoutService: one cart priced end to end (promotions, tax, parcel
+ * shipping) on the calling thread, and the same through submit() to
+ * measure the per-request thread hand-off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    @Param({"1", "8"})
+    public int lines;
+
+    private CheckoutService service;
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(lines);
+        int[] quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            double price = 100 + random.nextInt(5_000);
+            products.add(i % 3 == 0
+                    ? new DigitalProduct("CB-" + i, "File " + i, null, price, 10, 100, null)
+                    : new PhysicalProduct("CB-" + i, "Item " + i, null, price, 10, 0.5 + random.nextInt(20), 30, 20, 10));
+            quantities[i] = 1 + random.nextInt(4);
+        }
+        cart = new Cart(products, quantities);
+        service = new CheckoutService(
+                PolicySet.compile(List.of(new PercentagePromotion(10), new Buy3Pay2Promotion(), new BogoHalfPromotion())),
+                new TaxResolverHolder(TaxResolver.compile(
+                        List.of(new TaxRule(DigitalProduct.class, new ReducedDigitalVat(5), 1)), new FlatVat(12))),
+                new ShipmentPlanner(List.of(new StandardShipping(), new ExpressShipping())));
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public CheckoutResult checkout() {
+        return service.checkout(cart);
+    }
+
+    @Benchmark
+    public CheckoutResult submitAndJoin() {
+        return service.submit(cart).join();
+    }
+}
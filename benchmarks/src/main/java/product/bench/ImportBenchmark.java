@@ -0,0 +1,92 @@
+package product.bench;
+
+import category.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import product.catalog.ColumnarCatalog;
+import product.service.CatalogImporter;
+import product.service.ImportFormat;
+import product.service.ImportReport;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CatalogImporter over a generated feed of 1M mixed generic/physical/digital
+ * rows. Rows per second = 1M / reported time; threads=0 means one parser
+ * thread per available core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportBenchmark {
+    private static final int ROWS = 1_000_000;
+
+    @Param({"CSV", "JSON_LINES"})
+    public ImportFormat format;
+
+    @Param({"1", "0"})
+    public int threads;
+
+    private Path file;
+    private CatalogImporter importer;
+    private final Category[] categories = {new Category(1, "Books"), new Category(2, "Tools")};
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("import-bench", format == ImportFormat.CSV ? ".csv" : ".jsonl");
+        Random random = new Random(42);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (format == ImportFormat.CSV) {
+                out.write("kind,id,name,price,quantity,costPrice,categoryId,weightKg,lengthCm,widthCm,heightCm,downloadSizeMb,licenseKey\n");
+            }
+            for (int i = 0; i < ROWS; i++) {
+                String kind = i % 3 == 0 ? "GENERIC" : i % 3 == 1 ? "PHYSICAL" : "DIGITAL";
+                String price = (1 + random.nextInt(99_999)) / 100 + "." + random.nextInt(10) + random.nextInt(10);
+                int quantity = random.nextInt(500);
+                int category = 1 + (i & 1);
+                String weight = random.nextInt(100) + "." + random.nextInt(10);
+                if (format == ImportFormat.CSV) {
+                    out.write(kind + ",SKU-" + i + ",Item " + i + "," + price + "," + quantity + ",1.25," + category
+                            + "," + weight + ",30,20,10," + random.nextInt(900_000) + ",KEY-" + i + "\n");
+                } else {
+                    out.write("{\"kind\":\"" + kind + "\",\"id\":\"SKU-" + i + "\",\"name\":\"Item " + i
+                            + "\",\"price\":" + price + ",\"quantity\":" + quantity + ",\"costPrice\":1.25,\"categoryId\":"
+                            + category + ",\"weightKg\":" + weight + ",\"lengthCm\":30,\"widthCm\":20,\"heightCm\":10"
+                            + ",\"downloadSizeMb\":" + random.nextInt(900_000) + ",\"licenseKey\":\"KEY-" + i + "\"}\n");
+                }
+            }
+        }
+        importer = threads == 0 ? new CatalogImporter() : new CatalogImporter(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ImportReport importFeed() throws IOException {
+        ColumnarCatalog catalog = new ColumnarCatalog(ROWS);
+        return importer.importFile(file, format, catalog, id -> categories[id - 1]);
+    }
+}
@@ -0,0 +1,63 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import product.inventory.InventoryLedger;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryLedger reserve + release pairs from several threads, over a small
+ * (contended) and a large (mostly uncontended) set of products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class InventoryBenchmark {
+
+    @Param({"16", "100000"})
+    public int products;
+
+    @Param({"false", "true"})
+    public boolean padded;
+
+    private InventoryLedger ledger;
+    private String[] ids;
+
+    @Setup
+    public void setUp() {
+        ledger = new InventoryLedger(products, padded);
+        ids = new String[products];
+        for (int i = 0; i < products; i++) {
+            ids[i] = "INV-" + i;
+            ledger.register(ids[i], 1_000_000);
+        }
+    }
+
+    @Benchmark
+    public boolean reserveReleaseBySlot() {
+        int slot = ThreadLocalRandom.current().nextInt(products);
+        return ledger.reserve(slot, 1) && ledger.release(slot, 1);
+    }
+
+    @Benchmark
+    public boolean reserveReleaseById() {
+        String id = ids[ThreadLocalRandom.current().nextInt(products)];
+        return ledger.reserve(id, 1) && ledger.release(id, 1);
+    }
+}
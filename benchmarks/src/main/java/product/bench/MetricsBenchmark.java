@@ -0,0 +1,69 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.Product;
+import product.metrics.PricingMetrics;
+import product.pricing.BogoHalfPromotion;
+import product.pricing.Buy3Pay2Promotion;
+import product.pricing.PercentagePromotion;
+import product.pricing.PricePolicy;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the PricingMetrics guards on Product.finalPrice(qty, policies).
+ *
+ * uninstrumented repeats the method body without any metrics code;
+ * disabled calls the real method in a JVM without -Dproduct.metrics.enabled
+ * and should match it within noise; enabled forks a JVM with metrics on
+ * (striped counters, 1/64 sampled timers, winner counting).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    private Product product;
+    private List<PricePolicy> policies;
+    private int qty;
+
+    @Setup
+    public void setUp() {
+        product = new Product("MB-1", "Metered", null, 250, 10, null);
+        policies = List.of(new PercentagePromotion(10), new Buy3Pay2Promotion(), new BogoHalfPromotion());
+        qty = 3;
+    }
+
+    @Benchmark
+    public double uninstrumented() {
+        double best = Double.POSITIVE_INFINITY;
+        for (PricePolicy policy : policies) {
+            double price = policy.applicableTo(product) ? policy.apply(product, qty) : product.finalPrice(qty);
+            if (price < best) best = price;
+        }
+        return best;
+    }
+
+    @Benchmark
+    public double disabled() {
+        return product.finalPrice(qty, policies);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + PricingMetrics.ENABLED_PROPERTY + "=true")
+    public double enabled() {
+        return product.finalPrice(qty, policies);
+    }
+}
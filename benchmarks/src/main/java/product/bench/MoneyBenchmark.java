@@ -0,0 +1,104 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.Product;
+import product.pricing.PricePolicy;
+import product.service.ExactProfitAccumulator;
+import product.service.FinancialReport;
+import product.service.ProfitAccumulator;
+import product.tax.TaxPolicy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The double path (finalPrice, calculateTax, ProfitAccumulator) against the
+ * exact minor-unit path (finalPriceMinor, calculateTaxMinor,
+ * ExactProfitAccumulator) over the same catalog lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"MONO", "MEGA"})
+    public CallSite callSite;
+
+    private CatalogFixture fixture;
+    private final ProfitAccumulator doubleAccumulator = new ProfitAccumulator();
+    private final ExactProfitAccumulator exactAccumulator = new ExactProfitAccumulator();
+
+    @Setup
+    public void setUp() {
+        fixture = new CatalogFixture(catalogSize, 4, callSite);
+    }
+
+    @Benchmark
+    public double priceAndTaxDouble() {
+        Product[] products = fixture.products;
+        int[] qtys = fixture.qtys;
+        PricePolicy[] policies = fixture.policies;
+        TaxPolicy[] taxes = fixture.taxes;
+        double sum = 0;
+        for (int i = 0; i < products.length; i++) {
+            double revenue = products[i].finalPrice(qtys[i], policies[i % policies.length]);
+            sum += revenue + taxes[i % taxes.length].calculateTax(revenue);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long priceAndTaxMinor() {
+        Product[] products = fixture.products;
+        int[] qtys = fixture.qtys;
+        PricePolicy[] policies = fixture.policies;
+        TaxPolicy[] taxes = fixture.taxes;
+        long sum = 0;
+        for (int i = 0; i < products.length; i++) {
+            long revenue = products[i].finalPriceMinor(qtys[i], policies[i % policies.length]);
+            sum += revenue + taxes[i % taxes.length].calculateTaxMinor(revenue);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public FinancialReport accumulateDouble() {
+        Product[] products = fixture.products;
+        int[] qtys = fixture.qtys;
+        PricePolicy[] policies = fixture.policies;
+        TaxPolicy[] taxes = fixture.taxes;
+        doubleAccumulator.reset();
+        for (int i = 0; i < products.length; i++) {
+            doubleAccumulator.add(products[i], qtys[i], policies[i % policies.length], taxes[i % taxes.length]);
+        }
+        return doubleAccumulator.snapshot();
+    }
+
+    @Benchmark
+    public FinancialReport accumulateExact() {
+        Product[] products = fixture.products;
+        int[] qtys = fixture.qtys;
+        PricePolicy[] policies = fixture.policies;
+        TaxPolicy[] taxes = fixture.taxes;
+        exactAccumulator.reset();
+        for (int i = 0; i < products.length; i++) {
+            exactAccumulator.add(products[i], qtys[i], policies[i % policies.length], taxes[i % taxes.length]);
+        }
+        return exactAccumulator.snapshot();
+    }
+}
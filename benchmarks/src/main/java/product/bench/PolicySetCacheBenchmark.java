@@ -0,0 +1,89 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.DigitalProduct;
+import product.PhysicalProduct;
+import product.Product;
+import product.pricing.BogoHalf;
+import product.pricing.Buy3Pay2Promotion;
+import product.pricing.FixedOff;
+import product.pricing.PercentageOff;
+import product.pricing.PercentagePromotion;
+import product.pricing.PolicySet;
+import product.pricing.PricePolicy;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PolicySet memo under repeated checkout pricing: a working set of products
+ * in three classes, every product with its own price, priced in random
+ * order with quantities 1..4. Each (price, qty) pair is its own cache key,
+ * so the memo only helps while the working set fits its per-class table:
+ * 1000 products (about 1300 keys per class) hit almost always, 50000 mostly
+ * miss. uncached is Product.finalPrice(qty, policies) on the same lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolicySetCacheBenchmark {
+    private static final int LINES = 1 << 16;
+
+    @Param({"1000", "50000"})
+    public int workingSet;
+
+    private List<PricePolicy> policies;
+    private PolicySet policySet;
+    private Product[] lineProducts;
+    private int[] lineQtys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Product[] products = new Product[workingSet];
+        for (int i = 0; i < workingSet; i++) {
+            double price = 100 + random.nextInt(500_000) + random.nextInt(100) / 100.0;
+            switch (i % 3) {
+                case 0: products[i] = new DigitalProduct("DG-" + i, "Digital " + i, price, 600_000); break;
+                case 1: products[i] = new PhysicalProduct("PH-" + i, "Physical " + i, price, 1.0); break;
+                default: products[i] = new Product("GN-" + i, "Generic " + i, price);
+            }
+        }
+        lineProducts = new Product[LINES];
+        lineQtys = new int[LINES];
+        for (int i = 0; i < LINES; i++) {
+            lineProducts[i] = products[random.nextInt(workingSet)];
+            lineQtys[i] = 1 + random.nextInt(4);
+        }
+        policies = List.of(new PercentageOff(10), new FixedOff(50), new BogoHalf(),
+                new Buy3Pay2Promotion(), new PercentagePromotion(7));
+        policySet = PolicySet.compile(policies);
+    }
+
+    @Benchmark
+    public double uncached() {
+        int i = next++ & (LINES - 1);
+        return lineProducts[i].finalPrice(lineQtys[i], policies);
+    }
+
+    @Benchmark
+    public double policySet() {
+        int i = next++ & (LINES - 1);
+        return policySet.finalPrice(lineProducts[i], lineQtys[i]);
+    }
+}
@@ -0,0 +1,75 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import product.catalog.PriceChangeLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * PriceChangeLog: append into the mapped segments and point-in-time lookups
+ * over a history of 1000 products x 200 changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceLogBenchmark {
+    private static final int PRODUCTS = 1000;
+    private static final int CHANGES = 200;
+
+    private Path directory;
+    private PriceChangeLog log;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("price-log-bench");
+        log = PriceChangeLog.open(directory);
+        ids = new String[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) ids[i] = "LOG-" + i;
+        for (int c = 0; c < CHANGES; c++) {
+            for (int i = 0; i < PRODUCTS; i++) {
+                log.append(ids[i], 1_000L * c, 100 + c, c);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        log.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public boolean append() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return log.append(ids[random.nextInt(PRODUCTS)], random.nextInt(1000), 5);
+    }
+
+    @Benchmark
+    public double priceAtHistory() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return log.priceAt(ids[random.nextInt(PRODUCTS)], random.nextLong(1_000L * CHANGES));
+    }
+}
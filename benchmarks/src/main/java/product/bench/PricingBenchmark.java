@@ -0,0 +1,105 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.Product;
+import product.pricing.PolicySet;
+import product.pricing.PricePolicy;
+import product.pricing.PricingEngine;
+import product.pricing.Promotion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product.finalPrice / Promotion.apply hot paths, plus the batch and
+ * compiled alternatives. Each invocation prices the whole catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"1", "4", "8"})
+    public int policyCount;
+
+    @Param({"MONO", "MEGA"})
+    public CallSite callSite;
+
+    private CatalogFixture fixture;
+    private List<PricePolicy> policyList;
+    private Promotion[] promotions;
+    private PolicySet policySet;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        fixture = new CatalogFixture(catalogSize, policyCount, callSite);
+        policyList = Arrays.asList(fixture.policies);
+        List<Promotion> promos = new ArrayList<>();
+        for (PricePolicy policy : fixture.policies) {
+            if (policy instanceof Promotion) promos.add((Promotion) policy);
+        }
+        promotions = promos.toArray(new Promotion[0]);
+        policySet = PolicySet.compile(policyList);
+        out = new double[catalogSize];
+    }
+
+    @Benchmark
+    public double finalPriceBestOf() {
+        double sum = 0;
+        Product[] products = fixture.products;
+        int[] qtys = fixture.qtys;
+        for (int i = 0; i < products.length; i++) {
+            sum += products[i].finalPrice(qtys[i], policyList);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double promotionApply() {
+        double sum = 0;
+        Product[] products = fixture.products;
+        int[] qtys = fixture.qtys;
+        for (Promotion promotion : promotions) {
+            for (int i = 0; i < products.length; i++) {
+                sum += promotion.apply(products[i], qtys[i]);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double[] pricingEngineBatch() {
+        PricingEngine.bestPrices(fixture.products, fixture.qtys, fixture.policies, out);
+        return out;
+    }
+
+    @Benchmark
+    public double policySetFinalPrice() {
+        double sum = 0;
+        Product[] products = fixture.products;
+        int[] qtys = fixture.qtys;
+        for (int i = 0; i < products.length; i++) {
+            sum += policySet.finalPrice(products[i], qtys[i]);
+        }
+        return sum;
+    }
+}
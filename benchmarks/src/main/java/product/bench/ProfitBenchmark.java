@@ -0,0 +1,75 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import product.Product;
+import product.pricing.PricePolicy;
+import product.service.FinancialReport;
+import product.service.ProfitAccumulator;
+import product.service.ProfitCalculator;
+import product.tax.TaxPolicy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProfitCalculator.calculate for every catalog line (one report per line)
+ * versus ProfitAccumulator (one report per catalog pass).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfitBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"MONO", "MEGA"})
+    public CallSite callSite;
+
+    private CatalogFixture fixture;
+    private final ProfitCalculator calculator = new ProfitCalculator();
+    private final ProfitAccumulator accumulator = new ProfitAccumulator();
+
+    @Setup
+    public void setUp() {
+        fixture = new CatalogFixture(catalogSize, 4, callSite);
+    }
+
+    @Benchmark
+    public void calculate(Blackhole bh) {
+        Product[] products = fixture.products;
+        int[] qtys = fixture.qtys;
+        PricePolicy[] policies = fixture.policies;
+        TaxPolicy[] taxes = fixture.taxes;
+        for (int i = 0; i < products.length; i++) {
+            bh.consume(calculator.calculate(products[i], qtys[i],
+                    policies[i % policies.length], taxes[i % taxes.length]));
+        }
+    }
+
+    @Benchmark
+    public FinancialReport accumulate() {
+        Product[] products = fixture.products;
+        int[] qtys = fixture.qtys;
+        PricePolicy[] policies = fixture.policies;
+        TaxPolicy[] taxes = fixture.taxes;
+        accumulator.reset();
+        for (int i = 0; i < products.length; i++) {
+            accumulator.add(products[i], qtys[i], policies[i % policies.length], taxes[i % taxes.length]);
+        }
+        return accumulator.snapshot();
+    }
+}
@@ -0,0 +1,89 @@
+package product.bench;
+
+import category.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storefront filters on one category: price range and name prefix through
+ * the secondary indexes versus a linear scan, plus the cost of a price
+ * update that has to move the product inside the price index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    private static final String[] WORDS = { "Laptop", "Lamp", "Phone", "Pen", "Desk", "Drill", "Mouse", "Monitor" };
+
+    @Param({"1000", "100000"})
+    public int products;
+
+    private Category category;
+    private List<Product> all;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        category = new Category(1, "Search");
+        all = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + i;
+            all.add(new Product("S-" + i, name, null, random.nextInt(100_000) / 100.0, 5, null));
+        }
+        category.addAll(all);
+        category.productsInPriceRange(0, 0); // build the index outside the measurement
+    }
+
+    @Benchmark
+    public int priceRangeIndexed() {
+        return category.productsInPriceRange(100, 110).size();
+    }
+
+    @Benchmark
+    public int priceRangeScan() {
+        int n = 0;
+        for (Product p : all) {
+            if (p.getPrice() >= 100 && p.getPrice() <= 110) n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int namePrefixIndexed() {
+        return category.productsByNamePrefix("mon").size();
+    }
+
+    @Benchmark
+    public int namePrefixScan() {
+        int n = 0;
+        for (Product p : all) {
+            if (p.getName().toLowerCase(Locale.ROOT).startsWith("mon")) n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public boolean priceUpdate() {
+        return all.get(random.nextInt(products)).trySetPrice(random.nextInt(100_000) / 100.0);
+    }
+}
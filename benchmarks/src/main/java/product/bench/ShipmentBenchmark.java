@@ -0,0 +1,75 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.PhysicalProduct;
+import product.shipping.ExpressShipping;
+import product.shipping.FreeShipping;
+import product.shipping.ShipmentPlanner;
+import product.shipping.ShipmentQuote;
+import product.shipping.ShippingPolicy;
+import product.shipping.StandardShipping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShipmentPlanner on a cart, against the per-line calculateShippingCost() * qty
+ * that ShopDemo6 uses. Target: a 100-line cart in under 50 µs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipmentBenchmark {
+
+    @Param({"10", "100"})
+    public int cartLines;
+
+    private ShipmentPlanner planner;
+    private List<PhysicalProduct> cart;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        List<ShippingPolicy> policies = List.of(new StandardShipping(), new ExpressShipping(), new FreeShipping());
+        planner = new ShipmentPlanner(policies);
+        cart = new ArrayList<>(cartLines);
+        quantities = new int[cartLines];
+        for (int i = 0; i < cartLines; i++) {
+            PhysicalProduct product = new PhysicalProduct("SHIP-" + i, "Box " + i, "", 1000, 10,
+                    0.1 + random.nextDouble() * 8, 5 + random.nextInt(40), 5 + random.nextInt(30), 2 + random.nextInt(20));
+            product.setShippingPolicy(policies.get(i % policies.size()));
+            cart.add(product);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+    }
+
+    @Benchmark
+    public ShipmentQuote plan() {
+        return planner.plan(cart, quantities);
+    }
+
+    @Benchmark
+    public double perItemTimesQty() {
+        double sum = 0;
+        for (int i = 0; i < cartLines; i++) {
+            sum += cart.get(i).calculateShippingCost() * quantities[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,90 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.PhysicalProduct;
+import product.shipping.ShippingPolicy;
+import product.shipping.ShippingQuoteTable;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShippingPolicy.calculate directly, through PhysicalProduct and through
+ * a precomputed ShippingQuoteTable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShippingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"MONO", "MEGA"})
+    public CallSite callSite;
+
+    private CatalogFixture fixture;
+    private ShippingQuoteTable table;
+    private int[] cart;
+
+    @Setup
+    public void setUp() {
+        fixture = new CatalogFixture(catalogSize, 1, callSite);
+        table = ShippingQuoteTable.of(Arrays.asList(fixture.physical), Arrays.asList(fixture.shippingPolicies));
+        cart = new int[fixture.physical.length];
+        for (int i = 0; i < cart.length; i++) cart[i] = i;
+    }
+
+    @Benchmark
+    public double policyCalculate() {
+        double sum = 0;
+        ShippingPolicy[] policies = fixture.shippingPolicies;
+        for (int i = 0; i < fixture.weights.length; i++) {
+            sum += policies[i % policies.length].calculate(
+                    fixture.weights[i], fixture.lengths[i], fixture.widths[i], fixture.heights[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double estimateShippingCost() {
+        double sum = 0;
+        for (PhysicalProduct product : fixture.physical) {
+            sum += product.estimateShippingCost();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double quoteTableCheapestCart() {
+        return table.cheapestCartTotal(cart);
+    }
+
+    @Benchmark
+    public double policyChainCheapestCart() {
+        double sum = 0;
+        ShippingPolicy[] policies = fixture.shippingPolicies;
+        for (PhysicalProduct product : fixture.physical) {
+            double best = Double.POSITIVE_INFINITY;
+            for (ShippingPolicy policy : policies) {
+                best = Math.min(best, policy.calculate(product.getWeightKg(), product.getLengthCm(),
+                        product.getWidthCm(), product.getHeightCm()));
+            }
+            sum += best;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,80 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.tax.BracketTaxPolicy;
+import product.tax.TaxPolicy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaxPolicy.calculateTax over every catalog price, plus a 40-bracket
+ * BracketTaxPolicy called per price and in batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"MONO", "MEGA"})
+    public CallSite callSite;
+
+    private CatalogFixture fixture;
+    private BracketTaxPolicy brackets;
+    private double[] taxOut;
+
+    @Setup
+    public void setUp() {
+        fixture = new CatalogFixture(catalogSize, 1, callSite);
+        int n = 40;
+        double[] thresholds = new double[n];
+        double[] rates = new double[n];
+        for (int i = 0; i < n; i++) {
+            thresholds[i] = i * 15_000.0;
+            rates[i] = 1 + i;
+        }
+        brackets = BracketTaxPolicy.marginal(thresholds, rates);
+        taxOut = new double[fixture.prices.length];
+    }
+
+    @Benchmark
+    public double calculateTax() {
+        double sum = 0;
+        double[] prices = fixture.prices;
+        TaxPolicy[] taxes = fixture.taxes;
+        for (int i = 0; i < prices.length; i++) {
+            sum += taxes[i % taxes.length].calculateTax(prices[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double bracketTax() {
+        double sum = 0;
+        for (double price : fixture.prices) {
+            sum += brackets.calculateTax(price);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double[] bracketTaxBatch() {
+        brackets.calculateTax(fixture.prices, taxOut);
+        return taxOut;
+    }
+}
@@ -0,0 +1,68 @@
+package product.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import product.Product;
+import product.catalog.CatalogVersion;
+import product.catalog.VersionedCatalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VersionedCatalog: cost of publishing a batch of price changes (copy of
+ * the touched page columns) and of a full report over a pinned version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionedCatalogBenchmark {
+
+    @Param({"10000", "100000"})
+    public int products;
+
+    @Param({"1", "16"})
+    public int batchSize;
+
+    private VersionedCatalog catalog;
+    private VersionedCatalog.Batch batch;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        List<Product> list = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            list.add(new Product("VC-" + i, "Item " + i, null, 1 + random.nextInt(1000), 1 + random.nextInt(50), null));
+        }
+        catalog = VersionedCatalog.of(list);
+        batch = catalog.begin();
+    }
+
+    @Benchmark
+    public CatalogVersion commitPriceBatch() {
+        for (int i = 0; i < batchSize; i++) {
+            batch.trySetPrice(random.nextInt(products), 1 + random.nextInt(1000));
+        }
+        return batch.commit();
+    }
+
+    @Benchmark
+    public double reportOnSnapshot() {
+        return catalog.snapshot().totalValue();
+    }
+}
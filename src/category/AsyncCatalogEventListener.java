@@ -0,0 +1,161 @@
+package category;
+
+import product.Product;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронный приемник: события пишутся в кольцевой буфер фиксированного
+ * размера, а отдельный фоновый поток вычитывает их пачками и передает
+ * делегату (например, ConsoleCatalogEventListener).
+ *
+ * Запись в буфер не блокирует вызывающий поток и не выделяет память:
+ * слот занимается CAS-ом по счетчику, данные кладутся в заранее созданные
+ * массивы. Если буфер заполнен, событие отбрасывается и учитывается
+ * в {@link #getDroppedCount()}. Исключения делегата не останавливают
+ * доставку и учитываются в {@link #getFailedCount()}.
+ */
+public class AsyncCatalogEventListener implements CatalogEventListener, AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final CatalogEventListener delegate;
+    private final int mask;
+
+    // Слоты кольцевого буфера
+    private final CatalogEventType[] types;
+    private final Category[] categories;
+    private final Product[] products;
+    private final AtomicLongArray sequences; // номер "хода" слота (алгоритм Вьюкова)
+
+    private final AtomicLong tail = new AtomicLong();     // следующий слот для записи
+    private final AtomicLong consumed = new AtomicLong(); // сколько событий передано делегату
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    public AsyncCatalogEventListener(CatalogEventListener delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param delegate получатель событий (вызывается только из фонового потока)
+     * @param capacity размер буфера, округляется вверх до степени двойки
+     */
+    public AsyncCatalogEventListener(CatalogEventListener delegate, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.delegate = delegate;
+        this.mask = size - 1;
+        this.types = new CatalogEventType[size];
+        this.categories = new Category[size];
+        this.products = new Product[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.consumer = new Thread(this::drainLoop, "catalog-events");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void onEvent(CatalogEventType type, Category category, Product product) {
+        long pos = tail.get();
+        int index;
+        for (;;) {
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.increment(); // буфер заполнен
+                return;
+            } else {
+                pos = tail.get();
+            }
+        }
+        types[index] = type;
+        categories[index] = category;
+        products[index] = product;
+        sequences.lazySet(index, pos + 1); // публикация слота
+    }
+
+    private void drainLoop() {
+        long head = 0;
+        while (running || head < tail.get()) {
+            int batch = 0;
+            while (batch < MAX_BATCH) {
+                int index = (int) (head & mask);
+                if (sequences.get(index) != head + 1) break;
+                CatalogEventType type = types[index];
+                Category category = categories[index];
+                Product product = products[index];
+                categories[index] = null;
+                products[index] = null;
+                sequences.lazySet(index, head + mask + 1); // слот свободен для следующего круга
+                head++;
+                batch++;
+                try {
+                    delegate.onEvent(type, category, product);
+                } catch (RuntimeException e) {
+                    // Ошибка приемника не должна останавливать поток доставки
+                    failed.increment();
+                }
+            }
+            if (batch > 0) {
+                consumed.set(head);
+            } else if (running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } else if (head < tail.get()) {
+                Thread.onSpinWait(); // слот занят, но еще не опубликован
+            }
+        }
+    }
+
+    /**
+     * Ждет, пока все события, записанные до вызова, будут переданы делегату.
+     * @return true, если успели за отведенное время.
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (consumed.get() < target) {
+            if (System.nanoTime() - deadline > 0) return false;
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Сколько событий делегат не обработал (выбросил исключение).
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Останавливает фоновый поток, предварительно доставив оставшиеся события.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
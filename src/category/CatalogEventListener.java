@@ -0,0 +1,22 @@
+package category;
+
+import product.Product;
+
+/**
+ * Приемник событий категории. По умолчанию используется {@link #NOOP},
+ * поэтому горячие пути addProduct/removeProduct не форматируют строки
+ * и не захватывают блокировку System.out.
+ */
+@FunctionalInterface
+public interface CatalogEventListener {
+
+    /** Ничего не делает (значение по умолчанию). */
+    CatalogEventListener NOOP = (type, category, product) -> { };
+
+    /**
+     * @param type тип события
+     * @param category категория-источник
+     * @param product товар (null для ADD_REJECTED_NULL)
+     */
+    void onEvent(CatalogEventType type, Category category, Product product);
+}
@@ -0,0 +1,13 @@
+package category;
+
+/**
+ * Типы событий категории (заменяют прямой вывод в консоль).
+ */
+public enum CatalogEventType {
+    PRODUCT_ADDED,
+    PRODUCT_REMOVED,
+    PRODUCT_CHANGED,
+    ADD_REJECTED_NULL,
+    ADD_REJECTED_DUPLICATE,
+    REMOVE_NOT_FOUND
+}
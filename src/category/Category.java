@@ -1,57 +1,125 @@
 package category;
 
 import product.Product;
+import product.StockStatus;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Класс Category управляет списком продуктов.
  * Добавлены проверки для предотвращения добавления null или дубликатов.
+ * Товары хранятся в ProductIndex: порядок добавления + O(1) поиск/удаление по ID.
  */
 public class Category {
     private int id;
     private String name;
     private String description;
-    private List<Product> products;
+    private ProductIndex products;
+    private final CategoryTotals totals = new CategoryTotals();
+    private final ProductSearchIndex search = new ProductSearchIndex();
+    private CatalogEventListener eventListener = CatalogEventListener.NOOP;
 
     public Category(int id, String name) {
         this.id = id;
         this.name = name;
         this.description = "";
-        this.products = new ArrayList<>();
+        this.products = new ProductIndex();
     }
 
     /**
      * Добавляет товар в категорию с проверкой.
+     * Если товар числится в другой категории, он сначала удаляется из нее
+     * (ее индексы и итоги обновляются), то есть переносится сюда.
      * @param product Товар для добавления.
-     * @return true, если товар успешно добавлен, иначе false (если товар null или уже существует).
+     * @return true, если товар успешно добавлен, иначе false (если товар null или товар с таким ID уже есть).
      */
     public boolean addProduct(Product product) {
         if (product == null) {
-            System.out.println("Ошибка: Нельзя добавить null в категорию '" + this.name + "'.");
+            eventListener.onEvent(CatalogEventType.ADD_REJECTED_NULL, this, null);
             return false;
         }
-        // Проверка на дубликат по ссылке на объект
-        if (this.products.contains(product)) {
-            System.out.println("Ошибка: Товар '" + product.getName() + "' уже существует в категории '" + this.name + "'.");
+        // Проверка на дубликат по ID — O(1) через хеш-индекс
+        if (!this.products.add(product)) {
+            eventListener.onEvent(CatalogEventType.ADD_REJECTED_DUPLICATE, this, product);
             return false;
         }
-        
-        this.products.add(product);
+
+        detachFromPrevious(product);
         product.trySetCategory(this); // Используем защищенный мутатор
-        System.out.println("Товар '" + product.getName() + "' успешно добавлен в категорию '" + this.name + "'.");
+        totals.add(product.getPrice(), product.getQuantity());
+        search.onAdded(product);
+        eventListener.onEvent(CatalogEventType.PRODUCT_ADDED, this, product);
         return true;
     }
     
     public void removeProduct(Product product) {
         if (this.products.remove(product)) {
-            product.trySetCategory(null);
-            System.out.println("Товар '" + product.getName() + "' удален из категории '" + this.name + "'.");
+            if (product.getCategory() == this) product.trySetCategory(null);
+            totals.remove(product.getPrice(), product.getQuantity());
+            search.onRemoved(product);
+            eventListener.onEvent(CatalogEventType.PRODUCT_REMOVED, this, product);
         } else {
-            System.out.println("Ошибка: Товар '" + product.getName() + "' не найден в категории '" + this.name + "'.");
+            eventListener.onEvent(CatalogEventType.REMOVE_NOT_FOUND, this, product);
         }
     }
     
+    /**
+     * Пакетное добавление: одно расширение индекса на всю коллекцию.
+     * Товары из других категорий переносятся, как в addProduct.
+     * @return количество добавленных товаров (null и дубликаты пропускаются).
+     */
+    public int addAll(Collection<? extends Product> batch) {
+        List<Product> accepted = new ArrayList<>();
+        int added = products.addAll(batch, product -> {
+            detachFromPrevious(product);
+            product.trySetCategory(this);
+            totals.add(product.getPrice(), product.getQuantity());
+            accepted.add(product);
+            eventListener.onEvent(CatalogEventType.PRODUCT_ADDED, this, product);
+        });
+        search.onAddedAll(accepted);
+        return added;
+    }
+
+    /**
+     * Пакетное удаление: уплотнение индекса выполняется один раз.
+     * @return количество удаленных товаров.
+     */
+    public int removeAll(Collection<? extends Product> batch) {
+        List<Product> dropped = new ArrayList<>();
+        int removed = products.removeAll(batch, product -> {
+            if (product.getCategory() == this) product.trySetCategory(null);
+            totals.remove(product.getPrice(), product.getQuantity());
+            dropped.add(product);
+            eventListener.onEvent(CatalogEventType.PRODUCT_REMOVED, this, product);
+        });
+        search.onRemovedAll(dropped);
+        return removed;
+    }
+
+    // Товар, уже добавленный в другую категорию, удаляется из нее:
+    // иначе та продолжит учитывать его в итогах, не получая onProductChanged.
+    private void detachFromPrevious(Product product) {
+        Category previous = product.getCategory();
+        if (previous != null && previous != this && previous.containsProduct(product)) {
+            previous.removeProduct(product);
+        }
+    }
+
+    public boolean containsProduct(Product product) {
+        return products.containsInstance(product);
+    }
+
+    public Product findProductById(String id) {
+        return products.get(id);
+    }
+
+    public int size() {
+        return products.size();
+    }
+
     public double getTotalValue() {
         double totalValue = 0.0;
         for (Product product : this.products) {
@@ -59,6 +127,109 @@ public class Category {
         }
         return totalValue;
     }
+
+    /**
+     * Вызывается мутаторами Product (trySetPrice, trySetQuantity, applyDiscount)
+     * после изменения: обновляет накопительные итоги дельтой, без полного пересчета.
+     */
+    public void onProductChanged(Product product, double oldPrice, int oldQuantity) {
+        if (!products.refreshStatus(product)) return;
+        totals.replace(oldPrice, oldQuantity, product.getPrice(), product.getQuantity());
+        if (oldPrice != product.getPrice()) search.onPriceChanged(product, oldPrice);
+        eventListener.onEvent(CatalogEventType.PRODUCT_CHANGED, this, product);
+    }
+
+    /**
+     * Вызывается из Product.trySetName после смены названия: обновляет индекс по префиксу.
+     */
+    public void onProductRenamed(Product product, String oldName) {
+        if (!products.containsInstance(product)) return;
+        search.onRenamed(product, oldName);
+    }
+
+    /**
+     * Товары с ценой в диапазоне [min, max] по возрастанию цены, O(log n + k).
+     * Индекс строится при первом поисковом запросе и дальше ведется инкрементально.
+     */
+    public List<Product> productsInPriceRange(double min, double max) {
+        return search.priceRange(min, max, products::toArray);
+    }
+
+    /**
+     * Товары, название которых начинается с prefix (без учета регистра), по алфавиту.
+     */
+    public List<Product> productsByNamePrefix(String prefix) {
+        return search.namePrefix(prefix, products::toArray);
+    }
+
+    /**
+     * Товары категории с заданным статусом наличия, в порядке добавления.
+     * Индекс статусов ведется инкрементально, стоимость — O(результат).
+     */
+    public List<Product> productsWithStatus(StockStatus status) {
+        if (status == null) return List.of();
+        return products.withStatus(status);
+    }
+
+    public int countWithStatus(StockStatus status) {
+        return status == null ? 0 : products.countWithStatus(status);
+    }
+
+    /**
+     * Вызывается из Product.trySetId до смены ID: переиндексирует товар.
+     * @return false, если новый ID уже занят другим товаром этой категории.
+     */
+    public boolean onProductIdChanging(Product product, String oldId, String newId) {
+        return products.rekey(product, oldId, newId);
+    }
+
+    /**
+     * Накопительные итоги (O(1) чтение, безопасно из любого потока).
+     */
+    public CategoryTotals getTotals() {
+        return totals;
+    }
+
+    public double getRunningTotalValue() {
+        return totals.getTotalValue();
+    }
+
+    /**
+     * Полный пересчет стоимости склада через fork/join (для очень больших категорий).
+     */
+    public double parallelTotalValue() {
+        Product[] snapshot = products.toArray();
+        if (snapshot.length <= TotalValueTask.SEQUENTIAL_THRESHOLD) {
+            return TotalValueTask.sequentialSum(snapshot, 0, snapshot.length);
+        }
+        return ForkJoinPool.commonPool().invoke(new TotalValueTask(snapshot, 0, snapshot.length));
+    }
+
+    /**
+     * Проверяет, что накопительные итоги совпадают с полным пересчетом.
+     * Стоимость сравнивается с относительной погрешностью (суммы double
+     * зависят от порядка сложения), единицы и статусы — точно.
+     */
+    public boolean isTotalsConsistent() {
+        double recomputed = parallelTotalValue();
+        double running = totals.getTotalValue();
+        double tolerance = 1e-9 * Math.max(1.0, Math.abs(recomputed));
+        if (Math.abs(recomputed - running) > tolerance) return false;
+
+        long units = 0;
+        long[] statusCounts = new long[3];
+        for (Product product : products) {
+            units += product.getQuantity();
+            statusCounts[product.stockStatus().ordinal()]++;
+        }
+        for (StockStatus status : StockStatus.values()) {
+            if (products.countWithStatus(status) != statusCounts[status.ordinal()]) return false;
+        }
+        return units == totals.getTotalUnits()
+                && statusCounts[CategoryTotals.IN_STOCK] == totals.getInStockCount()
+                && statusCounts[CategoryTotals.LOW] == totals.getLowStockCount()
+                && statusCounts[CategoryTotals.OUT_OF_STOCK] == totals.getOutOfStockCount();
+    }
     
     public void displayCategoryInfo() {
         System.out.println("\n===== Информация о категории =====");
@@ -76,6 +247,15 @@ public class Category {
         System.out.println("==================================");
     }
     
+    /**
+     * Подключает приемник событий (null — вернуть NOOP).
+     * Прежний вывод в консоль: {@code new ConsoleCatalogEventListener()}.
+     */
+    public void setEventListener(CatalogEventListener listener) {
+        this.eventListener = listener == null ? CatalogEventListener.NOOP : listener;
+    }
+
+    public int getId() { return id; }
     public String getName() { return name; }
     public void setDescription(String description) { this.description = description; }
 }
@@ -0,0 +1,59 @@
+package category;
+
+import product.StockStatus;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накопительные итоги категории: стоимость склада, количество единиц
+ * и число товаров по статусам наличия.
+ * Обновляются инкрементально (дельтами) из мутаторов Product и безопасны
+ * для одновременной записи из разных потоков (LongAdder/DoubleAdder).
+ */
+public class CategoryTotals {
+    static final int IN_STOCK = StockStatus.IN_STOCK.ordinal();
+    static final int LOW = StockStatus.LOW.ordinal();
+    static final int OUT_OF_STOCK = StockStatus.OUT_OF_STOCK.ordinal();
+
+    private final DoubleAdder totalValue = new DoubleAdder();
+    private final LongAdder totalUnits = new LongAdder();
+    private final LongAdder[] statusCounts = { new LongAdder(), new LongAdder(), new LongAdder() };
+
+    void add(double price, int quantity) {
+        totalValue.add(price * quantity);
+        totalUnits.add(quantity);
+        statusCounts[statusSlot(quantity)].increment();
+    }
+
+    void remove(double price, int quantity) {
+        totalValue.add(-(price * quantity));
+        totalUnits.add(-quantity);
+        statusCounts[statusSlot(quantity)].decrement();
+    }
+
+    void replace(double oldPrice, int oldQuantity, double newPrice, int newQuantity) {
+        totalValue.add(newPrice * newQuantity - oldPrice * oldQuantity);
+        if (oldQuantity != newQuantity) {
+            totalUnits.add(newQuantity - oldQuantity);
+            int oldSlot = statusSlot(oldQuantity);
+            int newSlot = statusSlot(newQuantity);
+            if (oldSlot != newSlot) {
+                statusCounts[oldSlot].decrement();
+                statusCounts[newSlot].increment();
+            }
+        }
+    }
+
+    // Те же пороги, что и в Product.getStockStatus()
+    static int statusSlot(int quantity) {
+        return StockStatus.of(quantity).ordinal();
+    }
+
+    public double getTotalValue() { return totalValue.sum(); }
+    public long getTotalUnits() { return totalUnits.sum(); }
+    public long getInStockCount() { return statusCounts[IN_STOCK].sum(); }
+    public long getLowStockCount() { return statusCounts[LOW].sum(); }
+    public long getOutOfStockCount() { return statusCounts[OUT_OF_STOCK].sum(); }
+    public long getCount(StockStatus status) { return statusCounts[status.ordinal()].sum(); }
+}
@@ -0,0 +1,33 @@
+package category;
+
+import product.Product;
+
+/**
+ * Печатает события категории в консоль — прежние сообщения Category.
+ * Подключается явно: {@code category.setEventListener(new ConsoleCatalogEventListener())}.
+ */
+public class ConsoleCatalogEventListener implements CatalogEventListener {
+
+    @Override
+    public void onEvent(CatalogEventType type, Category category, Product product) {
+        switch (type) {
+            case PRODUCT_ADDED:
+                System.out.println("Товар '" + product.getName() + "' успешно добавлен в категорию '" + category.getName() + "'.");
+                break;
+            case PRODUCT_REMOVED:
+                System.out.println("Товар '" + product.getName() + "' удален из категории '" + category.getName() + "'.");
+                break;
+            case ADD_REJECTED_NULL:
+                System.out.println("Ошибка: Нельзя добавить null в категорию '" + category.getName() + "'.");
+                break;
+            case ADD_REJECTED_DUPLICATE:
+                System.out.println("Ошибка: Товар '" + product.getName() + "' уже существует в категории '" + category.getName() + "'.");
+                break;
+            case PRODUCT_CHANGED:
+                break; // изменения цены/количества не печатаются: их слишком много
+            case REMOVE_NOT_FOUND:
+                System.out.println("Ошибка: Товар '" + product.getName() + "' не найден в категории '" + category.getName() + "'.");
+                break;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package category;
+
+import product.Product;
+import product.StockStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище товаров категории: порядок вставки + хеш-индекс по ID.
+ *
+ * Товары лежат в плотном массиве в порядке добавления; удаление оставляет
+ * "дыру" (null), которая убирается при периодическом уплотнении.
+ * Индекс — открытая адресация с линейным пробированием по int[]
+ * (хранит номер позиции + 1, без упаковки в Integer), удаление — обратным
+ * сдвигом, без надгробий в таблице. Поиск, добавление и удаление — O(1).
+ *
+ * Для каждого статуса наличия ведется BitSet позиций, обновляемый при
+ * добавлении, удалении и изменении количества, поэтому выборка
+ * "все OUT_OF_STOCK" проходит только по установленным битам.
+ * Биты меняются под собственной блокировкой: количество товаров может
+ * меняться из разных потоков одновременно (как и CategoryTotals).
+ */
+class ProductIndex implements Iterable<Product> {
+    private static final int MIN_CAPACITY = 16;
+
+    private Product[] entries;  // плотный массив, null = удаленная позиция
+    private String[] keys;      // ID, под которым товар проиндексирован
+    private int[] hashes;       // кеш хешей ключей
+    private int count;          // занятые позиции (включая удаленные)
+    private int size;           // живые товары
+
+    private int[] table;        // номер позиции + 1, 0 = пусто
+    private int mask;
+
+    private byte[] statuses;    // StockStatus.ordinal() товара на позиции
+    private final BitSet[] byStatus = new BitSet[StockStatus.values().length];
+
+    ProductIndex() {
+        entries = new Product[MIN_CAPACITY];
+        keys = new String[MIN_CAPACITY];
+        hashes = new int[MIN_CAPACITY];
+        statuses = new byte[MIN_CAPACITY];
+        for (int i = 0; i < byStatus.length; i++) byStatus[i] = new BitSet();
+        table = new int[MIN_CAPACITY * 2];
+        mask = table.length - 1;
+    }
+
+    int size() { return size; }
+    boolean isEmpty() { return size == 0; }
+
+    boolean containsId(String id) {
+        return id != null && find(id, spread(id.hashCode())) >= 0;
+    }
+
+    /**
+     * Проверка членства по ссылке: товар проиндексирован и это тот же объект.
+     */
+    boolean containsInstance(Product product) {
+        return product != null && positionOf(product) >= 0;
+    }
+
+    Product get(String id) {
+        if (id == null) return null;
+        int pos = find(id, spread(id.hashCode()));
+        return pos < 0 ? null : entries[pos];
+    }
+
+    /**
+     * @return false, если товар с таким ID уже есть.
+     */
+    boolean add(Product product) {
+        String key = product.getId();
+        int hash = spread(key.hashCode());
+        if (find(key, hash) >= 0) return false;
+        ensureCapacity(count + 1);
+        append(product, key, hash);
+        return true;
+    }
+
+    boolean remove(Product product) {
+        int pos = positionOf(product);
+        if (pos < 0) return false;
+        removeAt(pos);
+        compactIfSparse();
+        return true;
+    }
+
+    /**
+     * Добавляет товары пачкой: одно расширение массивов на всю коллекцию.
+     * @return сколько товаров добавлено (null и дубликаты пропускаются).
+     */
+    int addAll(Collection<? extends Product> products, Consumer<Product> onAdded) {
+        ensureCapacity(count + products.size());
+        int added = 0;
+        for (Product product : products) {
+            if (product == null) continue;
+            String key = product.getId();
+            int hash = spread(key.hashCode());
+            if (find(key, hash) >= 0) continue;
+            append(product, key, hash);
+            onAdded.accept(product);
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Удаляет товары пачкой: уплотнение выполняется один раз в конце.
+     * @return сколько товаров удалено.
+     */
+    int removeAll(Collection<? extends Product> products, Consumer<Product> onRemoved) {
+        int removed = 0;
+        for (Product product : products) {
+            int pos = positionOf(product);
+            if (pos < 0) continue;
+            removeAt(pos);
+            onRemoved.accept(product);
+            removed++;
+        }
+        compactIfSparse();
+        return removed;
+    }
+
+    /**
+     * Переиндексирует товар под новым ID.
+     * @return false, если новый ID занят другим товаром.
+     */
+    boolean rekey(Product product, String oldId, String newId) {
+        if (oldId == null || newId == null) return false;
+        int pos = find(oldId, spread(oldId.hashCode()));
+        if (pos < 0 || entries[pos] != product) return true; // товар не проиндексирован здесь
+        int newHash = spread(newId.hashCode());
+        int existing = find(newId, newHash);
+        if (existing >= 0) return existing == pos;
+
+        deleteFromTable(pos);
+        keys[pos] = newId;
+        hashes[pos] = newHash;
+        insertIntoTable(pos, newHash);
+        return true;
+    }
+
+    /**
+     * Пересчитывает статус наличия товара после изменения количества.
+     * @return false, если товар не проиндексирован здесь.
+     */
+    boolean refreshStatus(Product product) {
+        if (product == null) return false;
+        int pos = positionOf(product);
+        if (pos < 0) return false;
+        synchronized (byStatus) {
+            // Читаем количество под блокировкой: последний вызов видит последнее значение
+            int now = product.stockStatus().ordinal();
+            int old = statuses[pos];
+            if (old != now) {
+                byStatus[old].clear(pos);
+                byStatus[now].set(pos);
+                statuses[pos] = (byte) now;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Товары с заданным статусом в порядке добавления; O(результат).
+     */
+    List<Product> withStatus(StockStatus status) {
+        synchronized (byStatus) {
+            BitSet bits = byStatus[status.ordinal()];
+            List<Product> result = new ArrayList<>(bits.cardinality());
+            for (int pos = bits.nextSetBit(0); pos >= 0; pos = bits.nextSetBit(pos + 1)) {
+                result.add(entries[pos]);
+            }
+            return result;
+        }
+    }
+
+    int countWithStatus(StockStatus status) {
+        synchronized (byStatus) {
+            return byStatus[status.ordinal()].cardinality();
+        }
+    }
+
+    Product[] toArray() {
+        Product[] result = new Product[size];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (entries[i] != null) result[n++] = entries[i];
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<Product> iterator() {
+        return new Iterator<>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < count && entries[from] == null) from++;
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public Product next() {
+                if (next >= count) throw new NoSuchElementException();
+                Product product = entries[next];
+                next = advance(next + 1);
+                return product;
+            }
+        };
+    }
+
+    // --- Внутренняя механика ---
+
+    private int positionOf(Product product) {
+        String key = product.getId();
+        if (key == null) return -1;
+        int pos = find(key, spread(key.hashCode()));
+        if (pos >= 0 && entries[pos] == product) return pos;
+        return -1;
+    }
+
+    private void append(Product product, String key, int hash) {
+        int pos = count++;
+        entries[pos] = product;
+        keys[pos] = key;
+        hashes[pos] = hash;
+        size++;
+        insertIntoTable(pos, hash);
+        int status = product.stockStatus().ordinal();
+        synchronized (byStatus) {
+            statuses[pos] = (byte) status;
+            byStatus[status].set(pos);
+        }
+    }
+
+    private void removeAt(int pos) {
+        deleteFromTable(pos);
+        entries[pos] = null;
+        keys[pos] = null;
+        size--;
+        synchronized (byStatus) {
+            byStatus[statuses[pos]].clear(pos);
+        }
+    }
+
+    private int find(String key, int hash) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int ref = table[slot];
+            if (ref == 0) return -1;
+            int pos = ref - 1;
+            if (hashes[pos] == hash && key.equals(keys[pos])) return pos;
+        }
+    }
+
+    private void insertIntoTable(int pos, int hash) {
+        int slot = hash & mask;
+        while (table[slot] != 0) slot = (slot + 1) & mask;
+        table[slot] = pos + 1;
+    }
+
+    // Удаление с обратным сдвигом: цепочки пробирования остаются непрерывными
+    private void deleteFromTable(int pos) {
+        int slot = hashes[pos] & mask;
+        while (table[slot] != pos + 1) slot = (slot + 1) & mask;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+            int home = hashes[table[next] - 1] & mask;
+            // Элемент можно сдвинуть в дыру, если его "домашний" слот не лежит между hole и next
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > entries.length) {
+            int capacity = Math.max(minCapacity, entries.length + (entries.length >> 1));
+            entries = Arrays.copyOf(entries, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            synchronized (byStatus) {
+                statuses = Arrays.copyOf(statuses, capacity);
+            }
+        }
+        // Коэффициент заполнения таблицы не выше 0.5
+        if (minCapacity * 2 > table.length) {
+            int tableSize = Integer.highestOneBit(Math.max(MIN_CAPACITY, minCapacity) * 2 - 1) << 1;
+            rebuildTable(tableSize);
+        }
+    }
+
+    private void compactIfSparse() {
+        int holes = count - size;
+        if (holes <= MIN_CAPACITY || holes <= size) return;
+        synchronized (byStatus) {
+            for (BitSet bits : byStatus) bits.clear();
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (entries[i] != null) {
+                    entries[n] = entries[i];
+                    keys[n] = keys[i];
+                    hashes[n] = hashes[i];
+                    statuses[n] = statuses[i];
+                    byStatus[statuses[n]].set(n);
+                    n++;
+                }
+            }
+            Arrays.fill(entries, n, count, null);
+            Arrays.fill(keys, n, count, null);
+            count = n;
+        }
+        rebuildTable(table.length);
+    }
+
+    private void rebuildTable(int tableSize) {
+        table = new int[tableSize];
+        mask = tableSize - 1;
+        for (int i = 0; i < count; i++) {
+            if (entries[i] != null) insertIntoTable(i, hashes[i]);
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,382 @@
+package category;
+
+import product.Product;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Вторичные индексы категории для поиска на витрине:
+ * по цене (отсортированный double[] + товары) и по префиксу названия
+ * (отсортированный массив названий в нижнем регистре + товары).
+ *
+ * Диапазон цен и префикс ищутся двоичным поиском — O(log n + k).
+ * Индекс строится при первом запросе (категории без поиска ничего не
+ * платят), дальше обновляется из хуков Category: добавление/удаление,
+ * trySetPrice/applyDiscount, trySetName. Обновление одного товара —
+ * сдвиг массива (System.arraycopy), пакетные addAll/removeAll — слияние
+ * за один проход.
+ *
+ * Запросы берут read-блокировку StampedLock и не мешают друг другу,
+ * изменения — write-блокировку. Ключ, под которым товар лежит в индексе,
+ * хранится в самом индексе, поэтому гонка двух изменений одного товара
+ * не оставляет его на чужом месте: хук ищет товар по старому ключу,
+ * а при промахе — по ссылке линейным проходом.
+ */
+class ProductSearchIndex {
+    private static final Product[] NO_PRODUCTS = new Product[0];
+
+    private final StampedLock lock = new StampedLock();
+    private boolean built;
+
+    private int size;
+    private double[] prices = new double[0];
+    private Product[] byPrice = NO_PRODUCTS;
+    private String[] names = new String[0];   // ключи: название в нижнем регистре
+    private Product[] byName = NO_PRODUCTS;
+
+    /**
+     * Ключ поиска по названию (регистр не учитывается).
+     */
+    static String nameKey(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // --- Запросы ---
+
+    /**
+     * Товары с ценой в [min, max], по возрастанию цены.
+     */
+    List<Product> priceRange(double min, double max, Supplier<Product[]> source) {
+        if (!(min <= max)) return Collections.emptyList();
+        ensureBuilt(source);
+        long stamp = lock.readLock();
+        try {
+            int from = lowerBound(prices, size, min);
+            int to = upperBound(prices, size, max);
+            return Arrays.asList(Arrays.copyOfRange(byPrice, from, to));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Товары, название которых начинается с prefix, по алфавиту.
+     */
+    List<Product> namePrefix(String prefix, Supplier<Product[]> source) {
+        String key = nameKey(prefix);
+        ensureBuilt(source);
+        long stamp = lock.readLock();
+        try {
+            int from = lowerBound(names, size, key);
+            int to = from;
+            while (to < size && names[to].startsWith(key)) to++;
+            return Arrays.asList(Arrays.copyOfRange(byName, from, to));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // --- Хуки изменений (вызываются из Category) ---
+
+    void onAdded(Product product) {
+        long stamp = lock.writeLock();
+        try {
+            if (!built) return;
+            ensureCapacity(size + 1);
+            insertByPrice(product, product.getPrice());
+            insertByName(product, nameKey(product.getName()));
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void onRemoved(Product product) {
+        long stamp = lock.writeLock();
+        try {
+            if (!built) return;
+            int p = locateByPrice(product, product.getPrice());
+            int n = locateByName(product, nameKey(product.getName()));
+            if (p < 0 || n < 0) return;
+            size--;
+            removeByPriceAt(p);
+            removeByNameAt(n);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void onPriceChanged(Product product, double oldPrice) {
+        long stamp = lock.writeLock();
+        try {
+            if (!built) return;
+            int p = locateByPrice(product, oldPrice);
+            if (p < 0) return;
+            double price = product.getPrice(); // под блокировкой: последний хук видит последнюю цену
+            if (prices[p] == price) return;
+            size--;
+            removeByPriceAt(p);
+            insertByPrice(product, price);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void onRenamed(Product product, String oldName) {
+        long stamp = lock.writeLock();
+        try {
+            if (!built) return;
+            int n = locateByName(product, nameKey(oldName));
+            if (n < 0) return;
+            String key = nameKey(product.getName());
+            if (names[n].equals(key)) return;
+            size--;
+            removeByNameAt(n);
+            insertByName(product, key);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Пакетное добавление: сортировка пачки и слияние с индексом, O(n + b log b).
+     */
+    void onAddedAll(Collection<? extends Product> added) {
+        if (added.isEmpty()) return;
+        long stamp = lock.writeLock();
+        try {
+            if (!built) return;
+            Product[] batch = added.toArray(NO_PRODUCTS);
+            double[] batchPrices = new double[batch.length];
+            String[] batchNames = new String[batch.length];
+            Integer[] order = snapshot(batch, batchPrices, batchNames);
+
+            int total = size + batch.length;
+            double[] mergedPrices = new double[Math.max(total, prices.length)];
+            Product[] mergedByPrice = new Product[mergedPrices.length];
+            Arrays.sort(order, Comparator.comparingDouble(i -> batchPrices[i]));
+            int a = 0, b = 0;
+            for (int out = 0; out < total; out++) {
+                if (b >= batch.length || (a < size && prices[a] <= batchPrices[order[b]])) {
+                    mergedPrices[out] = prices[a];
+                    mergedByPrice[out] = byPrice[a++];
+                } else {
+                    mergedPrices[out] = batchPrices[order[b]];
+                    mergedByPrice[out] = batch[order[b++]];
+                }
+            }
+
+            String[] mergedNames = new String[mergedPrices.length];
+            Product[] mergedByName = new Product[mergedPrices.length];
+            Arrays.sort(order, Comparator.comparing(i -> batchNames[i]));
+            a = 0;
+            b = 0;
+            for (int out = 0; out < total; out++) {
+                if (b >= batch.length || (a < size && names[a].compareTo(batchNames[order[b]]) <= 0)) {
+                    mergedNames[out] = names[a];
+                    mergedByName[out] = byName[a++];
+                } else {
+                    mergedNames[out] = batchNames[order[b]];
+                    mergedByName[out] = batch[order[b++]];
+                }
+            }
+
+            prices = mergedPrices;
+            byPrice = mergedByPrice;
+            names = mergedNames;
+            byName = mergedByName;
+            size = total;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Пакетное удаление: один проход с уплотнением обоих массивов.
+     */
+    void onRemovedAll(Collection<? extends Product> removed) {
+        if (removed.isEmpty()) return;
+        long stamp = lock.writeLock();
+        try {
+            if (!built) return;
+            Set<Product> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+            gone.addAll(removed);
+            int p = 0, n = 0;
+            for (int i = 0; i < size; i++) {
+                if (!gone.contains(byPrice[i])) {
+                    prices[p] = prices[i];
+                    byPrice[p++] = byPrice[i];
+                }
+                if (!gone.contains(byName[i])) {
+                    names[n] = names[i];
+                    byName[n++] = byName[i];
+                }
+            }
+            Arrays.fill(byPrice, p, size, null);
+            Arrays.fill(names, n, size, null);
+            Arrays.fill(byName, n, size, null);
+            size = p;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // --- Построение ---
+
+    private void ensureBuilt(Supplier<Product[]> source) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0 && built && lock.validate(stamp)) return;
+        stamp = lock.writeLock();
+        try {
+            if (built) return;
+            Product[] all = source.get();
+            double[] snapshotPrices = new double[all.length];
+            String[] snapshotNames = new String[all.length];
+            Integer[] order = snapshot(all, snapshotPrices, snapshotNames);
+            int capacity = Math.max(16, all.length);
+
+            prices = new double[capacity];
+            byPrice = new Product[capacity];
+            Arrays.sort(order, Comparator.comparingDouble(i -> snapshotPrices[i]));
+            for (int i = 0; i < all.length; i++) {
+                prices[i] = snapshotPrices[order[i]];
+                byPrice[i] = all[order[i]];
+            }
+
+            names = new String[capacity];
+            byName = new Product[capacity];
+            Arrays.sort(order, Comparator.comparing(i -> snapshotNames[i]));
+            for (int i = 0; i < all.length; i++) {
+                names[i] = snapshotNames[order[i]];
+                byName[i] = all[order[i]];
+            }
+            size = all.length;
+            built = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Ключи читаются один раз: цена может меняться во время сортировки
+    private static Integer[] snapshot(Product[] products, double[] outPrices, String[] outNames) {
+        Integer[] order = new Integer[products.length];
+        for (int i = 0; i < products.length; i++) {
+            order[i] = i;
+            outPrices[i] = products[i].getPrice();
+            outNames[i] = nameKey(products[i].getName());
+        }
+        return order;
+    }
+
+    // --- Работа с массивами (под write-блокировкой) ---
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= prices.length) return;
+        int capacity = Math.max(minCapacity, prices.length + (prices.length >> 1));
+        prices = Arrays.copyOf(prices, capacity);
+        byPrice = Arrays.copyOf(byPrice, capacity);
+        names = Arrays.copyOf(names, capacity);
+        byName = Arrays.copyOf(byName, capacity);
+    }
+
+    // Вставка после равных ключей: товары с одинаковой ценой идут в порядке изменения
+    private void insertByPrice(Product product, double price) {
+        int pos = upperBound(prices, size, price);
+        System.arraycopy(prices, pos, prices, pos + 1, size - pos);
+        System.arraycopy(byPrice, pos, byPrice, pos + 1, size - pos);
+        prices[pos] = price;
+        byPrice[pos] = product;
+    }
+
+    private void insertByName(Product product, String key) {
+        int pos = upperBound(names, size, key);
+        System.arraycopy(names, pos, names, pos + 1, size - pos);
+        System.arraycopy(byName, pos, byName, pos + 1, size - pos);
+        names[pos] = key;
+        byName[pos] = product;
+    }
+
+    // size уже уменьшен вызывающим: сдвигаем хвост [pos + 1, size]
+    private void removeByPriceAt(int pos) {
+        System.arraycopy(prices, pos + 1, prices, pos, size - pos);
+        System.arraycopy(byPrice, pos + 1, byPrice, pos, size - pos);
+        byPrice[size] = null;
+    }
+
+    private void removeByNameAt(int pos) {
+        System.arraycopy(names, pos + 1, names, pos, size - pos);
+        System.arraycopy(byName, pos + 1, byName, pos, size - pos);
+        names[size] = null;
+        byName[size] = null;
+    }
+
+    private int locateByPrice(Product product, double price) {
+        for (int i = lowerBound(prices, size, price); i < size && prices[i] == price; i++) {
+            if (byPrice[i] == product) return i;
+        }
+        return scan(byPrice, product);
+    }
+
+    private int locateByName(Product product, String key) {
+        for (int i = lowerBound(names, size, key); i < size && names[i].equals(key); i++) {
+            if (byName[i] == product) return i;
+        }
+        return scan(byName, product);
+    }
+
+    private int scan(Product[] products, Product product) {
+        for (int i = 0; i < size; i++) {
+            if (products[i] == product) return i;
+        }
+        return -1;
+    }
+
+    // --- Двоичный поиск ---
+
+    private static int lowerBound(double[] keys, int size, double key) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int upperBound(double[] keys, int size, double key) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int lowerBound(String[] keys, int size, String key) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int upperBound(String[] keys, int size, String key) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) <= 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,43 @@
+package category;
+
+import product.Product;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join-задача: полный пересчет стоимости склада по диапазону товаров.
+ */
+class TotalValueTask extends RecursiveTask<Double> {
+    private static final long serialVersionUID = 1L;
+    static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    private final Product[] products;
+    private final int from;
+    private final int to;
+
+    TotalValueTask(Product[] products, int from, int to) {
+        this.products = products;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Double compute() {
+        if (to - from <= SEQUENTIAL_THRESHOLD) {
+            return sequentialSum(products, from, to);
+        }
+        int mid = (from + to) >>> 1;
+        TotalValueTask left = new TotalValueTask(products, from, mid);
+        left.fork();
+        double right = new TotalValueTask(products, mid, to).compute();
+        return left.join() + right;
+    }
+
+    static double sequentialSum(Product[] products, int from, int to) {
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            sum += products[i].calculateTotalValue();
+        }
+        return sum;
+    }
+}
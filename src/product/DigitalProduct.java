@@ -5,6 +5,10 @@ package product;
  * свойства, связанные с размером файла и лицензированием.
  */
 public class DigitalProduct extends Product {
+    // Файлы меньше этого размера продаются со скидкой
+    public static final double SMALL_DOWNLOAD_LIMIT_MB = 500_000;
+    public static final double SMALL_DOWNLOAD_DISCOUNT_PERCENT = 10;
+
     // --- Уникальные атрибуты ---
     private double downloadSizeMb;
     private String licenseKey;
@@ -26,12 +30,28 @@ public class DigitalProduct extends Product {
         super(); // Вызов конструктора родителя без аргументов
     }
 
+    /**
+     * Конструктор для flyweight-представлений (см. Product(String, String)):
+     * не учитывается в getCreatedCount() и не применяет скидку за размер файла.
+     */
+    protected DigitalProduct(String viewId, String viewName) {
+        super(viewId, viewName);
+    }
+
+    // --- Правила валидации (общие для мутаторов и импорта каталога) ---
+    public static boolean isValidDownloadSizeMb(double sizeMb) {
+        return sizeMb >= 0 && sizeMb <= 1_000_000;
+    }
+    public static boolean isValidLicenseKey(String key) {
+        return key == null || key.length() <= 64;
+    }
+
     // --- Уникальные защищенные мутаторы ---
     public boolean trySetDownloadSizeMb(double sizeMb) {
-        if (sizeMb >= 0 && sizeMb <= 1_000_000) {
+        if (isValidDownloadSizeMb(sizeMb)) {
             this.downloadSizeMb = sizeMb;
-            if (sizeMb < 500000){
-                applyDiscount(10);
+            if (sizeMb < SMALL_DOWNLOAD_LIMIT_MB){
+                applyDiscount(SMALL_DOWNLOAD_DISCOUNT_PERCENT);
                 return true;
             }
             return true;
@@ -40,7 +60,7 @@ public class DigitalProduct extends Product {
     }
 
     public boolean trySetLicenseKey(String key) {
-        if (key == null || key.length() <= 64) {
+        if (isValidLicenseKey(key)) {
             this.licenseKey = key;
             return true;
         }
@@ -61,6 +81,6 @@ public class DigitalProduct extends Product {
     @Override
     public String toString() {
         return super.toString() + String.format(" | Digital[size=%.2fMB, license=%b]",
-                downloadSizeMb, isLicenseRequired());
+                getDownloadSizeMb(), isLicenseRequired());
     }
 }
\ No newline at end of file
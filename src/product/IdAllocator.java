@@ -0,0 +1,31 @@
+package product;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Потокобезопасный генератор порядковых номеров для ID вида "AUTO-n".
+ * Каждый поток арендует у общего AtomicLong блок номеров и раздает их
+ * локально, поэтому общий счетчик трогается один раз на BLOCK_SIZE вызовов.
+ * Номера уникальны, но между потоками не обязательно идут подряд.
+ */
+final class IdAllocator {
+    private static final int BLOCK_SIZE = 1024;
+
+    private final AtomicLong nextBlockStart;
+    private final ThreadLocal<long[]> block; // {следующий номер, конец блока (не включая)}
+
+    IdAllocator(long firstValue) {
+        this.nextBlockStart = new AtomicLong(firstValue);
+        this.block = ThreadLocal.withInitial(() -> new long[] {0, 0});
+    }
+
+    long next() {
+        long[] range = block.get();
+        if (range[0] == range[1]) {
+            long start = nextBlockStart.getAndAdd(BLOCK_SIZE);
+            range[0] = start;
+            range[1] = start + BLOCK_SIZE;
+        }
+        return range[0]++;
+    }
+}
@@ -1,5 +1,7 @@
 package product;
 
+import product.metrics.Operation;
+import product.metrics.PricingMetrics;
 import product.shipping.Shippable;
 import product.shipping.ShippingConstants;
 import product.shipping.ShippingPolicy;
@@ -12,12 +14,11 @@ import product.shipping.StandardShipping;
  * Uses ShippingPolicy strategy for shipping cost calculation (SRP).
  */
 public class PhysicalProduct extends Product implements Shippable {
-    // --- Constants ---
-    private static final double VOLUMETRIC_DIVISOR = 5000.0;
-
     // --- Уникальные атрибуты ---
     private double weightKg;
     private double lengthCm, widthCm, heightCm;
+    // Кеш оплачиваемого веса: пересчитывается в trySetWeightKg/trySetDimensions
+    private double billableWeight;
     
     // --- Стратегия доставки (SRP) ---
     private ShippingPolicy shippingPolicy;
@@ -51,22 +52,41 @@ public class PhysicalProduct extends Product implements Shippable {
         this.shippingPolicy = new StandardShipping();
     }
 
+    /**
+     * Конструктор для flyweight-представлений (см. Product(String, String)):
+     * не учитывается в getCreatedCount(), доставка — StandardShipping.
+     */
+    protected PhysicalProduct(String viewId, String viewName) {
+        super(viewId, viewName);
+        this.shippingPolicy = new StandardShipping();
+    }
+
+    // --- Правила валидации (общие для мутаторов и импорта каталога) ---
+    public static boolean isValidWeightKg(double weightKg) {
+        return weightKg >= 0 && weightKg <= 1000;
+    }
+    public static boolean isValidDimensions(double lengthCm, double widthCm, double heightCm) {
+        return lengthCm >= 0 && lengthCm <= 1000 &&
+               widthCm >= 0 && widthCm <= 1000 &&
+               heightCm >= 0 && heightCm <= 1000;
+    }
+
     // --- Уникальные защищенные мутаторы ---
     public boolean trySetWeightKg(double weightKg) {
-        if (weightKg >= 0 && weightKg <= 1000) {
+        if (isValidWeightKg(weightKg)) {
             this.weightKg = weightKg;
+            updateBillableWeight();
             return true;
         }
         return false;
     }
 
     public boolean trySetDimensions(double lengthCm, double widthCm, double heightCm) {
-        if (lengthCm >= 0 && lengthCm <= 1000 &&
-            widthCm >= 0 && widthCm <= 1000 &&
-            heightCm >= 0 && heightCm <= 1000) {
+        if (isValidDimensions(lengthCm, widthCm, heightCm)) {
             this.lengthCm = lengthCm;
             this.widthCm = widthCm;
             this.heightCm = heightCm;
+            updateBillableWeight();
             return true;
         }
         return false;
@@ -74,8 +94,16 @@ public class PhysicalProduct extends Product implements Shippable {
 
     // --- Уникальный метод бизнес-логики ---
     public double estimateShippingCost() {
+        if (!PricingMetrics.ENABLED) return shippingCost();
+        long start = PricingMetrics.start(Operation.SHIPPING_COST);
+        double cost = shippingCost();
+        PricingMetrics.stop(Operation.SHIPPING_COST, start);
+        return cost;
+    }
+
+    private double shippingCost() {
         if (shippingPolicy != null) {
-            return shippingPolicy.calculate(weightKg, lengthCm, widthCm, heightCm);
+            return ShippingPolicy.quote(shippingPolicy, weightKg, lengthCm, widthCm, heightCm, billableWeight);
         }
         return getBillableWeight() * ShippingConstants.STANDARD_RATE_PER_KG; // Fallback rate
     }
@@ -101,10 +129,13 @@ public class PhysicalProduct extends Product implements Shippable {
         return getBillableWeight();
     }
 
-    // --- Private helper method to eliminate duplication ---
+    // --- Private helper methods ---
     private double getBillableWeight() {
-        double volumetricWeight = (lengthCm * widthCm * heightCm) / VOLUMETRIC_DIVISOR;
-        return Math.max(weightKg, volumetricWeight);
+        return billableWeight;
+    }
+
+    private void updateBillableWeight() {
+        this.billableWeight = ShippingPolicy.billableWeight(weightKg, lengthCm, widthCm, heightCm);
     }
     
     // --- Геттеры для новых полей ---
@@ -112,9 +143,21 @@ public class PhysicalProduct extends Product implements Shippable {
         return weightKg;
     }
 
+    public double getLengthCm() {
+        return lengthCm;
+    }
+
+    public double getWidthCm() {
+        return widthCm;
+    }
+
+    public double getHeightCm() {
+        return heightCm;
+    }
+
     // --- Переопределение toString ---
     @Override
     public String toString() {
-        return super.toString() + String.format(" | Physical[weight=%.2fkg]", weightKg);
+        return super.toString() + String.format(" | Physical[weight=%.2fkg]", getWeightKg());
     }
 }
\ No newline at end of file
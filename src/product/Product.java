@@ -3,8 +3,12 @@ package product;
 // Импортируем класс Category, так как он нам снова нужен
 import category.Category;
 // Новые импорты для Лаб. 6
+import product.metrics.Operation;
+import product.metrics.PricingMetrics;
+import product.money.Money;
 import product.pricing.PricePolicy;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Базовый класс (суперкласс) для всех товаров.
@@ -13,8 +17,10 @@ import java.util.List;
 public class Product {
     // --- Статические члены ---
     public static final String DEFAULT_CURRENCY = "KZT";
-    private static int createdCount = 0;
-    private static int SEQ = 1;
+    public static final int LOW_STOCK_THRESHOLD = 10;
+    // Счетчик и генератор ID безопасны при параллельном создании товаров
+    private static final LongAdder CREATED_COUNT = new LongAdder();
+    private static final IdAllocator SEQ = new IdAllocator(1);
 
     // --- Атрибуты ---
     private String id;
@@ -33,7 +39,7 @@ public class Product {
         if (!trySetPrice(price)) this.price = 0.0;
         if (!trySetQuantity(quantity)) this.quantity = 0;
         trySetCategory(category);
-        createdCount++;
+        CREATED_COUNT.increment();
     }
 
     public Product(String id, String name, double price) {
@@ -44,6 +50,17 @@ public class Product {
         this("AUTO-" + nextSeq(), "Unnamed", 0.0);
     }
 
+    /**
+     * Конструктор для flyweight-представлений (строки колоночного каталога,
+     * временные строки пакетного расчета): только задает ID и название,
+     * без проверок, выделения ID и без учета в getCreatedCount().
+     * Представление переопределяет геттеры и не является отдельным товаром.
+     */
+    protected Product(String viewId, String viewName) {
+        this.id = viewId;
+        this.name = viewName;
+    }
+
     // --- Статические фабрики и методы ---
     public static Product of(String id, String name, double price) {
         return new Product(id, name, price);
@@ -53,20 +70,40 @@ public class Product {
         sample.trySetQuantity(1);
         return sample;
     }
-    public static int getCreatedCount() { return createdCount; }
-    private static String nextSeq() { return String.valueOf(SEQ++); }
+    public static int getCreatedCount() { return (int) CREATED_COUNT.sum(); }
+    private static String nextSeq() { return String.valueOf(SEQ.next()); }
+
+    // --- Правила валидации (общие для мутаторов и колоночного каталога) ---
+    public static boolean isValidId(String id) {
+        return id != null && id.trim().length() >= 2;
+    }
+    public static boolean isValidName(String name) {
+        return name != null && name.trim().length() >= 2;
+    }
+    public static boolean isValidPrice(double price) {
+        return price >= 0.0 && price <= 1_000_000.0;
+    }
+    public static boolean isValidQuantity(int quantity) {
+        return quantity >= 0 && quantity <= 1_000_000;
+    }
 
     // --- Защищенные мутаторы ---
     public boolean trySetId(String id) {
-        if (id != null && id.trim().length() >= 2) {
-            this.id = id.trim();
+        if (isValidId(id)) {
+            String newId = id.trim();
+            // Категория индексирует товары по ID: новый ID не должен быть занят
+            if (category != null && !category.onProductIdChanging(this, this.id, newId)) return false;
+            this.id = newId;
             return true;
         }
         return false;
     }
     public boolean trySetName(String name) {
-        if (name != null && name.trim().length() >= 2) {
+        if (isValidName(name)) {
+            String oldName = this.name;
             this.name = name.trim();
+            // Категория индексирует товары по префиксу названия
+            if (category != null && oldName != null) category.onProductRenamed(this, oldName);
             return true;
         }
         return false;
@@ -79,15 +116,19 @@ public class Product {
         return false;
     }
     public boolean trySetPrice(double price) {
-        if (price >= 0.0 && price <= 1_000_000.0) {
+        if (isValidPrice(price)) {
+            double oldPrice = this.price;
             this.price = price;
+            notifyCategory(oldPrice, this.quantity);
             return true;
         }
         return false;
     }
     public boolean trySetQuantity(int quantity) {
-        if (quantity >= 0 && quantity <= 1_000_000) {
+        if (isValidQuantity(quantity)) {
+            int oldQuantity = this.quantity;
             this.quantity = quantity;
+            notifyCategory(this.price, oldQuantity);
             return true;
         }
         return false;
@@ -100,25 +141,39 @@ public class Product {
     
     // --- Методы расчета и отображения (из старых лаб) ---
     public double calculateTotalValue() {
-        return this.price * this.quantity;
+        return getPrice() * getQuantity();
     }
 
     public boolean applyDiscount(double percentage) {
         if (percentage >= 0 && percentage <= 90) {
+            double oldPrice = this.price;
             this.price *= (1 - percentage / 100.0);
+            notifyCategory(oldPrice, this.quantity);
             return true;
         }
         return false;
     }
 
+    /**
+     * Сообщает категории об изменении цены/количества,
+     * чтобы она обновила накопительные итоги.
+     */
+    private void notifyCategory(double oldPrice, int oldQuantity) {
+        if (category != null) {
+            category.onProductChanged(this, oldPrice, oldQuantity);
+        }
+    }
+
     public void displayProductInfo() {
         System.out.println("--- Информация о товаре ---");
-        System.out.println("ID: " + id);
-        System.out.println("Название: " + name);
+        // Через геттеры: представления ProductCursor хранят данные не в полях
+        System.out.println("ID: " + getId());
+        System.out.println("Название: " + getName());
         System.out.println("Описание: " + (description == null || description.isEmpty() ? "Отсутствует" : description));
-        System.out.printf("Цена: %.2f\n", price);
-        System.out.println("Количество на складе: " + quantity);
+        System.out.printf("Цена: %.2f\n", getPrice());
+        System.out.println("Количество на складе: " + getQuantity());
         System.out.println("Статус наличия: " + getStockStatus());
+        Category category = getCategory();
         if (category != null && category.getName() != null) {
             System.out.println("Категория: " + category.getName());
         }
@@ -150,6 +205,7 @@ public class Product {
         if (qty <= 0) return 0.0;
         // Если правило null или не применимо, используем базовую цену
         if (policy == null || !policy.applicableTo(this)) {
+            if (PricingMetrics.ENABLED && policy != null) PricingMetrics.recordNotApplicable(policy);
             return finalPrice(qty);
         }
         // Применяем правило
@@ -160,15 +216,56 @@ public class Product {
      * 4) Цена за 'qty' шт, с выбором лучшего из списка правил.
      */
     public double finalPrice(int qty, List<PricePolicy> policies) {
+        if (!PricingMetrics.ENABLED) return bestFinalPrice(qty, policies);
+        long start = PricingMetrics.start(Operation.FINAL_PRICE);
+        double price = bestFinalPrice(qty, policies);
+        PricingMetrics.stop(Operation.FINAL_PRICE, start);
+        return price;
+    }
+
+    private double bestFinalPrice(int qty, List<PricePolicy> policies) {
         if (qty <= 0) return 0.0;
         if (policies == null || policies.isEmpty()) {
             return finalPrice(qty); // Нет правил, базовая цена
         }
         
         double bestPrice = Double.POSITIVE_INFINITY;
+        PricePolicy winner = null;
         // Находим минимальную цену среди всех правил
         for (PricePolicy pp : policies) {
             double currentPrice = finalPrice(qty, pp); // Вызываем (3)
+            if (currentPrice < bestPrice) {
+                bestPrice = currentPrice;
+                winner = pp;
+            }
+        }
+        if (PricingMetrics.ENABLED) PricingMetrics.recordWinner(this, winner);
+        return bestPrice;
+    }
+
+    // --- Точные суммы в тиынах (см. Money): те же правила, что у finalPrice ---
+
+    public long finalPriceMinor(int qty) {
+        if (qty <= 0) return 0L;
+        return Money.times(getPriceMinor(), qty);
+    }
+
+    public long finalPriceMinor(int qty, PricePolicy policy) {
+        if (qty <= 0) return 0L;
+        if (policy == null || !policy.applicableTo(this)) {
+            return finalPriceMinor(qty);
+        }
+        return policy.applyMinor(this, qty);
+    }
+
+    public long finalPriceMinor(int qty, List<PricePolicy> policies) {
+        if (qty <= 0) return 0L;
+        if (policies == null || policies.isEmpty()) {
+            return finalPriceMinor(qty);
+        }
+        long bestPrice = Long.MAX_VALUE;
+        for (PricePolicy pp : policies) {
+            long currentPrice = finalPriceMinor(qty, pp);
             if (currentPrice < bestPrice) {
                 bestPrice = currentPrice;
             }
@@ -183,6 +280,8 @@ public class Product {
     public int getQuantity() { return quantity; }
     public Category getCategory() { return category; }
     public double getCostPrice() { return costPrice; }
+    public long getPriceMinor() { return Money.toMinor(getPrice()); }
+    public long getCostPriceMinor() { return Money.toMinor(getCostPrice()); }
 
     /**
      * Устанавливает себестоимость товара.
@@ -198,14 +297,26 @@ public class Product {
     }
 
     public String getStockStatus() {
-        if (quantity == 0) return "OUT_OF_STOCK";
-        if (quantity <= 10) return "LOW";
-        return "IN_STOCK";
+        return stockStatusOf(getQuantity());
+    }
+
+    /**
+     * Статус наличия в виде enum (без сравнения строк).
+     */
+    public StockStatus stockStatus() {
+        return StockStatus.of(getQuantity());
+    }
+
+    /**
+     * Статус наличия для заданного количества (общий для Product и колоночного каталога).
+     */
+    public static String stockStatusOf(int quantity) {
+        return StockStatus.of(quantity).name();
     }
 
     @Override
     public String toString() {
         return String.format("Product[id=%s, name='%s', price=%.2f, quantity=%d]",
-                id, name, price, quantity);
+                getId(), getName(), getPrice(), getQuantity());
     }
 }
\ No newline at end of file
@@ -32,6 +32,9 @@ public class ShopDemo6 {
         TaxPolicy noTax = new NoTax();
         TaxPolicy flatVat = new FlatVat(12); // 12% VAT
         TaxPolicy digitalVat = new ReducedDigitalVat(5); // 5% for digital products
+        // Выбор налога по типу товара: цифровые — digitalVat, остальные — flatVat
+        TaxResolver taxResolver = TaxResolver.compile(
+            List.of(new TaxRule(DigitalProduct.class, digitalVat, 1)), flatVat);
 
         System.out.println("====== ДЕМОНСТРАЦИЯ ПРОМОАКЦИЙ (Template Method) ======\n");
         
@@ -101,7 +104,7 @@ public class ShopDemo6 {
             double afterPromo = bestPromo.apply(p, qty);
             
             // Choose appropriate tax policy
-            TaxPolicy tax = (p instanceof DigitalProduct) ? digitalVat : flatVat;
+            TaxPolicy tax = taxResolver.resolve(p);
             double taxAmount = tax.calculateTax(afterPromo);
             double withTax = afterPromo + taxAmount;
             
@@ -0,0 +1,117 @@
+package product;
+
+import product.checkout.Cart;
+import product.checkout.CheckoutLoadGenerator;
+import product.checkout.CheckoutResult;
+import product.checkout.CheckoutService;
+import product.checkout.LoadReport;
+import product.pricing.BogoHalfPromotion;
+import product.pricing.Buy3Pay2Promotion;
+import product.pricing.PercentagePromotion;
+import product.pricing.PolicySet;
+import product.shipping.ExpressShipping;
+import product.shipping.ShipmentPlanner;
+import product.shipping.StandardShipping;
+import product.tax.FlatVat;
+import product.tax.ReducedDigitalVat;
+import product.tax.TaxResolver;
+import product.tax.TaxResolverHolder;
+import product.tax.TaxRule;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочная проверка CheckoutService: корзины с промоакциями, налогами
+ * и доставкой считаются каждая в своем (виртуальном, если есть) потоке.
+ *
+ * Сначала параллельные расчеты сверяются с последовательными, затем
+ * генератор дает постоянный поток запросов и печатает p50/p99/p999.
+ * Это регрессионный порог задержки оформления заказа: при p99 выше
+ * лимита или ошибках программа завершается с кодом 1.
+ *
+ * Аргументы: [запросов в секунду] [секунд] [лимит p99, мс] — по умолчанию 2000 5 100.
+ */
+public class ShopDemoCheckout {
+    private static final int PRODUCTS = 1_000;
+    private static final int CARTS = 4_096;
+    private static final int MAX_LINES = 8;
+
+    public static void main(String[] args) throws InterruptedException {
+        int rps = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long p99LimitMs = args.length > 2 ? Long.parseLong(args[2]) : 100;
+        System.out.println("=== НАГРУЗКА НА ОФОРМЛЕНИЕ ЗАКАЗА: " + rps + " запросов/с, " + seconds + " с ===\n");
+
+        List<Cart> carts = buildCarts();
+        PolicySet promotions = PolicySet.compile(List.of(
+                new PercentagePromotion(10), new Buy3Pay2Promotion(), new BogoHalfPromotion()));
+        TaxResolverHolder taxes = new TaxResolverHolder(TaxResolver.compile(
+                List.of(new TaxRule(DigitalProduct.class, new ReducedDigitalVat(5), 1)), new FlatVat(12)));
+        ShipmentPlanner shipping = new ShipmentPlanner(List.of(new StandardShipping(), new ExpressShipping()));
+
+        try (CheckoutService service = new CheckoutService(promotions, taxes, shipping)) {
+            System.out.println("Потоки запросов: " + (service.usesVirtualThreads() ? "виртуальные" : "платформенные (JDK без виртуальных потоков)"));
+            System.out.println("Пример: " + service.checkout(carts.get(0)));
+
+            // 1. Параллельный расчет совпадает с последовательным
+            CheckoutResult[] expected = new CheckoutResult[CARTS];
+            for (int i = 0; i < CARTS; i++) expected[i] = service.checkout(carts.get(i));
+            List<CompletableFuture<CheckoutResult>> futures = new ArrayList<>(CARTS);
+            for (int i = 0; i < CARTS; i++) futures.add(service.submit(carts.get(i)));
+            int mismatched = 0;
+            for (int i = 0; i < CARTS; i++) {
+                CheckoutResult actual = futures.get(i).join();
+                if (actual.getTotal() != expected[i].getTotal() || actual.getTax() != expected[i].getTax()
+                        || actual.getShipping() != expected[i].getShipping()) {
+                    mismatched++;
+                }
+            }
+            System.out.println("Расхождений параллельного расчета: " + mismatched + " из " + CARTS);
+
+            // 2. Прогрев и замер
+            CheckoutLoadGenerator generator = new CheckoutLoadGenerator(service, i -> carts.get(i % CARTS));
+            generator.run(rps, Duration.ofSeconds(1));
+            LoadReport report = generator.run(rps, Duration.ofSeconds(seconds));
+            System.out.println("\n" + report);
+            System.out.printf("%np50 = %.3f мс, p99 = %.3f мс, p999 = %.3f мс (лимит p99: %d мс)%n",
+                    report.getP50Nanos() / 1e6, report.getP99Nanos() / 1e6, report.getP999Nanos() / 1e6, p99LimitMs);
+
+            boolean ok = mismatched == 0 && report.meets(p99LimitMs, TimeUnit.MILLISECONDS);
+            System.out.println(ok ? "\nРЕЗУЛЬТАТ: OK — задержка в пределах лимита"
+                                  : "\nРЕЗУЛЬТАТ: ОШИБКА — расхождения, ошибки или p99 выше лимита");
+            if (!ok) System.exit(1);
+        }
+    }
+
+    private static List<Cart> buildCarts() {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            double price = 100 + (i * 37) % 5_000;
+            if (i % 3 == 0) {
+                products.add(new DigitalProduct("CHK-" + i, "Файл " + i, null, price, 100, 100 + i, null));
+            } else {
+                products.add(new PhysicalProduct("CHK-" + i, "Товар " + i, null, price, 100,
+                        0.2 + (i % 40) / 4.0, 10 + i % 50, 10 + i % 30, 5 + i % 20));
+            }
+        }
+        List<Cart> carts = new ArrayList<>(CARTS);
+        int x = 0x2545F491;
+        for (int c = 0; c < CARTS; c++) {
+            x ^= x << 13; x ^= x >>> 17; x ^= x << 5; // xorshift
+            int lines = 1 + (x >>> 1) % MAX_LINES;
+            List<Product> cartProducts = new ArrayList<>(lines);
+            int[] quantities = new int[lines];
+            for (int l = 0; l < lines; l++) {
+                x ^= x << 13; x ^= x >>> 17; x ^= x << 5;
+                cartProducts.add(products.get((x >>> 1) % PRODUCTS));
+                quantities[l] = 1 + ((x >>> 4) & 3);
+            }
+            carts.add(new Cart(cartProducts, quantities));
+        }
+        return carts;
+    }
+}
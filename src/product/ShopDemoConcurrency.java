@@ -0,0 +1,58 @@
+package product;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стресс-проверка генерации ID и счетчика созданных товаров.
+ * 64 потока одновременно создают товары без ID (получают "AUTO-n"),
+ * после чего проверяется уникальность ID и точность getCreatedCount().
+ */
+public class ShopDemoConcurrency {
+    private static final int THREADS = 64;
+    private static final int PRODUCTS_PER_THREAD = 20_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== СТРЕСС-ТЕСТ: " + THREADS + " потоков x " + PRODUCTS_PER_THREAD + " товаров ===\n");
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int countBefore = Product.getCreatedCount();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await(); // стартуем все потоки одновременно
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < PRODUCTS_PER_THREAD; i++) {
+                    // null ID -> конструктор выдает "AUTO-n"
+                    Product p = (i % 2 == 0) ? new Product(null, "Item", 1.0) : new Product();
+                    ids.add(p.getId());
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+
+        int expected = THREADS * PRODUCTS_PER_THREAD;
+        int created = Product.getCreatedCount() - countBefore;
+
+        System.out.println("Ожидалось товаров:    " + expected);
+        System.out.println("getCreatedCount():    " + created);
+        System.out.println("Уникальных AUTO-ID:   " + ids.size());
+
+        boolean ok = created == expected && ids.size() == expected;
+        System.out.println(ok ? "\nРЕЗУЛЬТАТ: OK — дубликатов нет, счетчик точный"
+                              : "\nРЕЗУЛЬТАТ: ОШИБКА — найдены дубликаты или потерянные инкременты");
+        if (!ok) System.exit(1);
+    }
+}
@@ -0,0 +1,141 @@
+package product;
+
+import category.Category;
+import product.catalog.ColumnarCatalog;
+import product.service.CatalogImporter;
+import product.service.ImportFormat;
+import product.service.ImportRejection;
+import product.service.ImportReport;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Проверка CatalogImporter: один и тот же файл импортируется в одном потоке
+ * и параллельно мелкими кусками. Каталоги и отчеты об ошибках должны
+ * совпасть строка в строку, а товары — с созданными через конструкторы
+ * PhysicalProduct/DigitalProduct (включая скидку цифровым товарам).
+ */
+public class ShopDemoImport {
+    private static final int ROWS = 200_000;
+    private static final int THREADS = 4;
+    private static final int SMALL_CHUNK = 64 << 10;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== ИМПОРТ КАТАЛОГА: " + ROWS + " строк CSV ===\n");
+        Category books = new Category(1, "Книги");
+        Category tools = new Category(2, "Инструменты");
+        Path file = Files.createTempFile("catalog-import", ".csv");
+        try {
+            writeFeed(file);
+
+            ColumnarCatalog sequential = new ColumnarCatalog();
+            ImportReport first = new CatalogImporter(1).importFile(file, ImportFormat.CSV, sequential,
+                    id -> id == 1 ? books : id == 2 ? tools : null);
+            ColumnarCatalog parallel = new ColumnarCatalog();
+            ImportReport second = new CatalogImporter(THREADS, SMALL_CHUNK).importFile(file, ImportFormat.CSV, parallel,
+                    id -> id == 1 ? books : id == 2 ? tools : null);
+
+            System.out.println("Строк с данными:  " + first.getRows());
+            System.out.println("Импортировано:    " + first.getImported());
+            System.out.println("Отклонено:        " + first.getRejectedCount() + " " + first.getRejectionsByError());
+            List<ImportRejection> rejections = first.getRejections();
+            for (int i = 0; i < Math.min(3, rejections.size()); i++) {
+                System.out.println("  " + rejections.get(i));
+            }
+            System.out.printf("Строк в секунду:  %.0f (1 поток), %.0f (%d потока)%n",
+                    first.getRowsPerSecond(), second.getRowsPerSecond(), THREADS);
+
+            boolean ok = sameCatalog(sequential, parallel) && sameRejections(first, second)
+                    && first.getRows() == ROWS && first.getImported() + first.getRejectedCount() == ROWS
+                    && matchesConstructors(sequential, books, tools);
+            System.out.println(ok ? "\nРЕЗУЛЬТАТ: OK — параллельный импорт совпал с последовательным и с конструкторами"
+                                  : "\nРЕЗУЛЬТАТ: ОШИБКА — результаты импорта расходятся");
+            if (!ok) System.exit(1);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Каждая 20-я строка с ошибкой, каждая 97-я повторяет ID предыдущей
+    private static void writeFeed(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("kind,id,name,price,quantity,costPrice,categoryId,weightKg,lengthCm,widthCm,heightCm,downloadSizeMb,licenseKey\n");
+            for (int i = 0; i < ROWS; i++) {
+                String id = "IMP-" + (i % 97 == 96 ? i - 1 : i);
+                String price = i % 20 == 7 ? "-1" : (i % 5000) + "." + (i % 100);
+                String weight = i % 20 == 13 ? "1500" : String.valueOf(i % 50);
+                String category = i % 20 == 17 ? "9" : String.valueOf(1 + i % 3 % 2);
+                switch (i % 3) {
+                    case 0:
+                        out.write("GENERIC," + id + ",Товар " + i + "," + price + "," + (i % 40) + ",1.5," + category + "\n");
+                        break;
+                    case 1:
+                        out.write("PHYSICAL," + id + ",\"Ящик, " + i + "\"," + price + "," + (i % 40) + ",2," + category
+                                + "," + weight + ",30,20,10\n");
+                        break;
+                    default:
+                        out.write("DIGITAL," + id + ",Файл " + i + "," + price + "," + (i % 40) + ",0," + category
+                                + ",,,,," + (i % 2 == 0 ? 1_000 : 700_000) + ",KEY-" + i + "\n");
+                }
+            }
+        }
+    }
+
+    private static boolean sameCatalog(ColumnarCatalog a, ColumnarCatalog b) {
+        if (a.size() != b.size()) return false;
+        for (int row = 0; row < a.size(); row++) {
+            if (!a.getId(row).equals(b.getId(row)) || !a.getName(row).equals(b.getName(row))
+                    || a.getPrice(row) != b.getPrice(row) || a.getQuantity(row) != b.getQuantity(row)
+                    || a.getCategory(row) != b.getCategory(row) || a.getKind(row) != b.getKind(row)
+                    || a.getWeightKg(row) != b.getWeightKg(row) || a.getDownloadSizeMb(row) != b.getDownloadSizeMb(row)) {
+                System.out.println("Расхождение в строке " + row + ": " + a.getId(row) + " / " + b.getId(row));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameRejections(ImportReport a, ImportReport b) {
+        List<ImportRejection> x = a.getRejections();
+        List<ImportRejection> y = b.getRejections();
+        if (x.size() != y.size()) return false;
+        for (int i = 0; i < x.size(); i++) {
+            if (!x.get(i).toString().equals(y.get(i).toString())) {
+                System.out.println("Расхождение в отчете: " + x.get(i) + " / " + y.get(i));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesConstructors(ColumnarCatalog catalog, Category books, Category tools) {
+        for (int row = 0; row < catalog.size(); row += 101) {
+            // Номер строки файла — в конце названия (ID у повторов может быть чужим)
+            String name = catalog.getName(row);
+            int i = Integer.parseInt(name.substring(name.lastIndexOf(' ') + 1));
+            double price = Double.parseDouble((i % 5000) + "." + (i % 100));
+            Product expected;
+            if (i % 3 == 1) {
+                expected = new PhysicalProduct(catalog.getId(row), "Ящик, " + i, null, price, i % 40, i % 50, 30, 20, 10);
+            } else if (i % 3 == 2) {
+                expected = new DigitalProduct(catalog.getId(row), "Файл " + i, null, price, i % 40,
+                        i % 2 == 0 ? 1_000 : 700_000, "KEY-" + i);
+            } else {
+                expected = new Product(catalog.getId(row), "Товар " + i, null, price, i % 40, null);
+            }
+            Category category = 1 + i % 3 % 2 == 1 ? books : tools;
+            if (!expected.getName().equals(catalog.getName(row)) || expected.getPrice() != catalog.getPrice(row)
+                    || category != catalog.getCategory(row)
+                    || expected.calculateTotalValue() != catalog.calculateTotalValue(row)) {
+                System.out.println("Не совпадает с конструктором: " + expected + " / строка " + row);
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+package product;
+
+import product.inventory.InventoryLedger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Стресс-проверка InventoryLedger: 32 потока одновременно резервируют,
+ * оплачивают и отменяют заказы по одним и тем же товарам.
+ * Проверяется, что остаток не уходит в минус (нет перепродажи) и что
+ * доступно + в резерве + продано = начальный остаток.
+ */
+public class ShopDemoInventory {
+    private static final int THREADS = 32;
+    private static final int OPERATIONS_PER_THREAD = 200_000;
+    private static final int PRODUCTS = 16;
+    private static final int INITIAL_STOCK = 50_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== СТРЕСС-ТЕСТ СКЛАДА: " + THREADS + " потоков x " + OPERATIONS_PER_THREAD + " операций ===\n");
+
+        InventoryLedger ledger = new InventoryLedger(PRODUCTS, true);
+        for (int i = 0; i < PRODUCTS; i++) {
+            ledger.register("INV-" + i, INITIAL_STOCK);
+        }
+        LongAdder sold = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            final int seed = t;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                int x = seed * 0x9E3779B9 + 1;
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    x ^= x << 13; x ^= x >>> 17; x ^= x << 5; // xorshift
+                    int slot = (x >>> 1) % PRODUCTS;
+                    int n = 1 + ((x >>> 8) & 3);
+                    if (!ledger.reserve(slot, n)) {
+                        rejected.increment();
+                        continue;
+                    }
+                    if ((x & 0x30) != 0) { // ~75% заказов оплачиваются
+                        ledger.commit(slot, n);
+                        sold.add(n);
+                    } else {
+                        ledger.release(slot, n);
+                    }
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        long available = 0;
+        long reserved = 0;
+        boolean negative = false;
+        for (int i = 0; i < PRODUCTS; i++) {
+            available += ledger.getAvailable(i);
+            reserved += ledger.getReserved(i);
+            negative |= ledger.getAvailable(i) < 0 || ledger.getReserved(i) < 0;
+        }
+        long initial = (long) PRODUCTS * INITIAL_STOCK;
+
+        System.out.println("Начальный остаток:    " + initial);
+        System.out.println("Продано:              " + sold.sum());
+        System.out.println("Доступно + в резерве: " + (available + reserved));
+        System.out.println("Отказов (нет товара): " + rejected.sum());
+        System.out.printf("Операций в секунду:   %.0f%n", THREADS * (double) OPERATIONS_PER_THREAD / seconds);
+
+        boolean ok = !negative && reserved == 0 && available + sold.sum() == initial;
+        System.out.println(ok ? "\nРЕЗУЛЬТАТ: OK — перепродаж и потерянных обновлений нет"
+                              : "\nРЕЗУЛЬТАТ: ОШИБКА — остатки не сходятся");
+        if (!ok) System.exit(1);
+    }
+}
@@ -0,0 +1,247 @@
+package product;
+
+import product.checkout.Cart;
+import product.checkout.CartPromotion;
+import product.checkout.CartPromotionOptimizer;
+import product.checkout.PromotionPlan;
+import product.checkout.PromotionScope;
+import product.metrics.LatencyHistogram;
+import product.pricing.BogoHalfPromotion;
+import product.pricing.Buy3Pay2Promotion;
+import product.pricing.FixedPromotion;
+import product.pricing.PercentagePromotion;
+import product.pricing.Promotion;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка CartPromotionOptimizer.
+ *
+ * 1. На маленьких корзинах (до 10 акций) результат сверяется с полным
+ *    перебором: все допустимые наборы акций корзины и все допустимые
+ *    комбинации акций на каждой строке.
+ * 2. На корзинах из 50 строк и 20 акций проверяется, что план допустим,
+ *    не хуже жадного (если бюджет не исчерпан) и что p99 времени на корзину
+ *    не выходит за бюджет с запасом на паузы JVM и планировщика. Замеры
+ *    и сверка идут после прогрева: до конца JIT-компиляции вызовы
+ *    вытесняются компилятором и упираются в бюджет.
+ *
+ * При расхождении программа завершается с кодом 1.
+ */
+public class ShopDemoPromotions {
+    private static final int SMALL_CASES = 500;
+    private static final int LARGE_CARTS = 200;
+    private static final int WARMUP_ROUNDS = 40; // пока JIT не докомпилирует горячий код
+    private static final int LARGE_ROUNDS = 20;
+    private static final long LATENCY_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public static void main(String[] args) {
+        System.out.println("=== ОПТИМИЗАЦИЯ АКЦИЙ КОРЗИНЫ ===\n");
+        Random random = new Random(42);
+
+        // 1. Сверка с полным перебором
+        int mismatched = 0;
+        int illegal = 0;
+        for (int c = 0; c < SMALL_CASES; c++) {
+            List<CartPromotion> promotions = randomPromotions(random, 2 + random.nextInt(9));
+            Cart cart = randomCart(random, 1 + random.nextInt(8));
+            PromotionPlan plan = new CartPromotionOptimizer(promotions, Duration.ofSeconds(1)).optimize(cart);
+            long expected = bruteForce(cart, promotions);
+            if (!plan.isOptimal() || plan.getTotalMinor() != expected) {
+                if (mismatched++ < 3) System.out.println("Расхождение: " + plan + " / перебор " + expected);
+            }
+            if (!legal(cart, promotions, plan)) illegal++;
+        }
+        System.out.println("Малые корзины: " + SMALL_CASES + ", расхождений с перебором: " + mismatched
+                + ", недопустимых планов: " + illegal);
+
+        // 2. 50 строк, 20 акций
+        List<CartPromotion> promotions = randomPromotions(random, 20);
+        List<Cart> carts = new ArrayList<>(LARGE_CARTS);
+        for (int c = 0; c < LARGE_CARTS; c++) carts.add(randomCart(random, 50));
+        CartPromotionOptimizer optimizer = new CartPromotionOptimizer(promotions);
+        CartPromotionOptimizer greedy = new CartPromotionOptimizer(promotions, Duration.ZERO);
+        long budget = CartPromotionOptimizer.DEFAULT_BUDGET.toNanos();
+        LatencyHistogram latency = new LatencyHistogram();
+        int worseThanGreedy = 0;
+        int optimal = 0;
+        int overBudget = 0;
+        long saved = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + LARGE_ROUNDS; round++) {
+            if (round == WARMUP_ROUNDS) latency.reset();
+            for (Cart cart : carts) {
+                PromotionPlan plan = optimizer.optimize(cart);
+                latency.record(plan.getElapsedNanos());
+                if (round != WARMUP_ROUNDS) continue;
+                PromotionPlan fallback = greedy.optimize(cart);
+                // Бюджет не исчерпан — жадный проход завершён, план не может быть хуже
+                boolean withinBudget = plan.getElapsedNanos() <= budget;
+                if (withinBudget && plan.getTotalMinor() > fallback.getTotalMinor()) worseThanGreedy++;
+                if (!legal(cart, promotions, plan)) illegal++;
+                if (plan.isOptimal()) optimal++;
+                if (withinBudget) saved += fallback.getTotalMinor() - plan.getTotalMinor();
+                else overBudget++;
+            }
+        }
+        System.out.println("Пример: " + optimizer.optimize(carts.get(0)));
+        System.out.println("\nБольшие корзины: " + LARGE_CARTS + " x 50 строк, 20 акций");
+        System.out.println("Оптимальных планов: " + optimal + " из " + LARGE_CARTS
+                + ", экономия относительно жадного: " + saved / 100.0
+                + " (без " + overBudget + " корзин, прерванных по бюджету)");
+        System.out.println("Время на корзину: " + latency.summary(TimeUnit.MICROSECONDS));
+
+        // Бюджет ограничивает весь вызов, поэтому хвост тоже должен в него укладываться
+        long p99 = latency.valueAtPercentile(99);
+        long limit = budget + LATENCY_SLACK_NANOS;
+        boolean ok = mismatched == 0 && illegal == 0 && worseThanGreedy == 0 && p99 <= limit;
+        System.out.println(ok ? "\nРЕЗУЛЬТАТ: OK — планы оптимальны и допустимы, p99 в пределах бюджета"
+                              : "\nРЕЗУЛЬТАТ: ОШИБКА — неверный план или p99 " + p99 / 1_000 + " мкс > "
+                                + limit / 1_000 + " мкс (худших, чем жадный: " + worseThanGreedy + ")");
+        if (!ok) System.exit(1);
+    }
+
+    private static List<CartPromotion> randomPromotions(Random random, int count) {
+        String[] groups = {null, null, "купон", "сезон"};
+        List<CartPromotion> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Promotion promotion;
+            switch (random.nextInt(5)) {
+                case 0: promotion = new PercentagePromotion(5 + random.nextInt(26)); break;
+                case 1: promotion = new FixedPromotion(10 + random.nextInt(200)); break;
+                case 2: promotion = new Buy3Pay2Promotion(); break;
+                case 3: promotion = new BogoHalfPromotion(); break;
+                default:
+                    // Акция только на цифровые товары
+                    promotion = new PercentagePromotion(10 + random.nextInt(30)) {
+                        @Override
+                        public boolean applicableTo(Product p) {
+                            return p instanceof DigitalProduct;
+                        }
+                    };
+            }
+            PromotionScope scope = random.nextInt(3) == 0 ? PromotionScope.CART : PromotionScope.LINE;
+            result.add(new CartPromotion(promotion, scope, groups[random.nextInt(groups.length)], random.nextBoolean()));
+        }
+        return result;
+    }
+
+    private static Cart randomCart(Random random, int lines) {
+        List<Product> products = new ArrayList<>(lines);
+        int[] quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            if (i > 0 && random.nextInt(6) == 0) {
+                // Повтор строки: тот же товар и количество
+                products.add(products.get(i - 1));
+                quantities[i] = quantities[i - 1];
+                continue;
+            }
+            double price = 50 + random.nextInt(5_000) + random.nextInt(100) / 100.0;
+            if (random.nextBoolean()) {
+                products.add(new DigitalProduct("PR-" + i, "Файл " + i, null, price, 100, 100, null));
+            } else {
+                products.add(new Product("PR-" + i, "Товар " + i, null, price, 100, null));
+            }
+            quantities[i] = 1 + random.nextInt(6);
+        }
+        return new Cart(products, quantities);
+    }
+
+    // --- Полный перебор (без кода оптимизатора) ---
+
+    private static long bruteForce(Cart cart, List<CartPromotion> promotions) {
+        int n = promotions.size();
+        long best = Long.MAX_VALUE;
+        for (int used = 0; used < 1 << n; used++) {
+            if (!groupsRespected(promotions, used)) continue;
+            long total = 0;
+            for (int line = 0; line < cart.size() && total != Long.MAX_VALUE; line++) {
+                long cost = bestLine(cart.getProduct(line), cart.getQuantity(line), promotions, used);
+                total = cost == Long.MAX_VALUE ? Long.MAX_VALUE : total + cost;
+            }
+            best = Math.min(best, total);
+        }
+        return best;
+    }
+
+    private static boolean groupsRespected(List<CartPromotion> promotions, int used) {
+        Set<String> seen = new HashSet<>();
+        for (int p = 0; p < promotions.size(); p++) {
+            String group = promotions.get(p).getExclusivityGroup();
+            if ((used >> p & 1) != 0 && group != null && !seen.add(group)) return false;
+        }
+        return true;
+    }
+
+    // Лучшая цена строки при наборе акций корзины used; MAX_VALUE, если допустимых вариантов нет
+    private static long bestLine(Product product, int qty, List<CartPromotion> promotions, int used) {
+        int n = promotions.size();
+        long listPrice = product.finalPriceMinor(qty);
+        long[] saving = new long[n];
+        int candidates = 0;
+        int forced = 0;
+        for (int p = 0; p < n; p++) {
+            if ((used >> p & 1) == 0) continue;
+            saving[p] = listPrice - product.finalPriceMinor(qty, promotions.get(p).getPromotion());
+            if (saving[p] <= 0) continue;
+            candidates |= 1 << p;
+            if (promotions.get(p).getScope() == PromotionScope.CART) forced |= 1 << p;
+        }
+        long best = Long.MAX_VALUE;
+        for (int onLine = candidates; ; onLine = (onLine - 1) & candidates) {
+            if ((onLine & forced) == forced && stackingAllowed(promotions, onLine)) {
+                long discount = 0;
+                for (int p = 0; p < n; p++) if ((onLine >> p & 1) != 0) discount += saving[p];
+                best = Math.min(best, Math.max(0L, listPrice - discount));
+            }
+            if (onLine == 0) break;
+        }
+        return best;
+    }
+
+    private static boolean stackingAllowed(List<CartPromotion> promotions, int onLine) {
+        if (Integer.bitCount(onLine) <= 1) return true;
+        for (int p = 0; p < promotions.size(); p++) {
+            if ((onLine >> p & 1) != 0 && !promotions.get(p).isStackable()) return false;
+        }
+        return true;
+    }
+
+    // План соблюдает правила и его сумма сходится со строками
+    private static boolean legal(Cart cart, List<CartPromotion> promotions, PromotionPlan plan) {
+        Set<String> groups = new HashSet<>();
+        for (CartPromotion used : plan.getUsedPromotions()) {
+            if (used.getExclusivityGroup() != null && !groups.add(used.getExclusivityGroup())) return false;
+        }
+        long total = 0;
+        for (int line = 0; line < cart.size(); line++) {
+            Product product = cart.getProduct(line);
+            int qty = cart.getQuantity(line);
+            List<CartPromotion> onLine = plan.getAppliedPromotions(line);
+            long listPrice = product.finalPriceMinor(qty);
+            long discount = 0;
+            boolean allStackable = true;
+            for (CartPromotion promotion : onLine) {
+                long saving = listPrice - product.finalPriceMinor(qty, promotion.getPromotion());
+                if (saving <= 0) return false;
+                discount += saving;
+                allStackable &= promotion.isStackable();
+            }
+            if (onLine.size() > 1 && !allStackable) return false;
+            for (CartPromotion used : plan.getUsedPromotions()) {
+                if (used.getScope() == PromotionScope.CART && !onLine.contains(used)
+                        && listPrice - product.finalPriceMinor(qty, used.getPromotion()) > 0) {
+                    return false;
+                }
+            }
+            if (plan.getLineTotalMinor(line) != Math.max(0L, listPrice - discount)) return false;
+            total += plan.getLineTotalMinor(line);
+        }
+        return total == plan.getTotalMinor() && promotions.containsAll(plan.getUsedPromotions());
+    }
+}
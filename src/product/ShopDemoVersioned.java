@@ -0,0 +1,98 @@
+package product;
+
+import product.catalog.CatalogVersion;
+import product.catalog.VersionedCatalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Стресс-проверка VersionedCatalog: писатель пакетами переносит часть цены
+ * с одного товара на другой (сумма цен не меняется), а читатели без
+ * блокировок считают отчеты по зафиксированным версиям.
+ * Каждая версия должна давать ровно исходную стоимость склада — если бы
+ * читатель увидел пакет наполовину, сумма бы разошлась.
+ */
+public class ShopDemoVersioned {
+    private static final int PRODUCTS = 50_000;
+    private static final int READERS = 6;
+    private static final int BATCHES = 20_000;
+    private static final int TRANSFERS_PER_BATCH = 8;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== СТРЕСС-ТЕСТ ВЕРСИЙ КАТАЛОГА: " + READERS + " читателей, " + BATCHES + " пакетов ===\n");
+
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            // Целые цены: сумма считается точно в любом порядке сложения
+            products.add(new Product("VER-" + i, "Товар " + i, null, 1_000, 1, null));
+        }
+        VersionedCatalog catalog = VersionedCatalog.of(products);
+        double expected = catalog.snapshot().totalValue();
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        LongAdder reports = new LongAdder();
+        LongAdder torn = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(READERS);
+        for (int t = 0; t < READERS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (writing.get()) {
+                    CatalogVersion pinned = catalog.snapshot();
+                    double first = pinned.totalValue();
+                    double second = pinned.totalValue(); // та же версия — тот же результат
+                    if (first != expected || second != expected) torn.increment();
+                    reports.increment();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        int x = 0x2545F491;
+        VersionedCatalog.Batch batch = catalog.begin();
+        for (int b = 0; b < BATCHES; b++) {
+            CatalogVersion base = catalog.snapshot(); // писатель один: base — последняя версия
+            x ^= x << 13; x ^= x >>> 17; x ^= x << 5; // xorshift
+            int offset = (x >>> 1) % PRODUCTS;
+            for (int c = 0; c < TRANSFERS_PER_BATCH; c++) {
+                // Строки всех переносов пакета различны и лежат на разных страницах
+                int from = (offset + c * 3_001) % PRODUCTS;
+                int to = (from + 1_500) % PRODUCTS;
+                double amount = Math.min(base.getPrice(from), 1 + ((x >>> (c + 3)) & 15));
+                batch.trySetPrice(from, base.getPrice(from) - amount);
+                batch.trySetPrice(to, base.getPrice(to) + amount);
+            }
+            batch.commit();
+        }
+        writing.set(false);
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        CatalogVersion last = catalog.snapshot();
+        System.out.printf("Исходная стоимость:  %.0f%n", expected);
+        System.out.printf("Итоговая стоимость:  %.0f%n", last.totalValue());
+        System.out.println("Версий опубликовано: " + last.version());
+        System.out.println("Отчетов посчитано:   " + reports.sum());
+        System.out.println("Несогласованных:     " + torn.sum());
+        System.out.printf("Пакетов в секунду:   %.0f%n", BATCHES / seconds);
+
+        boolean ok = torn.sum() == 0 && last.totalValue() == expected;
+        System.out.println(ok ? "\nРЕЗУЛЬТАТ: OK — читатели видели только целые версии"
+                              : "\nРЕЗУЛЬТАТ: ОШИБКА — отчет увидел незавершенный пакет");
+        if (!ok) System.exit(1);
+    }
+}
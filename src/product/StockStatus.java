@@ -0,0 +1,29 @@
+package product;
+
+/**
+ * Статус наличия товара. Имена констант совпадают со строками,
+ * которые возвращает {@link Product#getStockStatus()}.
+ */
+public enum StockStatus {
+    IN_STOCK,
+    LOW,
+    OUT_OF_STOCK;
+
+    private static final StockStatus[] VALUES = values();
+
+    /**
+     * Статус для заданного количества (пороги — Product.LOW_STOCK_THRESHOLD).
+     */
+    public static StockStatus of(int quantity) {
+        if (quantity == 0) return OUT_OF_STOCK;
+        if (quantity <= Product.LOW_STOCK_THRESHOLD) return LOW;
+        return IN_STOCK;
+    }
+
+    /**
+     * Статус по порядковому номеру (без копирования массива values()).
+     */
+    public static StockStatus byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
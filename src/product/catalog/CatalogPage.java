@@ -0,0 +1,124 @@
+package product.catalog;
+
+import category.Category;
+
+/**
+ * Страница версионного каталога: колонки для PAGE_SIZE строк подряд.
+ *
+ * После публикации версии страница не меняется. Пакет изменений делает
+ * поверхностную копию только тех страниц, строки которых он трогает,
+ * а внутри страницы копирует только изменяемые колонки: смена цены
+ * копирует prices, остальные массивы остаются общими с прежней версией.
+ * Мутаторы *ForWrite вызываются только из черновика до публикации.
+ */
+final class CatalogPage {
+    static final int PAGE_SHIFT = 10;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int PRICES = 1;
+    private static final int QUANTITIES = 1 << 1;
+    private static final int COST_PRICES = 1 << 2;
+    private static final int ALL = -1;
+
+    String[] ids;
+    String[] names;
+    double[] prices;
+    int[] quantities;
+    double[] costPrices;
+    Category[] categories;
+    byte[] kinds;
+    double[] weights;
+    double[] lengths;
+    double[] widths;
+    double[] heights;
+    double[] downloadSizes;
+    boolean[] licenses;
+
+    private int owned; // колонки, уже скопированные этим черновиком
+
+    CatalogPage() {
+        ids = new String[PAGE_SIZE];
+        names = new String[PAGE_SIZE];
+        prices = new double[PAGE_SIZE];
+        quantities = new int[PAGE_SIZE];
+        costPrices = new double[PAGE_SIZE];
+        categories = new Category[PAGE_SIZE];
+        kinds = new byte[PAGE_SIZE];
+        weights = new double[PAGE_SIZE];
+        lengths = new double[PAGE_SIZE];
+        widths = new double[PAGE_SIZE];
+        heights = new double[PAGE_SIZE];
+        downloadSizes = new double[PAGE_SIZE];
+        licenses = new boolean[PAGE_SIZE];
+        owned = ALL;
+    }
+
+    private CatalogPage(CatalogPage source) {
+        ids = source.ids;
+        names = source.names;
+        prices = source.prices;
+        quantities = source.quantities;
+        costPrices = source.costPrices;
+        categories = source.categories;
+        kinds = source.kinds;
+        weights = source.weights;
+        lengths = source.lengths;
+        widths = source.widths;
+        heights = source.heights;
+        downloadSizes = source.downloadSizes;
+        licenses = source.licenses;
+    }
+
+    /**
+     * Поверхностная копия: колонки общие, пока их не запросят на запись.
+     */
+    CatalogPage copy() {
+        return new CatalogPage(this);
+    }
+
+    double[] pricesForWrite() {
+        if ((owned & PRICES) == 0) {
+            prices = prices.clone();
+            owned |= PRICES;
+        }
+        return prices;
+    }
+
+    int[] quantitiesForWrite() {
+        if ((owned & QUANTITIES) == 0) {
+            quantities = quantities.clone();
+            owned |= QUANTITIES;
+        }
+        return quantities;
+    }
+
+    double[] costPricesForWrite() {
+        if ((owned & COST_PRICES) == 0) {
+            costPrices = costPrices.clone();
+            owned |= COST_PRICES;
+        }
+        return costPrices;
+    }
+
+    /**
+     * Все колонки на запись (добавление строки в частично заполненную страницу).
+     */
+    void ownAll() {
+        if (owned == ALL) return;
+        ids = ids.clone();
+        names = names.clone();
+        prices = prices.clone();
+        quantities = quantities.clone();
+        costPrices = costPrices.clone();
+        categories = categories.clone();
+        kinds = kinds.clone();
+        weights = weights.clone();
+        lengths = lengths.clone();
+        widths = widths.clone();
+        heights = heights.clone();
+        downloadSizes = downloadSizes.clone();
+        licenses = licenses.clone();
+        owned = ALL;
+    }
+}
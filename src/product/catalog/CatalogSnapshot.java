@@ -0,0 +1,337 @@
+package product.catalog;
+
+import category.Category;
+import product.DigitalProduct;
+import product.PhysicalProduct;
+import product.Product;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Бинарный снимок каталога фиксированной ширины. Пишется один раз,
+ * читается через {@link MappedCatalog#open(Path)} без разбора и без
+ * вызова конструкторов Product.
+ *
+ * Формат (версия 1, big-endian):
+ * <pre>
+ * Заголовок, 64 байта:
+ *   0  int  MAGIC           4  int  VERSION        8  int  rowCount
+ *  12  int  RECORD_SIZE    16  int  categoryCount  20  int  hashCapacity
+ *  24  long recordsOffset  32  long categoriesOffset
+ *  40  long hashOffset     48  long stringsOffset  56  int  stringCount
+ * Запись строки, 80 байт:
+ *   0  int idRef    4  int nameRef   8  byte kind   9  byte flags (бит 0 — лицензия)
+ *  12  int categoryOrdinal  16  int quantity
+ *  24  double price  32 cost  40 weightKg  48 lengthCm  56 widthCm  64 heightCm  72 downloadSizeMb
+ * Категории: (int id, int nameRef) на категорию.
+ * Хеш-индекс ID: int[hashCapacity], в ячейке row + 1 (0 — пусто), линейное пробирование.
+ * Строки: int[stringCount + 1] смещений, затем байты UTF-8.
+ * </pre>
+ *
+ * Сам ключ лицензии в снимок не попадает, сохраняется только признак
+ * isLicenseRequired(). Размер файла ограничен 2 ГБ: столько Java
+ * отображает одним MappedByteBuffer.
+ */
+public final class CatalogSnapshot {
+    static final int MAGIC = 0x43415453; // "CATS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 80;
+    static final int CATEGORY_SIZE = 8;
+    static final ByteOrder ORDER = ByteOrder.BIG_ENDIAN;
+
+    // Смещения полей заголовка
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_ROW_COUNT = 8;
+    static final int H_RECORD_SIZE = 12;
+    static final int H_CATEGORY_COUNT = 16;
+    static final int H_HASH_CAPACITY = 20;
+    static final int H_RECORDS_OFFSET = 24;
+    static final int H_CATEGORIES_OFFSET = 32;
+    static final int H_HASH_OFFSET = 40;
+    static final int H_STRINGS_OFFSET = 48;
+    static final int H_STRING_COUNT = 56;
+
+    // Смещения полей записи
+    static final int R_ID_REF = 0;
+    static final int R_NAME_REF = 4;
+    static final int R_KIND = 8;
+    static final int R_FLAGS = 9;
+    static final int R_CATEGORY = 12;
+    static final int R_QUANTITY = 16;
+    static final int R_PRICE = 24;
+    static final int R_COST = 32;
+    static final int R_WEIGHT = 40;
+    static final int R_LENGTH = 48;
+    static final int R_WIDTH = 56;
+    static final int R_HEIGHT = 64;
+    static final int R_DOWNLOAD_SIZE = 72;
+
+    static final int FLAG_LICENSE = 1;
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private CatalogSnapshot() {
+        // Утилитный класс
+    }
+
+    /**
+     * Записывает снимок колоночного каталога.
+     */
+    public static void write(Path file, ColumnarCatalog catalog) throws IOException {
+        write(file, (RowSource) catalog);
+    }
+
+    /**
+     * Записывает снимок набора товаров. null и повторные ID пропускаются
+     * (остается первый), как в Category.addProduct.
+     */
+    public static void write(Path file, Collection<? extends Product> products) throws IOException {
+        write(file, new ProductListSource(products));
+    }
+
+    static void write(Path file, RowSource source) throws IOException {
+        int rows = source.size();
+        StringTable strings = new StringTable();
+        List<Category> categories = new ArrayList<>();
+        Map<Category, Integer> ordinals = new IdentityHashMap<>();
+        int[] idRefs = new int[rows];
+        int[] nameRefs = new int[rows];
+        int[] categoryOrdinals = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            idRefs[row] = strings.intern(source.getId(row));
+            nameRefs[row] = strings.intern(source.getName(row));
+            Category category = source.getCategory(row);
+            if (category == null) {
+                categoryOrdinals[row] = ColumnarCatalog.NO_CATEGORY;
+            } else {
+                Integer ordinal = ordinals.get(category);
+                if (ordinal == null) {
+                    ordinal = categories.size();
+                    categories.add(category);
+                    ordinals.put(category, ordinal);
+                }
+                categoryOrdinals[row] = ordinal;
+            }
+        }
+        int[] categoryNameRefs = new int[categories.size()];
+        for (int i = 0; i < categoryNameRefs.length; i++) {
+            String name = categories.get(i).getName();
+            categoryNameRefs[i] = strings.intern(name == null ? "" : name);
+        }
+        int[] hash = buildHash(source, rows);
+
+        long recordsOffset = HEADER_SIZE;
+        long categoriesOffset = recordsOffset + (long) rows * RECORD_SIZE;
+        long hashOffset = categoriesOffset + (long) categories.size() * CATEGORY_SIZE;
+        long stringsOffset = hashOffset + 4L * hash.length;
+        long totalSize = stringsOffset + 4L * (strings.size() + 1) + strings.byteSize();
+        if (totalSize > Integer.MAX_VALUE) {
+            throw new IOException("Снимок " + totalSize + " байт больше предела MappedByteBuffer (2 ГБ)");
+        }
+
+        // Пишем во временный файл и подменяем целиком: читатели не увидят недописанный снимок
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChunkWriter out = new ChunkWriter(channel);
+
+            out.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(RECORD_SIZE)
+               .putInt(categories.size()).putInt(hash.length)
+               .putLong(recordsOffset).putLong(categoriesOffset)
+               .putLong(hashOffset).putLong(stringsOffset)
+               .putInt(strings.size()).putInt(0);
+
+            for (int row = 0; row < rows; row++) {
+                out.ensure(RECORD_SIZE);
+                int flags = source.isLicenseRequired(row) ? FLAG_LICENSE : 0;
+                out.putInt(idRefs[row]).putInt(nameRefs[row])
+                   .putByte(source.getKind(row).ordinal()).putByte(flags).putShort(0)
+                   .putInt(categoryOrdinals[row]).putInt(source.getQuantity(row)).putInt(0)
+                   .putDouble(source.getPrice(row)).putDouble(source.getCostPrice(row))
+                   .putDouble(source.getWeightKg(row)).putDouble(source.getLengthCm(row))
+                   .putDouble(source.getWidthCm(row)).putDouble(source.getHeightCm(row))
+                   .putDouble(source.getDownloadSizeMb(row));
+            }
+            for (int i = 0; i < categories.size(); i++) {
+                out.putInt(categories.get(i).getId()).putInt(categoryNameRefs[i]);
+            }
+            for (int slot : hash) {
+                out.putInt(slot);
+            }
+            int offset = 0;
+            out.putInt(offset);
+            for (byte[] bytes : strings.values) {
+                offset += bytes.length;
+                out.putInt(offset);
+            }
+            for (byte[] bytes : strings.values) {
+                out.putBytes(bytes);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // --- Хеш-индекс ID ---
+
+    static int hashCapacityFor(int rows) {
+        int capacity = 16;
+        while (capacity < rows * 2L) capacity <<= 1;
+        return capacity;
+    }
+
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] buildHash(RowSource source, int rows) {
+        int[] table = new int[hashCapacityFor(rows)];
+        int mask = table.length - 1;
+        for (int row = 0; row < rows; row++) {
+            int slot = spread(source.getId(row).hashCode()) & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = row + 1;
+        }
+        return table;
+    }
+
+    // --- Вспомогательные классы записи ---
+
+    private static final class StringTable {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private long byteSize;
+
+        int intern(String value) {
+            Integer ref = refs.get(value);
+            if (ref != null) return ref;
+            int newRef = values.size();
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            values.add(bytes);
+            refs.put(value, newRef);
+            byteSize += bytes.length;
+            return newRef;
+        }
+
+        int size() { return values.size(); }
+        long byteSize() { return byteSize; }
+    }
+
+    private static final class ChunkWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE).order(ORDER);
+
+        ChunkWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        ChunkWriter putByte(int v) throws IOException { ensure(1); buffer.put((byte) v); return this; }
+        ChunkWriter putShort(int v) throws IOException { ensure(2); buffer.putShort((short) v); return this; }
+        ChunkWriter putInt(int v) throws IOException { ensure(4); buffer.putInt(v); return this; }
+        ChunkWriter putLong(long v) throws IOException { ensure(8); buffer.putLong(v); return this; }
+        ChunkWriter putDouble(double v) throws IOException { ensure(8); buffer.putDouble(v); return this; }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) flush();
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Набор объектов Product как источник строк для записи.
+     */
+    private static final class ProductListSource implements RowSource {
+        private final List<Product> products = new ArrayList<>();
+
+        ProductListSource(Collection<? extends Product> source) {
+            Set<String> seen = new HashSet<>();
+            for (Product product : source) {
+                if (product != null && seen.add(product.getId())) products.add(product);
+            }
+        }
+
+        @Override public int size() { return products.size(); }
+        @Override public ProductKind getKind(int row) { return ProductKind.of(products.get(row)); }
+        @Override public String getId(int row) { return products.get(row).getId(); }
+        @Override public String getName(int row) { return products.get(row).getName(); }
+        @Override public double getPrice(int row) { return products.get(row).getPrice(); }
+        @Override public int getQuantity(int row) { return products.get(row).getQuantity(); }
+        @Override public double getCostPrice(int row) { return products.get(row).getCostPrice(); }
+        @Override public Category getCategory(int row) { return products.get(row).getCategory(); }
+
+        @Override
+        public double getWeightKg(int row) {
+            Product p = products.get(row);
+            return p instanceof PhysicalProduct ? ((PhysicalProduct) p).getWeightKg() : 0.0;
+        }
+
+        @Override
+        public double getLengthCm(int row) {
+            Product p = products.get(row);
+            return p instanceof PhysicalProduct ? ((PhysicalProduct) p).getLengthCm() : 0.0;
+        }
+
+        @Override
+        public double getWidthCm(int row) {
+            Product p = products.get(row);
+            return p instanceof PhysicalProduct ? ((PhysicalProduct) p).getWidthCm() : 0.0;
+        }
+
+        @Override
+        public double getHeightCm(int row) {
+            Product p = products.get(row);
+            return p instanceof PhysicalProduct ? ((PhysicalProduct) p).getHeightCm() : 0.0;
+        }
+
+        @Override
+        public double getDownloadSizeMb(int row) {
+            Product p = products.get(row);
+            return p instanceof DigitalProduct ? ((DigitalProduct) p).getDownloadSizeMb() : 0.0;
+        }
+
+        @Override
+        public boolean isLicenseRequired(int row) {
+            Product p = products.get(row);
+            return p instanceof DigitalProduct && ((DigitalProduct) p).isLicenseRequired();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package product.catalog;
+
+import category.Category;
+import product.StockStatus;
+
+import java.util.Map;
+
+/**
+ * Неизменяемая версия {@link VersionedCatalog}.
+ *
+ * Читатель берет версию через {@link VersionedCatalog#snapshot()} и
+ * работает с ней без блокировок сколько угодно долго: параллельные пакеты
+ * изменений создают новые версии, а эта остается согласованной.
+ * Версия, на которую никто не ссылается, освобождается сборщиком мусора
+ * (страницы, общие с более новыми версиями, остаются жить с ними).
+ *
+ * Для вызова PricePolicy — {@link #cursor()}, по одному курсору на поток.
+ */
+public final class CatalogVersion implements RowSource {
+    private final long version;
+    private final CatalogPage[] pages;
+    private final int size;
+    private final Map<String, Integer> rowById; // общий для всех версий, только растет
+
+    CatalogVersion(long version, CatalogPage[] pages, int size, Map<String, Integer> rowById) {
+        this.version = version;
+        this.pages = pages;
+        this.size = size;
+        this.rowById = rowById;
+    }
+
+    /**
+     * Номер версии: 0 для пустого каталога, +1 на каждый примененный пакет.
+     */
+    public long version() { return version; }
+
+    @Override public int size() { return size; }
+
+    /**
+     * @return номер строки по ID или -1, если в этой версии такого товара нет.
+     */
+    public int rowOf(String id) {
+        if (id == null) return -1;
+        Integer row = rowById.get(id.trim());
+        // Строки, добавленные более поздними версиями, здесь не видны
+        return row == null || row >= size ? -1 : row;
+    }
+
+    @Override public String getId(int row) { return page(row).ids[row & CatalogPage.PAGE_MASK]; }
+    @Override public String getName(int row) { return page(row).names[row & CatalogPage.PAGE_MASK]; }
+    @Override public double getPrice(int row) { return page(row).prices[row & CatalogPage.PAGE_MASK]; }
+    @Override public int getQuantity(int row) { return page(row).quantities[row & CatalogPage.PAGE_MASK]; }
+    @Override public double getCostPrice(int row) { return page(row).costPrices[row & CatalogPage.PAGE_MASK]; }
+    @Override public Category getCategory(int row) { return page(row).categories[row & CatalogPage.PAGE_MASK]; }
+
+    @Override
+    public ProductKind getKind(int row) {
+        return ProductKind.ofOrdinal(page(row).kinds[row & CatalogPage.PAGE_MASK]);
+    }
+
+    @Override public double getWeightKg(int row) { return page(row).weights[row & CatalogPage.PAGE_MASK]; }
+    @Override public double getLengthCm(int row) { return page(row).lengths[row & CatalogPage.PAGE_MASK]; }
+    @Override public double getWidthCm(int row) { return page(row).widths[row & CatalogPage.PAGE_MASK]; }
+    @Override public double getHeightCm(int row) { return page(row).heights[row & CatalogPage.PAGE_MASK]; }
+    @Override public double getDownloadSizeMb(int row) { return page(row).downloadSizes[row & CatalogPage.PAGE_MASK]; }
+    @Override public boolean isLicenseRequired(int row) { return page(row).licenses[row & CatalogPage.PAGE_MASK]; }
+
+    public StockStatus stockStatus(int row) {
+        return StockStatus.of(getQuantity(row));
+    }
+
+    /**
+     * Суммарная стоимость склада в этой версии.
+     */
+    public double totalValue() {
+        double total = 0.0;
+        for (int p = 0, base = 0; base < size; p++, base += CatalogPage.PAGE_SIZE) {
+            CatalogPage page = pages[p];
+            int n = Math.min(CatalogPage.PAGE_SIZE, size - base);
+            for (int i = 0; i < n; i++) {
+                total += page.prices[i] * page.quantities[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Суммарная стоимость склада по одной категории в этой версии.
+     */
+    public double totalValue(Category category) {
+        if (category == null) return 0.0;
+        double total = 0.0;
+        for (int p = 0, base = 0; base < size; p++, base += CatalogPage.PAGE_SIZE) {
+            CatalogPage page = pages[p];
+            int n = Math.min(CatalogPage.PAGE_SIZE, size - base);
+            for (int i = 0; i < n; i++) {
+                if (page.categories[i] == category) total += page.prices[i] * page.quantities[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Новый курсор по этой версии. Для параллельного чтения — по одному на поток.
+     */
+    public ProductCursor cursor() {
+        return new ProductCursor(this);
+    }
+
+    // Для VersionedCatalog: страницы, на которых строится следующая версия
+    CatalogPage[] pages() {
+        return pages;
+    }
+
+    private CatalogPage page(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Строка " + row + " вне диапазона [0, " + size + ")");
+        }
+        return pages[row >>> CatalogPage.PAGE_SHIFT];
+    }
+}
@@ -0,0 +1,352 @@
+package product.catalog;
+
+import category.Category;
+import product.DigitalProduct;
+import product.PhysicalProduct;
+import product.Product;
+import product.StockStatus;
+import product.pricing.PricePolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Колоночный (struct-of-arrays) каталог товаров.
+ * Каждое поле хранится в отдельном примитивном массиве, строка = индекс.
+ * Строки, названия и категории вынесены в словари, поэтому на одну строку
+ * приходится несколько примитивов вместо отдельного объекта Product.
+ *
+ * Для вызова существующих PricePolicy используется легковесное
+ * представление {@link ProductCursor}: один объект на поток, а не на строку.
+ *
+ * Класс не потокобезопасен для записи; чтение из разных потоков допустимо
+ * при условии, что каждый поток использует свой ProductCursor.
+ */
+public class ColumnarCatalog implements RowSource {
+    private static final int DEFAULT_CAPACITY = 16;
+    public static final int NO_CATEGORY = -1;
+
+    // --- Колонки ---
+    private String[] ids;
+    private int[] nameRefs;
+    private double[] prices;
+    private int[] quantities;
+    private double[] costPrices;
+    private int[] categoryOrdinals;
+    private byte[] kinds;
+    private int size;
+
+    // --- Атрибуты физических/цифровых товаров (у остальных строк нули) ---
+    private double[] weights;
+    private double[] lengths;
+    private double[] widths;
+    private double[] heights;
+    private double[] downloadSizes;
+    private boolean[] licenses;
+
+    // --- Словари ---
+    private final Map<String, Integer> rowById = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameRefByName = new HashMap<>();
+    private final List<Category> categories = new ArrayList<>();
+    private final Map<Category, Integer> categoryOrdinalByRef = new IdentityHashMap<>();
+
+    // Курсор для однопоточных удобных методов
+    private ProductCursor sharedCursor;
+
+    public ColumnarCatalog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ColumnarCatalog(int initialCapacity) {
+        int capacity = Math.max(DEFAULT_CAPACITY, initialCapacity);
+        this.ids = new String[capacity];
+        this.nameRefs = new int[capacity];
+        this.prices = new double[capacity];
+        this.quantities = new int[capacity];
+        this.costPrices = new double[capacity];
+        this.categoryOrdinals = new int[capacity];
+        this.kinds = new byte[capacity];
+        this.weights = new double[capacity];
+        this.lengths = new double[capacity];
+        this.widths = new double[capacity];
+        this.heights = new double[capacity];
+        this.downloadSizes = new double[capacity];
+        this.licenses = new boolean[capacity];
+    }
+
+    // --- Добавление строк ---
+
+    /**
+     * Копирует состояние объекта Product (вместе с атрибутами подкласса) в новую строку.
+     * @return номер строки или -1, если товар null или его ID уже есть в каталоге.
+     */
+    public int add(Product product) {
+        if (product == null) return -1;
+        ProductKind kind = ProductKind.of(product);
+        int row = add(kind, product.getId(), product.getName(), product.getPrice(),
+                product.getQuantity(), product.getCostPrice(), product.getCategory());
+        if (row < 0) return -1;
+        if (product instanceof PhysicalProduct) {
+            PhysicalProduct physical = (PhysicalProduct) product;
+            weights[row] = physical.getWeightKg();
+            lengths[row] = physical.getLengthCm();
+            widths[row] = physical.getWidthCm();
+            heights[row] = physical.getHeightCm();
+        } else if (product instanceof DigitalProduct) {
+            DigitalProduct digital = (DigitalProduct) product;
+            downloadSizes[row] = digital.getDownloadSizeMb();
+            licenses[row] = digital.isLicenseRequired();
+        }
+        return row;
+    }
+
+    /**
+     * Добавляет строку с теми же правилами валидации, что и мутаторы Product.
+     * @return номер строки или -1, если данные недопустимы или ID уже занят.
+     */
+    public int add(ProductKind kind, String id, String name, double price, int quantity,
+                   double costPrice, Category category) {
+        if (!Product.isValidId(id) || !Product.isValidName(name)) return -1;
+        if (!Product.isValidPrice(price) || !Product.isValidQuantity(quantity) || costPrice < 0) return -1;
+        String key = id.trim();
+        if (rowById.containsKey(key)) return -1;
+
+        ensureCapacity(size + 1);
+        int row = size++;
+        ids[row] = key;
+        nameRefs[row] = internName(name.trim());
+        prices[row] = price;
+        quantities[row] = quantity;
+        costPrices[row] = costPrice;
+        categoryOrdinals[row] = categoryOrdinal(category);
+        kinds[row] = (byte) kind.ordinal();
+        rowById.put(key, row);
+        return row;
+    }
+
+    /**
+     * Строка физического товара без создания PhysicalProduct.
+     * Вес и габариты проверяются как в PhysicalProduct.trySetWeightKg/trySetDimensions.
+     * @return номер строки или -1, если данные недопустимы или ID уже занят.
+     */
+    public int addPhysical(String id, String name, double price, int quantity, double costPrice,
+                           Category category, double weightKg, double lengthCm, double widthCm,
+                           double heightCm) {
+        if (!PhysicalProduct.isValidWeightKg(weightKg)
+                || !PhysicalProduct.isValidDimensions(lengthCm, widthCm, heightCm)) return -1;
+        int row = add(ProductKind.PHYSICAL, id, name, price, quantity, costPrice, category);
+        if (row < 0) return -1;
+        weights[row] = weightKg;
+        lengths[row] = lengthCm;
+        widths[row] = widthCm;
+        heights[row] = heightCm;
+        return row;
+    }
+
+    /**
+     * Строка цифрового товара без создания DigitalProduct. Цена сохраняется
+     * как есть: скидку за малый размер файла (см. DigitalProduct.trySetDownloadSizeMb)
+     * вызывающий применяет сам.
+     * @return номер строки или -1, если данные недопустимы или ID уже занят.
+     */
+    public int addDigital(String id, String name, double price, int quantity, double costPrice,
+                          Category category, double downloadSizeMb, boolean licenseRequired) {
+        if (!DigitalProduct.isValidDownloadSizeMb(downloadSizeMb)) return -1;
+        int row = add(ProductKind.DIGITAL, id, name, price, quantity, costPrice, category);
+        if (row < 0) return -1;
+        downloadSizes[row] = downloadSizeMb;
+        licenses[row] = licenseRequired;
+        return row;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= ids.length) return;
+        int capacity = Math.max(minCapacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        nameRefs = Arrays.copyOf(nameRefs, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        costPrices = Arrays.copyOf(costPrices, capacity);
+        categoryOrdinals = Arrays.copyOf(categoryOrdinals, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        downloadSizes = Arrays.copyOf(downloadSizes, capacity);
+        licenses = Arrays.copyOf(licenses, capacity);
+    }
+
+    private int internName(String name) {
+        Integer ref = nameRefByName.get(name);
+        if (ref != null) return ref;
+        int newRef = names.size();
+        names.add(name);
+        nameRefByName.put(name, newRef);
+        return newRef;
+    }
+
+    private int categoryOrdinal(Category category) {
+        if (category == null) return NO_CATEGORY;
+        Integer ordinal = categoryOrdinalByRef.get(category);
+        if (ordinal != null) return ordinal;
+        int newOrdinal = categories.size();
+        categories.add(category);
+        categoryOrdinalByRef.put(category, newOrdinal);
+        return newOrdinal;
+    }
+
+    // --- Защищенные мутаторы (та же валидация, что в Product) ---
+    public boolean trySetPrice(int row, double price) {
+        if (Product.isValidPrice(price)) {
+            prices[checkRow(row)] = price;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean trySetQuantity(int row, int quantity) {
+        if (Product.isValidQuantity(quantity)) {
+            quantities[checkRow(row)] = quantity;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean setCostPrice(int row, double costPrice) {
+        if (costPrice >= 0) {
+            costPrices[checkRow(row)] = costPrice;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean trySetCategory(int row, Category category) {
+        categoryOrdinals[checkRow(row)] = categoryOrdinal(category);
+        return true;
+    }
+
+    // --- Геттеры ---
+    @Override public int size() { return size; }
+
+    /**
+     * @return номер строки по ID или -1, если такого товара нет.
+     */
+    public int rowOf(String id) {
+        if (id == null) return -1;
+        Integer row = rowById.get(id.trim());
+        return row == null ? -1 : row;
+    }
+
+    @Override public String getId(int row) { return ids[checkRow(row)]; }
+    @Override public String getName(int row) { return names.get(nameRefs[checkRow(row)]); }
+    @Override public double getPrice(int row) { return prices[checkRow(row)]; }
+    @Override public int getQuantity(int row) { return quantities[checkRow(row)]; }
+    @Override public double getCostPrice(int row) { return costPrices[checkRow(row)]; }
+    @Override public ProductKind getKind(int row) { return ProductKind.ofOrdinal(kinds[checkRow(row)]); }
+
+    @Override public double getWeightKg(int row) { return weights[checkRow(row)]; }
+    @Override public double getLengthCm(int row) { return lengths[checkRow(row)]; }
+    @Override public double getWidthCm(int row) { return widths[checkRow(row)]; }
+    @Override public double getHeightCm(int row) { return heights[checkRow(row)]; }
+    @Override public double getDownloadSizeMb(int row) { return downloadSizes[checkRow(row)]; }
+    @Override public boolean isLicenseRequired(int row) { return licenses[checkRow(row)]; }
+
+    public int getCategoryOrdinal(int row) { return categoryOrdinals[checkRow(row)]; }
+
+    @Override
+    public Category getCategory(int row) {
+        int ordinal = categoryOrdinals[checkRow(row)];
+        return ordinal == NO_CATEGORY ? null : categories.get(ordinal);
+    }
+
+    public int categoryCount() { return categories.size(); }
+
+    public Category categoryAt(int ordinal) {
+        return ordinal == NO_CATEGORY ? null : categories.get(ordinal);
+    }
+
+    /**
+     * @return порядковый номер категории в словаре каталога или NO_CATEGORY.
+     */
+    public int ordinalOf(Category category) {
+        Integer ordinal = categoryOrdinalByRef.get(category);
+        return ordinal == null ? NO_CATEGORY : ordinal;
+    }
+
+    // --- Расчеты без создания Product на строку ---
+    public double calculateTotalValue(int row) {
+        checkRow(row);
+        return prices[row] * quantities[row];
+    }
+
+    public String getStockStatus(int row) {
+        return Product.stockStatusOf(quantities[checkRow(row)]);
+    }
+
+    public StockStatus stockStatus(int row) {
+        return StockStatus.of(quantities[checkRow(row)]);
+    }
+
+    /**
+     * Суммарная стоимость склада по всему каталогу.
+     */
+    public double totalValue() {
+        double total = 0.0;
+        for (int row = 0; row < size; row++) {
+            total += prices[row] * quantities[row];
+        }
+        return total;
+    }
+
+    /**
+     * Суммарная стоимость склада по одной категории.
+     */
+    public double totalValue(Category category) {
+        int ordinal = ordinalOf(category);
+        if (ordinal == NO_CATEGORY) return 0.0;
+        double total = 0.0;
+        for (int row = 0; row < size; row++) {
+            if (categoryOrdinals[row] == ordinal) {
+                total += prices[row] * quantities[row];
+            }
+        }
+        return total;
+    }
+
+    public double finalPrice(int row, int qty) {
+        return sharedCursor().at(row).finalPrice(qty);
+    }
+
+    public double finalPrice(int row, int qty, PricePolicy policy) {
+        return sharedCursor().at(row).finalPrice(qty, policy);
+    }
+
+    public double finalPrice(int row, int qty, List<PricePolicy> policies) {
+        return sharedCursor().at(row).finalPrice(qty, policies);
+    }
+
+    /**
+     * Создает новый курсор. Для параллельного чтения — по одному на поток.
+     */
+    public ProductCursor cursor() {
+        return new ProductCursor(this);
+    }
+
+    private ProductCursor sharedCursor() {
+        if (sharedCursor == null) sharedCursor = new ProductCursor(this);
+        return sharedCursor;
+    }
+
+    int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Строка " + row + " вне диапазона [0, " + size + ")");
+        }
+        return row;
+    }
+}
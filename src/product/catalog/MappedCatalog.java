@@ -0,0 +1,194 @@
+package product.catalog;
+
+import category.Category;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static product.catalog.CatalogSnapshot.*;
+
+/**
+ * Каталог, открытый из снимка {@link CatalogSnapshot} через FileChannel.map.
+ * Открытие проверяет только заголовок; значения читаются прямо из
+ * отображенной памяти по номеру строки, объекты Product не создаются.
+ * Для PricePolicy используется ленивое представление {@link #cursor()}.
+ *
+ * Только для чтения. Геттеры используют абсолютные чтения буфера, поэтому
+ * каталог можно читать из разных потоков (каждый поток — со своим курсором).
+ *
+ * Категории восстанавливаются как отдельные объекты Category (id и название)
+ * без списка товаров: каталог не регистрирует в них строки.
+ */
+public final class MappedCatalog implements RowSource {
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int recordsOffset;
+    private final int hashOffset;
+    private final int hashMask;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+    private final int stringCount;
+    private final Category[] categories;
+
+    private MappedCatalog(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(H_MAGIC) != MAGIC) {
+            throw new IOException("Файл не является снимком каталога");
+        }
+        int version = buffer.getInt(H_VERSION);
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия снимка: " + version);
+        }
+        if (buffer.getInt(H_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IOException("Неожиданный размер записи: " + buffer.getInt(H_RECORD_SIZE));
+        }
+        this.size = buffer.getInt(H_ROW_COUNT);
+        this.recordsOffset = checkedOffset(buffer.getLong(H_RECORDS_OFFSET));
+        int categoriesOffset = checkedOffset(buffer.getLong(H_CATEGORIES_OFFSET));
+        this.hashOffset = checkedOffset(buffer.getLong(H_HASH_OFFSET));
+        this.stringOffsetsOffset = checkedOffset(buffer.getLong(H_STRINGS_OFFSET));
+        this.stringCount = buffer.getInt(H_STRING_COUNT);
+        this.stringDataOffset = checkedOffset(stringOffsetsOffset + 4L * (stringCount + 1));
+        int hashCapacity = buffer.getInt(H_HASH_CAPACITY);
+        if (Integer.bitCount(hashCapacity) != 1) {
+            throw new IOException("Поврежденный заголовок: размер хеш-индекса " + hashCapacity);
+        }
+        this.hashMask = hashCapacity - 1;
+
+        int categoryCount = buffer.getInt(H_CATEGORY_COUNT);
+        this.categories = new Category[categoryCount];
+        for (int i = 0; i < categoryCount; i++) {
+            int at = categoriesOffset + i * CATEGORY_SIZE;
+            categories[i] = new Category(buffer.getInt(at), string(buffer.getInt(at + 4)));
+        }
+    }
+
+    /**
+     * Отображает файл снимка в память (только чтение).
+     */
+    public static MappedCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Снимок больше 2 ГБ: " + length + " байт");
+            }
+            // Отображение остается действительным после закрытия канала
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return new MappedCatalog(mapped.order(ORDER));
+        }
+    }
+
+    private int checkedOffset(long offset) throws IOException {
+        if (offset < 0 || offset > buffer.capacity()) {
+            throw new IOException("Поврежденный заголовок: смещение " + offset);
+        }
+        return (int) offset;
+    }
+
+    // --- Геттеры ---
+    @Override public int size() { return size; }
+
+    /**
+     * @return номер строки по ID или -1, если такого товара нет.
+     * Поиск по хеш-индексу снимка, ID сравнивается побайтово без декодирования.
+     */
+    public int rowOf(String id) {
+        if (id == null) return -1;
+        String key = id.trim();
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int slot = spread(key.hashCode()) & hashMask;
+        for (;;) {
+            int entry = buffer.getInt(hashOffset + slot * 4);
+            if (entry == 0) return -1;
+            int row = entry - 1;
+            if (stringEquals(buffer.getInt(record(row) + R_ID_REF), bytes)) return row;
+            slot = (slot + 1) & hashMask;
+        }
+    }
+
+    @Override public String getId(int row) { return string(buffer.getInt(record(row) + R_ID_REF)); }
+    @Override public String getName(int row) { return string(buffer.getInt(record(row) + R_NAME_REF)); }
+    @Override public double getPrice(int row) { return buffer.getDouble(record(row) + R_PRICE); }
+    @Override public int getQuantity(int row) { return buffer.getInt(record(row) + R_QUANTITY); }
+    @Override public double getCostPrice(int row) { return buffer.getDouble(record(row) + R_COST); }
+    @Override public ProductKind getKind(int row) { return ProductKind.ofOrdinal(buffer.get(record(row) + R_KIND)); }
+    @Override public double getWeightKg(int row) { return buffer.getDouble(record(row) + R_WEIGHT); }
+    @Override public double getLengthCm(int row) { return buffer.getDouble(record(row) + R_LENGTH); }
+    @Override public double getWidthCm(int row) { return buffer.getDouble(record(row) + R_WIDTH); }
+    @Override public double getHeightCm(int row) { return buffer.getDouble(record(row) + R_HEIGHT); }
+    @Override public double getDownloadSizeMb(int row) { return buffer.getDouble(record(row) + R_DOWNLOAD_SIZE); }
+
+    @Override
+    public boolean isLicenseRequired(int row) {
+        return (buffer.get(record(row) + R_FLAGS) & FLAG_LICENSE) != 0;
+    }
+
+    public int getCategoryOrdinal(int row) { return buffer.getInt(record(row) + R_CATEGORY); }
+
+    @Override
+    public Category getCategory(int row) {
+        return categoryAt(getCategoryOrdinal(row));
+    }
+
+    public int categoryCount() { return categories.length; }
+
+    public Category categoryAt(int ordinal) {
+        return ordinal == ColumnarCatalog.NO_CATEGORY ? null : categories[ordinal];
+    }
+
+    public double calculateTotalValue(int row) {
+        int at = record(row);
+        return buffer.getDouble(at + R_PRICE) * buffer.getInt(at + R_QUANTITY);
+    }
+
+    /**
+     * Суммарная стоимость склада по всему снимку.
+     */
+    public double totalValue() {
+        double total = 0.0;
+        for (int at = recordsOffset, end = recordsOffset + size * RECORD_SIZE; at < end; at += RECORD_SIZE) {
+            total += buffer.getDouble(at + R_PRICE) * buffer.getInt(at + R_QUANTITY);
+        }
+        return total;
+    }
+
+    /**
+     * Создает новый курсор. Для параллельного чтения — по одному на поток.
+     */
+    public ProductCursor cursor() {
+        return new ProductCursor(this);
+    }
+
+    // --- Чтение записей и строк ---
+
+    private int record(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Строка " + row + " вне диапазона [0, " + size + ")");
+        }
+        return recordsOffset + row * RECORD_SIZE;
+    }
+
+    private String string(int ref) {
+        int from = buffer.getInt(stringOffsetsOffset + ref * 4);
+        int to = buffer.getInt(stringOffsetsOffset + (ref + 1) * 4);
+        byte[] bytes = new byte[to - from];
+        buffer.get(stringDataOffset + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean stringEquals(int ref, byte[] bytes) {
+        int from = buffer.getInt(stringOffsetsOffset + ref * 4);
+        int to = buffer.getInt(stringOffsetsOffset + (ref + 1) * 4);
+        if (to - from != bytes.length) return false;
+        int at = stringDataOffset + from;
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(at + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+}
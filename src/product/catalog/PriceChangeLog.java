@@ -0,0 +1,724 @@
+package product.catalog;
+
+import category.CatalogEventListener;
+import category.CatalogEventType;
+import product.Product;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Журнал изменений цены и количества (только добавление) с запросом
+ * "сколько стоил товар в момент t".
+ *
+ * Журнал — последовательность отображенных в память файлов-сегментов
+ * с записями фиксированной длины. Позиция записи занимается одним
+ * AtomicLong.getAndAdd, запись — несколько put в отображенный буфер,
+ * без системных вызовов. Следующий сегмент заранее отображает фоновый
+ * поток, он же периодически пишет контрольную точку, поэтому append не
+ * ждет ни диска, ни map(). Записи одного товара упорядочены (короткая
+ * блокировка на товар); разные товары пишутся параллельно.
+ *
+ * Формат записи, {@value #RECORD_SIZE} байт (big-endian, как в CatalogSnapshot):
+ * <pre>
+ * CHANGE:   0 byte type   4 int key   8 long timestamp  16 double price
+ *          24 int quantity            32 long prevOffset (предыдущая запись товара, -1 — нет)
+ * DEFINE:   0 byte type   4 int key   8 int idLength    12 первые 28 байт ID (UTF-8)
+ * ID_CHUNK: 0 byte type   4 int key   8 следующие 32 байта ID
+ * </pre>
+ * Тип пишется последним: нулевой тип — незаписанная запись, при чтении пропускается.
+ *
+ * Для каждого товара в памяти хранятся последнее состояние и разреженный
+ * индекс — каждая {@value #SAMPLE_EVERY}-я запись (время, смещение).
+ * {@link #priceAt(String, long)} находит двоичным поиском ближайшую более
+ * позднюю выборку и идет назад по prevOffset не больше чем на
+ * SAMPLE_EVERY записей.
+ *
+ * Контрольная точка (checkpoint.bin) — сжатое состояние всех товаров
+ * вместе с разреженным индексом на момент смещения журнала: open() читает
+ * ее и просматривает только записи после этого смещения. История в
+ * сегментах не удаляется: она нужна для аудита и priceAt.
+ */
+public final class PriceChangeLog implements AutoCloseable {
+    static final int RECORD_SIZE = 40;
+    static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+    static final int DEFAULT_CHECKPOINT_INTERVAL = 1 << 18;
+    static final int SAMPLE_EVERY = 16;
+    static final String CHECKPOINT_FILE = "checkpoint.bin";
+    static final int CHECKPOINT_MAGIC = 0x50434C43; // "PCLC"
+    static final int CHECKPOINT_VERSION = 1;
+
+    // Типы записей
+    private static final byte T_CHANGE = 1;
+    private static final byte T_DEFINE = 2;
+    private static final byte T_ID_CHUNK = 3;
+
+    // Смещения полей записи
+    private static final int R_TYPE = 0;
+    private static final int R_KEY = 4;
+    private static final int R_TIMESTAMP = 8;
+    private static final int R_PRICE = 16;
+    private static final int R_QUANTITY = 24;
+    private static final int R_PREV = 32;
+    private static final int D_LENGTH = 8;
+    private static final int D_BYTES = 12;
+    private static final int C_BYTES = 8;
+    private static final int DEFINE_BYTES = RECORD_SIZE - D_BYTES;
+    private static final int CHUNK_BYTES = RECORD_SIZE - C_BYTES;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int checkpointInterval;
+    private final AtomicLong tail = new AtomicLong();
+
+    private final Object mapLock = new Object();
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    private final Map<String, Key> keysById = new ConcurrentHashMap<>();
+    private final List<Key> keys = new ArrayList<>(); // номер ключа -> ключ, под defineLock
+    private final Object defineLock = new Object();
+
+    private final Object checkpointLock = new Object();
+    private long unforcedFrom; // записи до этого смещения уже сброшены на диск, под checkpointLock
+    private final AtomicLong sinceCheckpoint = new AtomicLong();
+    private final AtomicBoolean checkpointScheduled = new AtomicBoolean();
+    private final ExecutorService background;
+    private volatile IOException backgroundFailure;
+    private volatile boolean closed;
+
+    private PriceChangeLog(Path directory, long segmentBytes, int checkpointInterval) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.checkpointInterval = checkpointInterval;
+        this.background = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "price-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static PriceChangeLog open(Path directory) throws IOException {
+        return open(directory, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Открывает журнал в каталоге (создает, если его нет).
+     * @param recordsPerSegment  размер нового сегмента в записях (для существующего журнала берется из файлов)
+     * @param checkpointInterval контрольная точка каждые N записей; 0 — только вручную
+     */
+    public static PriceChangeLog open(Path directory, int recordsPerSegment, int checkpointInterval) throws IOException {
+        if (recordsPerSegment <= 0 || (long) recordsPerSegment * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Недопустимый размер сегмента: " + recordsPerSegment);
+        }
+        if (checkpointInterval < 0) {
+            throw new IllegalArgumentException("Интервал контрольных точек не может быть отрицательным: " + checkpointInterval);
+        }
+        Files.createDirectories(directory);
+        long segmentBytes = (long) recordsPerSegment * RECORD_SIZE;
+        Path first = directory.resolve(segmentName(0));
+        if (Files.exists(first)) segmentBytes = Files.size(first);
+        if (segmentBytes % RECORD_SIZE != 0) {
+            throw new IOException("Поврежденный сегмент журнала: " + first);
+        }
+        PriceChangeLog log = new PriceChangeLog(directory, segmentBytes, checkpointInterval);
+        log.recover();
+        return log;
+    }
+
+    // --- Запись ---
+
+    /**
+     * Записывает новое состояние товара с текущим временем.
+     * Если часы ушли назад, время записи не меньше предыдущей записи товара.
+     * @return false, если ID, цена или количество недопустимы или журнал закрыт.
+     */
+    public boolean append(String id, double price, int quantity) {
+        return append(id, System.currentTimeMillis(), price, quantity, true);
+    }
+
+    /**
+     * Записывает состояние товара на заданный момент (мс с начала эпохи).
+     * @return false, если значения недопустимы или timestamp раньше
+     *         последней записи этого товара (история товара упорядочена по времени).
+     */
+    public boolean append(String id, long timestamp, double price, int quantity) {
+        return append(id, timestamp, price, quantity, false);
+    }
+
+    public boolean append(Product product) {
+        return product != null && append(product.getId(), product.getPrice(), product.getQuantity());
+    }
+
+    private boolean append(String id, long timestamp, double price, int quantity, boolean clampTime) {
+        if (closed || !Product.isValidId(id) || !Product.isValidPrice(price) || !Product.isValidQuantity(quantity)) {
+            return false;
+        }
+        Key key = keyFor(id.trim());
+        synchronized (key) {
+            if (timestamp < key.lastTimestamp) {
+                if (!clampTime) return false;
+                timestamp = key.lastTimestamp;
+            }
+            long offset = tail.getAndAdd(RECORD_SIZE);
+            MappedByteBuffer segment = segmentForWrite(offset);
+            int at = (int) (offset % segmentBytes);
+            segment.putInt(at + R_KEY, key.number);
+            segment.putLong(at + R_TIMESTAMP, timestamp);
+            segment.putDouble(at + R_PRICE, price);
+            segment.putInt(at + R_QUANTITY, quantity);
+            segment.putLong(at + R_PREV, key.lastOffset);
+            segment.put(at + R_TYPE, T_CHANGE);
+            key.record(offset, timestamp, price, quantity);
+        }
+        if (checkpointInterval > 0 && sinceCheckpoint.incrementAndGet() >= checkpointInterval
+                && checkpointScheduled.compareAndSet(false, true)) {
+            background.execute(this::backgroundCheckpoint);
+        }
+        return true;
+    }
+
+    /**
+     * Приемник событий категории: пишет состояние товара при добавлении
+     * и при каждом изменении цены/количества.
+     * Подключение: {@code category.setEventListener(log.listener())}.
+     */
+    public CatalogEventListener listener() {
+        return (type, category, product) -> {
+            if (type == CatalogEventType.PRODUCT_ADDED || type == CatalogEventType.PRODUCT_CHANGED) {
+                append(product);
+            }
+        };
+    }
+
+    // --- Запросы ---
+
+    /**
+     * Цена товара на момент timestamp (последняя запись не позже него).
+     * @return NaN, если товар неизвестен или на тот момент записей еще не было.
+     */
+    public double priceAt(String id, long timestamp) {
+        Key key = id == null ? null : keysById.get(id.trim());
+        if (key == null) return Double.NaN;
+        synchronized (key) {
+            if (key.lastOffset >= 0 && timestamp >= key.lastTimestamp) return key.lastPrice;
+        }
+        long offset = locate(key, timestamp);
+        return offset < 0 ? Double.NaN : segmentFor(offset).getDouble((int) (offset % segmentBytes) + R_PRICE);
+    }
+
+    /**
+     * Количество товара на момент timestamp.
+     * @return -1, если товар неизвестен или на тот момент записей еще не было.
+     */
+    public int quantityAt(String id, long timestamp) {
+        Key key = id == null ? null : keysById.get(id.trim());
+        if (key == null) return -1;
+        synchronized (key) {
+            if (key.lastOffset >= 0 && timestamp >= key.lastTimestamp) return key.lastQuantity;
+        }
+        long offset = locate(key, timestamp);
+        return offset < 0 ? -1 : segmentFor(offset).getInt((int) (offset % segmentBytes) + R_QUANTITY);
+    }
+
+    /**
+     * Число записей изменений товара.
+     */
+    public int changeCount(String id) {
+        Key key = id == null ? null : keysById.get(id.trim());
+        if (key == null) return 0;
+        synchronized (key) {
+            return key.count;
+        }
+    }
+
+    public int productCount() {
+        return keysById.size();
+    }
+
+    /**
+     * Размер журнала в байтах (занятые записи).
+     */
+    public long length() {
+        return tail.get();
+    }
+
+    private long locate(Key key, long timestamp) {
+        long offset;
+        synchronized (key) {
+            // Первая выборка позже timestamp: от нее назад не больше SAMPLE_EVERY записей
+            int lo = 0, hi = key.samples;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (key.sampleTimestamps[mid] <= timestamp) lo = mid + 1; else hi = mid;
+            }
+            offset = lo < key.samples ? key.sampleOffsets[lo] : key.lastOffset;
+        }
+        while (offset >= 0) {
+            MappedByteBuffer segment = segmentFor(offset);
+            int at = (int) (offset % segmentBytes);
+            if (segment.getLong(at + R_TIMESTAMP) <= timestamp) return offset;
+            offset = segment.getLong(at + R_PREV);
+        }
+        return -1;
+    }
+
+    // --- Воспроизведение ---
+
+    /**
+     * Получатель записей при воспроизведении журнала.
+     */
+    @FunctionalInterface
+    public interface ChangeVisitor {
+        void onChange(String id, long timestamp, double price, int quantity);
+    }
+
+    /**
+     * Передает все записи изменений в порядке журнала (полная история для аудита).
+     * Записи, добавленные во время обхода, могут не попасть в него.
+     */
+    public void replay(ChangeVisitor visitor) {
+        long end = tail.get();
+        Key[] byNumber;
+        synchronized (defineLock) {
+            byNumber = keys.toArray(new Key[0]);
+        }
+        for (long offset = 0; offset < end; offset += RECORD_SIZE) {
+            MappedByteBuffer segment = segmentFor(offset);
+            int at = (int) (offset % segmentBytes);
+            if (segment.get(at + R_TYPE) != T_CHANGE) continue;
+            int number = segment.getInt(at + R_KEY);
+            if (number < 0 || number >= byNumber.length || byNumber[number] == null) continue;
+            visitor.onChange(byNumber[number].id, segment.getLong(at + R_TIMESTAMP),
+                    segment.getDouble(at + R_PRICE), segment.getInt(at + R_QUANTITY));
+        }
+    }
+
+    /**
+     * Восстанавливает последние цены и количества в колоночном каталоге
+     * из сжатого состояния (без обхода истории).
+     * @return сколько товаров каталога обновлено.
+     */
+    public int applyTo(ColumnarCatalog catalog) {
+        int updated = 0;
+        for (Key key : keysById.values()) {
+            int row = catalog.rowOf(key.id);
+            if (row < 0) continue;
+            double price;
+            int quantity;
+            synchronized (key) {
+                if (key.lastOffset < 0) continue;
+                price = key.lastPrice;
+                quantity = key.lastQuantity;
+            }
+            catalog.trySetPrice(row, price);
+            catalog.trySetQuantity(row, quantity);
+            updated++;
+        }
+        return updated;
+    }
+
+    /**
+     * То же для версионного каталога: все изменения одним пакетом.
+     * @return опубликованная версия.
+     */
+    public CatalogVersion applyTo(VersionedCatalog catalog) {
+        VersionedCatalog.Batch batch = catalog.begin();
+        for (Key key : keysById.values()) {
+            synchronized (key) {
+                if (key.lastOffset < 0) continue;
+                batch.trySetPrice(key.id, key.lastPrice);
+                batch.trySetQuantity(key.id, key.lastQuantity);
+            }
+        }
+        return batch.commit();
+    }
+
+    // --- Контрольные точки ---
+
+    /**
+     * Пишет контрольную точку: состояние и разреженный индекс всех товаров.
+     * Состояние копируется под блокировкой товара и сериализуется уже без
+     * нее, поэтому append не ждет записи файла. Перед подменой файла на
+     * диск сбрасываются записи, на которые может ссылаться контрольная точка.
+     * Файл подменяется атомарно, как снимок каталога.
+     */
+    public void checkpoint() throws IOException {
+        synchronized (checkpointLock) {
+            // Все записи до from уже учтены в состоянии ключей: позиция
+            // занимается под блокировкой товара, а ниже мы берем ту же блокировку
+            long from = tail.get();
+            sinceCheckpoint.set(0);
+            Key[] keySnapshot;
+            synchronized (defineLock) {
+                keySnapshot = keys.toArray(new Key[0]);
+            }
+            Key[] snapshot = new Key[keySnapshot.length];
+            for (int i = 0; i < keySnapshot.length; i++) {
+                Key key = keySnapshot[i];
+                if (key == null) continue;
+                synchronized (key) {
+                    snapshot[i] = key.snapshot();
+                }
+            }
+            // Состояние может ссылаться и на записи после from, но не дальше end.
+            // Записи до unforcedFrom сброшены прошлой контрольной точкой: запись,
+            // не попавшая в ее сброс, заняла позицию уже после ее from.
+            long end = tail.get();
+            force(unforcedFrom, end);
+            Path file = directory.resolve(CHECKPOINT_FILE);
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(CHECKPOINT_VERSION);
+                out.writeLong(from);
+                out.writeLong(segmentBytes);
+                int count = 0;
+                for (Key key : snapshot) if (key != null) count++;
+                out.writeInt(count);
+                for (Key key : snapshot) {
+                    if (key != null) key.write(out);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            unforcedFrom = from;
+        }
+    }
+
+    private void backgroundCheckpoint() {
+        try {
+            if (!closed) checkpoint();
+        } catch (IOException e) {
+            backgroundFailure = e;
+        } finally {
+            checkpointScheduled.set(false);
+        }
+    }
+
+    /**
+     * Сбрасывает отображенные сегменты на диск.
+     */
+    public void flush() {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) segment.force();
+        }
+    }
+
+    // Сбрасывает на диск записи в диапазоне [from, to)
+    private void force(long from, long to) {
+        for (long offset = from; offset < to; ) {
+            int at = (int) (offset % segmentBytes);
+            int length = (int) Math.min(segmentBytes - at, to - offset);
+            segmentFor(offset).force(at, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Останавливает фоновый поток, пишет контрольную точку и сбрасывает сегменты.
+     * @throws IOException если не удалась фоновая или финальная контрольная точка
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        background.shutdown();
+        try {
+            background.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        checkpoint();
+        if (backgroundFailure != null) throw backgroundFailure;
+    }
+
+    // --- Ключи ---
+
+    private Key keyFor(String id) {
+        Key key = keysById.get(id);
+        if (key != null) return key;
+        synchronized (defineLock) {
+            key = keysById.get(id);
+            if (key != null) return key;
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            int chunks = bytes.length <= DEFINE_BYTES ? 0 : (bytes.length - DEFINE_BYTES + CHUNK_BYTES - 1) / CHUNK_BYTES;
+            long offset = tail.getAndAdd((long) (1 + chunks) * RECORD_SIZE);
+            key = new Key(keys.size(), id);
+
+            // Продолжения ID пишутся первыми, DEFINE — последним: при чтении он целиком
+            for (int c = chunks; c >= 0; c--) {
+                long chunkOffset = offset + (long) c * RECORD_SIZE;
+                MappedByteBuffer segment = segmentForWrite(chunkOffset);
+                int at = (int) (chunkOffset % segmentBytes);
+                segment.putInt(at + R_KEY, key.number);
+                if (c == 0) {
+                    segment.putInt(at + D_LENGTH, bytes.length);
+                    putBytes(segment, at + D_BYTES, bytes, 0, Math.min(DEFINE_BYTES, bytes.length));
+                    segment.put(at + R_TYPE, T_DEFINE);
+                } else {
+                    int from = DEFINE_BYTES + (c - 1) * CHUNK_BYTES;
+                    putBytes(segment, at + C_BYTES, bytes, from, Math.min(CHUNK_BYTES, bytes.length - from));
+                    segment.put(at + R_TYPE, T_ID_CHUNK);
+                }
+            }
+            keys.add(key);
+            keysById.put(id, key);
+            return key;
+        }
+    }
+
+    private static void putBytes(MappedByteBuffer segment, int at, byte[] bytes, int from, int length) {
+        for (int i = 0; i < length; i++) segment.put(at + i, bytes[from + i]);
+    }
+
+    /**
+     * Последнее состояние товара и разреженный индекс его записей.
+     * Поля меняются под блокировкой самого объекта.
+     */
+    private static final class Key {
+        final int number;
+        final String id;
+        long lastOffset = -1;
+        long lastTimestamp = Long.MIN_VALUE;
+        double lastPrice = Double.NaN;
+        int lastQuantity = -1;
+        int count;
+        long[] sampleTimestamps = new long[4];
+        long[] sampleOffsets = new long[4];
+        int samples;
+
+        Key(int number, String id) {
+            this.number = number;
+            this.id = id;
+        }
+
+        void record(long offset, long timestamp, double price, int quantity) {
+            if (count % SAMPLE_EVERY == 0) {
+                if (samples == sampleOffsets.length) {
+                    sampleTimestamps = Arrays.copyOf(sampleTimestamps, samples * 2);
+                    sampleOffsets = Arrays.copyOf(sampleOffsets, samples * 2);
+                }
+                sampleTimestamps[samples] = timestamp;
+                sampleOffsets[samples] = offset;
+                samples++;
+            }
+            count++;
+            lastOffset = offset;
+            lastTimestamp = timestamp;
+            lastPrice = price;
+            lastQuantity = quantity;
+        }
+
+        /**
+         * Копия состояния, вызывается под блокировкой ключа. Выборки до
+         * samples не меняются (новые дописываются дальше, при росте массив
+         * заменяется), поэтому массивы общие.
+         */
+        Key snapshot() {
+            Key copy = new Key(number, id);
+            copy.lastOffset = lastOffset;
+            copy.lastTimestamp = lastTimestamp;
+            copy.lastPrice = lastPrice;
+            copy.lastQuantity = lastQuantity;
+            copy.count = count;
+            copy.sampleTimestamps = sampleTimestamps;
+            copy.sampleOffsets = sampleOffsets;
+            copy.samples = samples;
+            return copy;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(number);
+            out.writeUTF(id);
+            out.writeLong(lastOffset);
+            out.writeLong(lastTimestamp);
+            out.writeDouble(lastPrice);
+            out.writeInt(lastQuantity);
+            out.writeInt(count);
+            out.writeInt(samples);
+            for (int i = 0; i < samples; i++) {
+                out.writeLong(sampleTimestamps[i]);
+                out.writeLong(sampleOffsets[i]);
+            }
+        }
+
+        static Key read(DataInputStream in) throws IOException {
+            Key key = new Key(in.readInt(), in.readUTF());
+            key.lastOffset = in.readLong();
+            key.lastTimestamp = in.readLong();
+            key.lastPrice = in.readDouble();
+            key.lastQuantity = in.readInt();
+            key.count = in.readInt();
+            key.samples = in.readInt();
+            int capacity = Math.max(4, key.samples);
+            key.sampleTimestamps = new long[capacity];
+            key.sampleOffsets = new long[capacity];
+            for (int i = 0; i < key.samples; i++) {
+                key.sampleTimestamps[i] = in.readLong();
+                key.sampleOffsets[i] = in.readLong();
+            }
+            return key;
+        }
+    }
+
+    // --- Восстановление при открытии ---
+
+    private void recover() throws IOException {
+        int existing = 0;
+        while (Files.exists(directory.resolve(segmentName(existing)))) existing++;
+        for (int i = 0; i < existing; i++) mapSegment(i);
+
+        long from = 0;
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+                if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                    throw new IOException("Неизвестный формат контрольной точки: " + checkpoint);
+                }
+                from = in.readLong();
+                if (in.readLong() != segmentBytes) {
+                    throw new IOException("Контрольная точка не соответствует сегментам журнала: " + checkpoint);
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) register(Key.read(in));
+            }
+        }
+
+        // Записи после контрольной точки; дыры (нулевой тип) пропускаются
+        long end = existing * segmentBytes;
+        long last = from;
+        for (long offset = from; offset < end; offset += RECORD_SIZE) {
+            MappedByteBuffer segment = segments[(int) (offset / segmentBytes)];
+            int at = (int) (offset % segmentBytes);
+            byte type = segment.get(at + R_TYPE);
+            if (type == 0) continue;
+            last = offset + RECORD_SIZE;
+            int number = segment.getInt(at + R_KEY);
+            if (type == T_DEFINE) {
+                if (number < keys.size() && keys.get(number) != null) continue;
+                String id = readId(offset, segment.getInt(at + D_LENGTH));
+                if (id != null) register(new Key(number, id));
+            } else if (type == T_CHANGE && number < keys.size() && keys.get(number) != null) {
+                Key key = keys.get(number);
+                if (offset > key.lastOffset) {
+                    key.record(offset, segment.getLong(at + R_TIMESTAMP),
+                            segment.getDouble(at + R_PRICE), segment.getInt(at + R_QUANTITY));
+                }
+            }
+        }
+        tail.set(last);
+        unforcedFrom = from;
+        premap((int) (last / segmentBytes));
+        premap((int) (last / segmentBytes) + 1);
+    }
+
+    private void register(Key key) {
+        while (keys.size() <= key.number) keys.add(null);
+        keys.set(key.number, key);
+        keysById.put(key.id, key);
+    }
+
+    // @return null, если ID записан не полностью (сбой во время записи)
+    private String readId(long offset, int length) {
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; ) {
+            long recordOffset = offset + (i < DEFINE_BYTES ? 0 : (long) (1 + (i - DEFINE_BYTES) / CHUNK_BYTES) * RECORD_SIZE);
+            if (recordOffset >= (long) segments.length * segmentBytes) return null;
+            MappedByteBuffer segment = segments[(int) (recordOffset / segmentBytes)];
+            int at = (int) (recordOffset % segmentBytes);
+            if (segment.get(at + R_TYPE) == 0) return null;
+            int base = i < DEFINE_BYTES ? at + D_BYTES : at + C_BYTES;
+            int from = i < DEFINE_BYTES ? 0 : DEFINE_BYTES + (i - DEFINE_BYTES) / CHUNK_BYTES * CHUNK_BYTES;
+            int limit = Math.min(length, i < DEFINE_BYTES ? DEFINE_BYTES : from + CHUNK_BYTES);
+            for (; i < limit; i++) bytes[i] = segment.get(base + i - from);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- Сегменты ---
+
+    private static String segmentName(int index) {
+        return String.format("segment-%06d.log", index);
+    }
+
+    private MappedByteBuffer segmentFor(long offset) {
+        int index = (int) (offset / segmentBytes);
+        MappedByteBuffer[] current = segments;
+        if (index < current.length && current[index] != null) return current[index];
+        try {
+            return mapSegment(index); // фон не успел: отображаем сами
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer segmentForWrite(long offset) {
+        // Первая запись в сегмент: следующий отображается заранее в фоне
+        if (offset % segmentBytes == 0) premap((int) (offset / segmentBytes) + 1);
+        return segmentFor(offset);
+    }
+
+    private void premap(int index) {
+        if (closed) return;
+        try {
+            background.execute(() -> {
+                try {
+                    mapSegment(index);
+                } catch (IOException e) {
+                    backgroundFailure = e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Журнал закрывается: сегмент при необходимости отобразит пишущий поток
+        }
+    }
+
+    private MappedByteBuffer mapSegment(int index) throws IOException {
+        synchronized (mapLock) {
+            MappedByteBuffer[] current = segments;
+            if (index < current.length && current[index] != null) return current[index];
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(directory.resolve(segmentName(index)),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            }
+            MappedByteBuffer[] next = Arrays.copyOf(current, Math.max(current.length, index + 1));
+            next[index] = segment;
+            segments = next; // публикация через volatile
+            return segment;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package product.catalog;
+
+import category.Category;
+import product.DigitalProduct;
+import product.PhysicalProduct;
+import product.Product;
+import product.shipping.ShippingPolicy;
+
+/**
+ * Легковесное (flyweight) представление строки каталога в виде Product.
+ * Хранит только номер текущей строки: геттеры читают значения из источника
+ * (ColumnarCatalog или MappedCatalog), поэтому существующие PricePolicy
+ * работают без копирования данных.
+ *
+ * Для каждого ProductKind есть свой подкласс, чтобы проверки вида
+ * {@code p instanceof DigitalProduct} (например, в FixedOff) давали тот же результат.
+ *
+ * Представление только для чтения: мутаторы Product на нем не меняют каталог.
+ * Один курсор — один поток.
+ */
+public final class ProductCursor {
+    private final RowSource source;
+    private final RowProduct generic;
+    private final RowPhysicalProduct physical;
+    private final RowDigitalProduct digital;
+    private int row = -1;
+
+    ProductCursor(RowSource source) {
+        this.source = source;
+        this.generic = new RowProduct(this);
+        this.physical = new RowPhysicalProduct(this);
+        this.digital = new RowDigitalProduct(this);
+    }
+
+    /**
+     * Переводит курсор на строку и возвращает представление нужного подтипа.
+     * Возвращаемый объект переиспользуется при следующем вызове at().
+     */
+    public Product at(int row) {
+        if (row < 0 || row >= source.size()) {
+            throw new IndexOutOfBoundsException("Строка " + row + " вне диапазона [0, " + source.size() + ")");
+        }
+        this.row = row;
+        switch (source.getKind(row)) {
+            case PHYSICAL: return physical;
+            case DIGITAL: return digital;
+            default: return generic;
+        }
+    }
+
+    public int row() { return row; }
+
+    // --- Flyweight-подклассы ---
+
+    private static final class RowProduct extends Product {
+        private final ProductCursor cursor;
+
+        RowProduct(ProductCursor cursor) {
+            super("ROW-VIEW", "Row view");
+            this.cursor = cursor;
+        }
+
+        @Override public String getId() { return cursor.source.getId(cursor.row); }
+        @Override public String getName() { return cursor.source.getName(cursor.row); }
+        @Override public double getPrice() { return cursor.source.getPrice(cursor.row); }
+        @Override public int getQuantity() { return cursor.source.getQuantity(cursor.row); }
+        @Override public double getCostPrice() { return cursor.source.getCostPrice(cursor.row); }
+        @Override public Category getCategory() { return cursor.source.getCategory(cursor.row); }
+    }
+
+    private static final class RowPhysicalProduct extends PhysicalProduct {
+        private final ProductCursor cursor;
+
+        RowPhysicalProduct(ProductCursor cursor) {
+            super("ROW-VIEW", "Row view");
+            this.cursor = cursor;
+        }
+
+        @Override public String getId() { return cursor.source.getId(cursor.row); }
+        @Override public String getName() { return cursor.source.getName(cursor.row); }
+        @Override public double getPrice() { return cursor.source.getPrice(cursor.row); }
+        @Override public int getQuantity() { return cursor.source.getQuantity(cursor.row); }
+        @Override public double getCostPrice() { return cursor.source.getCostPrice(cursor.row); }
+        @Override public Category getCategory() { return cursor.source.getCategory(cursor.row); }
+        @Override public double getWeightKg() { return cursor.source.getWeightKg(cursor.row); }
+        @Override public double getLengthCm() { return cursor.source.getLengthCm(cursor.row); }
+        @Override public double getWidthCm() { return cursor.source.getWidthCm(cursor.row); }
+        @Override public double getHeightCm() { return cursor.source.getHeightCm(cursor.row); }
+
+        @Override
+        public double estimateShippingCost() {
+            return ShippingPolicy.quote(getShippingPolicy(), getWeightKg(), getLengthCm(), getWidthCm(), getHeightCm(),
+                    getShippingWeight());
+        }
+
+        @Override
+        public double getShippingWeight() {
+            return ShippingPolicy.billableWeight(getWeightKg(), getLengthCm(), getWidthCm(), getHeightCm());
+        }
+    }
+
+    private static final class RowDigitalProduct extends DigitalProduct {
+        private final ProductCursor cursor;
+
+        RowDigitalProduct(ProductCursor cursor) {
+            super("ROW-VIEW", "Row view");
+            this.cursor = cursor;
+        }
+
+        @Override public String getId() { return cursor.source.getId(cursor.row); }
+        @Override public String getName() { return cursor.source.getName(cursor.row); }
+        @Override public double getPrice() { return cursor.source.getPrice(cursor.row); }
+        @Override public int getQuantity() { return cursor.source.getQuantity(cursor.row); }
+        @Override public double getCostPrice() { return cursor.source.getCostPrice(cursor.row); }
+        @Override public Category getCategory() { return cursor.source.getCategory(cursor.row); }
+        @Override public double getDownloadSizeMb() { return cursor.source.getDownloadSizeMb(cursor.row); }
+        @Override public boolean isLicenseRequired() { return cursor.source.isLicenseRequired(cursor.row); }
+    }
+}
@@ -0,0 +1,26 @@
+package product.catalog;
+
+import product.DigitalProduct;
+import product.PhysicalProduct;
+import product.Product;
+
+/**
+ * Тип строки колоночного каталога (заменяет instanceof на уровне хранения).
+ */
+public enum ProductKind {
+    GENERIC,
+    PHYSICAL,
+    DIGITAL;
+
+    private static final ProductKind[] VALUES = values();
+
+    public static ProductKind of(Product p) {
+        if (p instanceof PhysicalProduct) return PHYSICAL;
+        if (p instanceof DigitalProduct) return DIGITAL;
+        return GENERIC;
+    }
+
+    public static ProductKind ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,27 @@
+package product.catalog;
+
+import category.Category;
+
+/**
+ * Построчный доступ к данным каталога (колоночного в памяти или
+ * отображенного из файла). На нем построены ProductCursor и запись снимков.
+ * Атрибуты физических/цифровых товаров по умолчанию нулевые.
+ */
+interface RowSource {
+    int size();
+
+    ProductKind getKind(int row);
+    String getId(int row);
+    String getName(int row);
+    double getPrice(int row);
+    int getQuantity(int row);
+    double getCostPrice(int row);
+    Category getCategory(int row);
+
+    default double getWeightKg(int row) { return 0.0; }
+    default double getLengthCm(int row) { return 0.0; }
+    default double getWidthCm(int row) { return 0.0; }
+    default double getHeightCm(int row) { return 0.0; }
+    default double getDownloadSizeMb(int row) { return 0.0; }
+    default boolean isLicenseRequired(int row) { return false; }
+}
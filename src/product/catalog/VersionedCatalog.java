@@ -0,0 +1,321 @@
+package product.catalog;
+
+import category.Category;
+import product.DigitalProduct;
+import product.PhysicalProduct;
+import product.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Каталог с многоверсионным доступом (MVCC, copy-on-write по страницам).
+ *
+ * Читатели берут неизменяемую {@link CatalogVersion} через {@link #snapshot()}
+ * — одно чтение AtomicReference, без блокировок — и видят согласованный
+ * каталог, пока держат ссылку, даже если цены тем временем меняются.
+ *
+ * Писатель собирает изменения в {@link Batch} и применяет их одним
+ * {@link Batch#commit()}: копируются только затронутые колонки затронутых
+ * страниц ({@link CatalogPage#PAGE_SIZE} строк), остальное новая версия
+ * разделяет с предыдущей. Пакеты применяются по очереди, каждый — к последней
+ * версии на момент commit, поэтому конфликтов между писателями нет:
+ * applyDiscount из двух пакетов применится дважды, последний trySetPrice выигрывает.
+ *
+ * Строки только добавляются: ID и номер строки не меняются между версиями.
+ * Старые версии освобождаются сборщиком мусора, когда на них не остается ссылок.
+ */
+public final class VersionedCatalog {
+    private final AtomicReference<CatalogVersion> current;
+    private final Map<String, Integer> rowById = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    public VersionedCatalog() {
+        this.current = new AtomicReference<>(new CatalogVersion(0, new CatalogPage[0], 0, rowById));
+    }
+
+    /**
+     * Каталог с одной версией, содержащей копии переданных товаров.
+     */
+    public static VersionedCatalog of(Collection<? extends Product> products) {
+        VersionedCatalog catalog = new VersionedCatalog();
+        Batch batch = catalog.begin();
+        for (Product product : products) batch.add(product);
+        batch.commit();
+        return catalog;
+    }
+
+    /**
+     * Текущая версия. Ее можно читать из любого числа потоков без блокировок.
+     */
+    public CatalogVersion snapshot() {
+        return current.get();
+    }
+
+    public long version() {
+        return current.get().version();
+    }
+
+    /**
+     * Новый пакет изменений. Пакет — для одного потока-писателя.
+     */
+    public Batch begin() {
+        return new Batch(this);
+    }
+
+    private CatalogVersion apply(List<Change> changes) {
+        synchronized (writeLock) {
+            CatalogVersion base = current.get();
+            if (changes.isEmpty()) return base;
+            Draft draft = new Draft(base, rowById);
+            int applied = 0;
+            for (Change change : changes) {
+                if (change.apply(draft)) applied++;
+            }
+            if (applied == 0) return base;
+            CatalogVersion next = draft.publish(base.version() + 1);
+            current.set(next);
+            return next;
+        }
+    }
+
+    /**
+     * Пакет изменений: мутаторы с той же валидацией, что у Product,
+     * по ID или по номеру строки. Значения проверяются сразу (false —
+     * недопустимое значение), а ID и строки — при commit: изменения
+     * несуществующих товаров и повторное добавление ID пропускаются.
+     */
+    public static final class Batch {
+        private final VersionedCatalog catalog;
+        private final List<Change> changes = new ArrayList<>();
+
+        private Batch(VersionedCatalog catalog) {
+            this.catalog = catalog;
+        }
+
+        /**
+         * Добавляет копию товара (значения берутся на момент вызова).
+         */
+        public boolean add(Product product) {
+            if (product == null || !Product.isValidId(product.getId())) return false;
+            ProductKind kind = ProductKind.of(product);
+            String id = product.getId().trim();
+            String name = product.getName();
+            double price = product.getPrice();
+            int quantity = product.getQuantity();
+            double costPrice = product.getCostPrice();
+            Category category = product.getCategory();
+            double[] attributes = new double[5];
+            boolean license = false;
+            if (product instanceof PhysicalProduct) {
+                PhysicalProduct physical = (PhysicalProduct) product;
+                attributes[0] = physical.getWeightKg();
+                attributes[1] = physical.getLengthCm();
+                attributes[2] = physical.getWidthCm();
+                attributes[3] = physical.getHeightCm();
+            } else if (product instanceof DigitalProduct) {
+                DigitalProduct digital = (DigitalProduct) product;
+                attributes[4] = digital.getDownloadSizeMb();
+                license = digital.isLicenseRequired();
+            }
+            final boolean licenseRequired = license;
+            changes.add(draft -> {
+                if (draft.rowById.containsKey(id)) return false;
+                int row = draft.append();
+                CatalogPage page = draft.pageForWrite(row);
+                page.ownAll();
+                int i = row & CatalogPage.PAGE_MASK;
+                page.ids[i] = id;
+                page.names[i] = name;
+                page.prices[i] = price;
+                page.quantities[i] = quantity;
+                page.costPrices[i] = costPrice;
+                page.categories[i] = category;
+                page.kinds[i] = (byte) kind.ordinal();
+                page.weights[i] = attributes[0];
+                page.lengths[i] = attributes[1];
+                page.widths[i] = attributes[2];
+                page.heights[i] = attributes[3];
+                page.downloadSizes[i] = attributes[4];
+                page.licenses[i] = licenseRequired;
+                draft.rowById.put(id, row);
+                return true;
+            });
+            return true;
+        }
+
+        public boolean trySetPrice(String id, double price) {
+            return id != null && trySetPrice(new RowRef(id), price);
+        }
+
+        public boolean trySetPrice(int row, double price) {
+            return trySetPrice(new RowRef(row), price);
+        }
+
+        public boolean trySetQuantity(String id, int quantity) {
+            return id != null && trySetQuantity(new RowRef(id), quantity);
+        }
+
+        public boolean trySetQuantity(int row, int quantity) {
+            return trySetQuantity(new RowRef(row), quantity);
+        }
+
+        /**
+         * Скидка к цене, действующей на момент commit (как Product.applyDiscount, 0..90%).
+         */
+        public boolean applyDiscount(String id, double percentage) {
+            return id != null && applyDiscount(new RowRef(id), percentage);
+        }
+
+        public boolean applyDiscount(int row, double percentage) {
+            return applyDiscount(new RowRef(row), percentage);
+        }
+
+        public boolean setCostPrice(int row, double costPrice) {
+            if (costPrice < 0) return false;
+            RowRef ref = new RowRef(row);
+            changes.add(draft -> {
+                int r = ref.resolve(draft);
+                if (r < 0) return false;
+                draft.pageForWrite(r).costPricesForWrite()[r & CatalogPage.PAGE_MASK] = costPrice;
+                return true;
+            });
+            return true;
+        }
+
+        /**
+         * Количество накопленных изменений.
+         */
+        public int size() {
+            return changes.size();
+        }
+
+        /**
+         * Применяет накопленные изменения к последней версии и публикует новую.
+         * Пакет очищается и может использоваться дальше.
+         * @return опубликованная версия (текущая, если ни одно изменение не применилось).
+         */
+        public CatalogVersion commit() {
+            List<Change> pending = new ArrayList<>(changes);
+            changes.clear();
+            return catalog.apply(pending);
+        }
+
+        private boolean trySetPrice(RowRef ref, double price) {
+            if (!Product.isValidPrice(price)) return false;
+            changes.add(draft -> {
+                int r = ref.resolve(draft);
+                if (r < 0) return false;
+                draft.pageForWrite(r).pricesForWrite()[r & CatalogPage.PAGE_MASK] = price;
+                return true;
+            });
+            return true;
+        }
+
+        private boolean trySetQuantity(RowRef ref, int quantity) {
+            if (!Product.isValidQuantity(quantity)) return false;
+            changes.add(draft -> {
+                int r = ref.resolve(draft);
+                if (r < 0) return false;
+                draft.pageForWrite(r).quantitiesForWrite()[r & CatalogPage.PAGE_MASK] = quantity;
+                return true;
+            });
+            return true;
+        }
+
+        private boolean applyDiscount(RowRef ref, double percentage) {
+            if (percentage < 0 || percentage > 90) return false;
+            changes.add(draft -> {
+                int r = ref.resolve(draft);
+                if (r < 0) return false;
+                draft.pageForWrite(r).pricesForWrite()[r & CatalogPage.PAGE_MASK] *= (1 - percentage / 100.0);
+                return true;
+            });
+            return true;
+        }
+    }
+
+    // --- Применение пакета ---
+
+    @FunctionalInterface
+    private interface Change {
+        /**
+         * @return false, если изменение пропущено (нет такой строки, ID занят).
+         */
+        boolean apply(Draft draft);
+    }
+
+    // Ссылка на строку по ID или номеру; ID разрешается при commit
+    private static final class RowRef {
+        private final String id;
+        private final int row;
+
+        RowRef(String id) {
+            this.id = id.trim();
+            this.row = -1;
+        }
+
+        RowRef(int row) {
+            this.id = null;
+            this.row = row;
+        }
+
+        int resolve(Draft draft) {
+            if (id == null) return row >= 0 && row < draft.size ? row : -1;
+            Integer r = draft.rowById.get(id);
+            return r == null ? -1 : r;
+        }
+    }
+
+    /**
+     * Черновик следующей версии: страницы базовой версии, пока их не
+     * изменили; первая запись в страницу делает ее поверхностную копию,
+     * первая запись в колонку — копию колонки.
+     */
+    private static final class Draft {
+        private final Map<String, Integer> rowById;
+        private CatalogPage[] pages;
+        private boolean[] owned;
+        private int size;
+
+        Draft(CatalogVersion base, Map<String, Integer> rowById) {
+            this.rowById = rowById;
+            this.pages = base.pages().clone();
+            this.owned = new boolean[pages.length];
+            this.size = base.size();
+        }
+
+        int append() {
+            int row = size++;
+            int page = row >>> CatalogPage.PAGE_SHIFT;
+            if (page >= pages.length) {
+                int capacity = Math.max(page + 1, pages.length + (pages.length >> 1));
+                pages = Arrays.copyOf(pages, capacity);
+                owned = Arrays.copyOf(owned, capacity);
+            }
+            if (pages[page] == null) {
+                pages[page] = new CatalogPage();
+                owned[page] = true;
+            }
+            return row;
+        }
+
+        CatalogPage pageForWrite(int row) {
+            int page = row >>> CatalogPage.PAGE_SHIFT;
+            if (!owned[page]) {
+                pages[page] = pages[page].copy();
+                owned[page] = true;
+            }
+            return pages[page];
+        }
+
+        CatalogVersion publish(long version) {
+            return new CatalogVersion(version, pages, size, rowById);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package product.checkout;
+
+import product.Product;
+
+import java.util.List;
+
+/**
+ * Immutable shopping cart: products with their quantities.
+ * The products themselves are shared, not copied; checkout reads their
+ * current prices.
+ */
+public final class Cart {
+    private final Product[] products;
+    private final int[] quantities;
+
+    /**
+     * @param products   cart line products, none null
+     * @param quantities units per line, same length as products
+     */
+    public Cart(List<? extends Product> products, int[] quantities) {
+        if (quantities.length != products.size()) {
+            throw new IllegalArgumentException("Expected " + products.size() + " quantities, got " + quantities.length);
+        }
+        this.products = products.toArray(new Product[0]);
+        for (Product product : this.products) {
+            if (product == null) throw new IllegalArgumentException("Cart product must not be null");
+        }
+        this.quantities = quantities.clone();
+    }
+
+    public static Cart of(Product product, int quantity) {
+        return new Cart(List.of(product), new int[] {quantity});
+    }
+
+    public int size() { return products.length; }
+
+    public Product getProduct(int line) { return products[line]; }
+
+    public int getQuantity(int line) { return quantities[line]; }
+
+    public List<Product> getProducts() {
+        return List.of(products);
+    }
+}
@@ -0,0 +1,53 @@
+package product.checkout;
+
+import product.pricing.Promotion;
+
+/**
+ * A promotion together with the rules for combining it with others in a cart.
+ *
+ * - scope: LINE promotions are picked line by line, a CART promotion
+ *   applies to every applicable line once it is used;
+ * - exclusivity group: at most one promotion of a group is used in a cart
+ *   (it may still apply to several lines); null means no group;
+ * - stackable: a line may carry several promotions only if all of them are
+ *   stackable. Stacked discounts are each computed on the list price and
+ *   added up; a line never costs less than zero.
+ */
+public final class CartPromotion {
+    private final Promotion promotion;
+    private final PromotionScope scope;
+    private final String exclusivityGroup;
+    private final boolean stackable;
+
+    public CartPromotion(Promotion promotion, PromotionScope scope, String exclusivityGroup, boolean stackable) {
+        if (promotion == null || scope == null) {
+            throw new IllegalArgumentException("Promotion and scope must not be null");
+        }
+        this.promotion = promotion;
+        this.scope = scope;
+        this.exclusivityGroup = exclusivityGroup;
+        this.stackable = stackable;
+    }
+
+    /** Non-stackable line promotion without an exclusivity group. */
+    public static CartPromotion line(Promotion promotion) {
+        return new CartPromotion(promotion, PromotionScope.LINE, null, false);
+    }
+
+    /** Non-stackable cart promotion without an exclusivity group. */
+    public static CartPromotion cart(Promotion promotion) {
+        return new CartPromotion(promotion, PromotionScope.CART, null, false);
+    }
+
+    public Promotion getPromotion() { return promotion; }
+    public PromotionScope getScope() { return scope; }
+    public String getExclusivityGroup() { return exclusivityGroup; }
+    public boolean isStackable() { return stackable; }
+
+    @Override
+    public String toString() {
+        return promotion.name() + "[" + scope
+                + (exclusivityGroup != null ? ", group=" + exclusivityGroup : "")
+                + (stackable ? ", stackable" : "") + "]";
+    }
+}
@@ -0,0 +1,422 @@
+package product.checkout;
+
+import product.Product;
+import product.money.Money;
+import product.pricing.Promotion;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the cheapest legal assignment of {@link CartPromotion}s to the lines
+ * of a cart, where Product.finalPrice(qty, policies) only picks the best
+ * single policy per product.
+ *
+ * A plan is legal when:
+ * - every promotion on a line is applicable to its product and lowers its
+ *   price (a promotion that saves nothing on a line does not count as
+ *   applied there);
+ * - a line carries either one promotion or only stackable ones;
+ * - a used CART promotion is on every line where it lowers the price;
+ * - at most one promotion of each exclusivity group is used in the cart.
+ *
+ * Only the choice of which promotions the cart uses couples the lines: once
+ * that set is fixed, every line independently takes its best legal option.
+ * So the search runs over sets of promotions:
+ * 1. the discount of every (line, promotion) pair is computed once with
+ *    Promotion.applyMinor and memoized in a matrix; identical lines (same
+ *    product and quantity) are merged with a multiplicity, and promotions
+ *    that save nothing on any line are dropped;
+ * 2. LINE promotions outside any exclusivity group are always used: a line
+ *    that is better off without one simply does not take it;
+ * 3. a greedy pass keeps adding the promotion that saves the most until
+ *    nothing helps. This is the fallback answer and the first incumbent;
+ * 4. a depth-first branch and bound decides the remaining promotions one at
+ *    a time (use / skip), the biggest standalone savings first. The lower
+ *    bound of a node lets every line pick from the undecided promotions on
+ *    its own: undecided CART promotions become optional per line, and each
+ *    line may take one promotion of every exclusivity group (the cart could
+ *    only use one of them for all lines). Subtrees whose bound is not below
+ *    the incumbent are cut.
+ *
+ * The budget covers the whole call: the greedy pass checks the deadline
+ * before every round and the search every 64 nodes. When the budget runs
+ * out, the best plan found so far is returned with optimal = false. Once the
+ * greedy pass has finished, that plan is never worse than the greedy one;
+ * a greedy pass cut short still returns a legal plan, since every round
+ * only lowers the cost. Only the discount matrix (one applyMinor call per
+ * line and promotion) is always built in full. Typical carts (50 lines, 20 promotions) finish
+ * well within the default budget (see CartPromotionBenchmark).
+ *
+ * Prices are in minor units, so totals are exact. The optimizer is
+ * immutable and thread-safe: all per-cart state lives in one call.
+ */
+public final class CartPromotionOptimizer {
+    /** Promotions are tracked in a long bit set. */
+    public static final int MAX_PROMOTIONS = Long.SIZE;
+    public static final Duration DEFAULT_BUDGET = Duration.ofNanos(500_000);
+
+    private static final long INFEASIBLE = Long.MAX_VALUE;
+    private static final int DEADLINE_CHECK_MASK = 63;
+
+    private final CartPromotion[] promotions;
+    private final long cartMask;        // bit p: promotion p has CART scope
+    private final long stackableMask;   // bit p: promotion p is stackable
+    private final long freeMask;        // LINE promotions without a group: using them never hurts
+    private final long[] groupMasks;    // promotions sharing p's exclusivity group, p included
+    private final int[] groupIndex;     // exclusivity group number of p, -1 for none
+    private final int groupCount;
+    private final long budgetNanos;
+
+    public CartPromotionOptimizer(List<CartPromotion> promotions) {
+        this(promotions, DEFAULT_BUDGET);
+    }
+
+    /**
+     * @param promotions candidate promotions, at most {@link #MAX_PROMOTIONS}
+     * @param budget     time per cart for the greedy pass and the exact search;
+     *                   zero skips the search and returns the complete greedy
+     *                   plan
+     */
+    public CartPromotionOptimizer(List<CartPromotion> promotions, Duration budget) {
+        if (promotions == null || budget == null || budget.isNegative()) {
+            throw new IllegalArgumentException("Promotions and a non-negative budget are required");
+        }
+        if (promotions.size() > MAX_PROMOTIONS) {
+            throw new IllegalArgumentException("At most " + MAX_PROMOTIONS + " promotions, got " + promotions.size());
+        }
+        this.promotions = promotions.toArray(new CartPromotion[0]);
+        this.groupMasks = new long[this.promotions.length];
+        this.groupIndex = new int[this.promotions.length];
+        long cart = 0;
+        long stackable = 0;
+        int groups = 0;
+        for (int p = 0; p < this.promotions.length; p++) {
+            CartPromotion promotion = this.promotions[p];
+            if (promotion == null) throw new IllegalArgumentException("Promotion must not be null");
+            if (promotion.getScope() == PromotionScope.CART) cart |= 1L << p;
+            if (promotion.isStackable()) stackable |= 1L << p;
+            groupMasks[p] = 1L << p;
+            groupIndex[p] = -1;
+            String group = promotion.getExclusivityGroup();
+            if (group == null) continue;
+            for (int q = 0; q < p; q++) {
+                if (group.equals(this.promotions[q].getExclusivityGroup())) {
+                    groupMasks[p] |= 1L << q;
+                    groupMasks[q] |= 1L << p;
+                    groupIndex[p] = groupIndex[q];
+                }
+            }
+            if (groupIndex[p] < 0) groupIndex[p] = groups++;
+        }
+        long free = 0;
+        for (int p = 0; p < this.promotions.length; p++) {
+            if ((cart >>> p & 1) == 0 && groupIndex[p] < 0) free |= 1L << p;
+        }
+        this.groupCount = groups;
+        this.cartMask = cart;
+        this.stackableMask = stackable;
+        this.freeMask = free;
+        this.budgetNanos = budget.toNanos();
+    }
+
+    public List<CartPromotion> getPromotions() {
+        return List.of(promotions);
+    }
+
+    /**
+     * Cheapest legal plan for the cart, or the best one found within the
+     * budget. Lines with a non-positive quantity cost nothing.
+     */
+    public PromotionPlan optimize(Cart cart) {
+        long started = System.nanoTime();
+        Search search = new Search(cart, started + budgetNanos);
+        return search.run(started);
+    }
+
+    private static final class LineKey {
+        private final Product product;
+        private final int quantity;
+
+        LineKey(Product product, int quantity) {
+            this.product = product;
+            this.quantity = quantity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LineKey)) return false;
+            LineKey other = (LineKey) o;
+            return product == other.product && quantity == other.quantity;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(product) * 31 + quantity;
+        }
+    }
+
+    private final class Search {
+        private final int count = promotions.length;
+        private final long deadline;
+        private final Cart cart;
+        private final int[] lineOf;       // cart line -> merged line, -1 if the line is empty
+        private final long[] base;        // list price of a merged line
+        private final long[] weight;      // cart lines merged into it
+        private final long[] applicable;  // promotions that lower its price
+        private final long[] discount;    // [line * count + promotion]
+        private final long[] groupBest = new long[groupCount];
+        private int lines;
+        private long relevant;
+        private long free;
+
+        private int[] order;
+        private long[] remaining;         // bits of order[k..]
+        private long nodes;
+        private boolean expired;
+        private long bestCost;
+        private long bestSet;
+
+        Search(Cart cart, long deadline) {
+            this.cart = cart;
+            this.deadline = deadline;
+            int size = cart.size();
+            lineOf = new int[size];
+            base = new long[size];
+            weight = new long[size];
+            applicable = new long[size];
+            discount = new long[size * count];
+            Map<LineKey, Integer> merged = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                Product product = cart.getProduct(i);
+                int quantity = cart.getQuantity(i);
+                if (quantity <= 0) {
+                    lineOf[i] = -1;
+                    continue;
+                }
+                LineKey key = new LineKey(product, quantity);
+                Integer known = merged.get(key);
+                if (known != null) {
+                    lineOf[i] = known;
+                    weight[known]++;
+                    continue;
+                }
+                int line = lines++;
+                merged.put(key, line);
+                lineOf[i] = line;
+                weight[line] = 1;
+                long listPrice = Money.times(product.getPriceMinor(), quantity);
+                base[line] = listPrice;
+                long mask = 0;
+                for (int p = 0; p < count; p++) {
+                    Promotion promotion = promotions[p].getPromotion();
+                    if (!promotion.applicableTo(product)) continue;
+                    long saving = listPrice - promotion.applyMinor(product, quantity);
+                    if (saving <= 0) continue;
+                    discount[line * count + p] = saving;
+                    mask |= 1L << p;
+                }
+                applicable[line] = mask;
+                relevant |= mask;
+            }
+        }
+
+        PromotionPlan run(long started) {
+            free = relevant & freeMask;
+            greedy();
+            boolean optimal = !expired;
+            if (!expired) {
+                orderBySavings();
+                if (order.length > 0) {
+                    search(0, free, 0L, -1L);
+                    optimal = !expired;
+                }
+            }
+            return plan(optimal, System.nanoTime() - started);
+        }
+
+        // --- Greedy fallback ---
+
+        private void greedy() {
+            long used = free;
+            long blocked = free;
+            long current = cost(used, 0L);
+            while (true) {
+                if (budgetNanos > 0 && System.nanoTime() - deadline > 0) {
+                    expired = true;
+                    break;
+                }
+                int chosen = -1;
+                long chosenCost = current;
+                for (long m = relevant & ~blocked; m != 0; m &= m - 1) {
+                    int p = Long.numberOfTrailingZeros(m);
+                    long c = cost(used | 1L << p, 0L);
+                    if (c < chosenCost) {
+                        chosenCost = c;
+                        chosen = p;
+                    }
+                }
+                if (chosen < 0) break;
+                used |= 1L << chosen;
+                blocked |= groupMasks[chosen];
+                current = chosenCost;
+            }
+            bestCost = current;
+            bestSet = used;
+        }
+
+        // --- Branch and bound ---
+
+        private void orderBySavings() {
+            long none = cost(free, 0L);
+            List<long[]> savings = new ArrayList<>(Long.bitCount(relevant));
+            for (long m = relevant & ~free; m != 0; m &= m - 1) {
+                int p = Long.numberOfTrailingZeros(m);
+                savings.add(new long[] {none - cost(free | 1L << p, 0L), p});
+            }
+            savings.sort((a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+            order = new int[savings.size()];
+            remaining = new long[order.length + 1];
+            for (int k = 0; k < order.length; k++) order[k] = (int) savings.get(k)[1];
+            for (int k = order.length - 1; k >= 0; k--) remaining[k] = remaining[k + 1] | 1L << order[k];
+        }
+
+        /**
+         * @param k        promotions order[0..k) are decided
+         * @param included promotions decided as used
+         * @param blocked  promotions that can no longer be used (groups of the included ones)
+         * @param exact    cost(included, 0), or -1 if not known yet
+         */
+        private void search(int k, long included, long blocked, long exact) {
+            if (expired) return;
+            if ((nodes++ & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadline > 0) {
+                expired = true;
+                return;
+            }
+            long optional = remaining[k] & ~blocked;
+            long bound = cost(included, optional);
+            if (bound >= bestCost) return;
+            if (exact < 0) exact = cost(included, 0L);
+            if (exact < bestCost) {
+                bestCost = exact;
+                bestSet = included;
+            }
+            if (exact == bound) return;       // undecided promotions cannot help
+            while ((blocked >>> order[k] & 1) != 0) k++;
+            int p = order[k];
+            search(k + 1, included | 1L << p, blocked | groupMasks[p], -1L);
+            search(k + 1, included, blocked, exact);
+        }
+
+        // --- Line costs ---
+
+        private long cost(long included, long optional) {
+            long total = 0;
+            for (int line = 0; line < lines; line++) {
+                long c = lineCost(line, included, optional);
+                if (c == INFEASIBLE) return INFEASIBLE;
+                total += weight[line] * c;
+            }
+            return total;
+        }
+
+        /**
+         * Cheapest price of a line when the promotions in 'included' are used
+         * by the cart and those in 'optional' may be (with optional CART
+         * promotions not forced onto the line). With optional == 0 this is
+         * the exact price; otherwise a lower bound.
+         */
+        private long lineCost(int line, long included, long optional) {
+            long mask = applicable[line];
+            long forced = included & cartMask & mask;
+            long available = ((included & ~cartMask) | optional) & mask;
+            long listPrice = base[line];
+            int row = line * count;
+            if ((forced & ~stackableMask) != 0) {
+                if ((forced & (forced - 1)) != 0) return INFEASIBLE;
+                return Math.max(0L, listPrice - discount[row + Long.numberOfTrailingZeros(forced)]);
+            }
+            long best = Math.max(0L, listPrice - stackedDiscount(row, (forced | available) & stackableMask));
+            if (forced == 0) {
+                for (long m = available & ~stackableMask; m != 0; m &= m - 1) {
+                    best = Math.min(best, Math.max(0L, listPrice - discount[row + Long.numberOfTrailingZeros(m)]));
+                }
+            }
+            return best;
+        }
+
+        // Sum of the discounts, counting only the largest one of each exclusivity group
+        private long stackedDiscount(int row, long promotionMask) {
+            long sum = 0;
+            long grouped = 0;
+            for (long m = promotionMask; m != 0; m &= m - 1) {
+                int p = Long.numberOfTrailingZeros(m);
+                int group = groupIndex[p];
+                if (group < 0) {
+                    sum += discount[row + p];
+                } else {
+                    if ((grouped >>> group & 1) == 0 || discount[row + p] > groupBest[group]) {
+                        groupBest[group] = discount[row + p];
+                    }
+                    grouped |= 1L << group;
+                }
+            }
+            for (long m = grouped; m != 0; m &= m - 1) sum += groupBest[Long.numberOfTrailingZeros(m)];
+            return sum;
+        }
+
+        // Promotions behind lineCost(line, used, 0)
+        private long appliedMask(int line, long used) {
+            long mask = applicable[line];
+            long forced = used & cartMask & mask;
+            if ((forced & ~stackableMask) != 0) return forced;
+            long available = used & ~cartMask & mask;
+            long listPrice = base[line];
+            int row = line * count;
+            long choice = (forced | available) & stackableMask;
+            long stacked = 0;
+            for (long m = choice; m != 0; m &= m - 1) stacked += discount[row + Long.numberOfTrailingZeros(m)];
+            long best = Math.max(0L, listPrice - stacked);
+            if (forced == 0) {
+                for (long m = available & ~stackableMask; m != 0; m &= m - 1) {
+                    int p = Long.numberOfTrailingZeros(m);
+                    long c = Math.max(0L, listPrice - discount[row + p]);
+                    if (c < best) {
+                        best = c;
+                        choice = 1L << p;
+                    }
+                }
+            }
+            return choice;
+        }
+
+        private PromotionPlan plan(boolean optimal, long elapsedNanos) {
+            int size = cart.size();
+            List<List<CartPromotion>> applied = new ArrayList<>(size);
+            long[] lineTotals = new long[size];
+            long subtotal = 0;
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                int line = lineOf[i];
+                if (line < 0) {
+                    applied.add(List.of());
+                    continue;
+                }
+                List<CartPromotion> onLine = new ArrayList<>(2);
+                for (long m = appliedMask(line, bestSet); m != 0; m &= m - 1) {
+                    onLine.add(promotions[Long.numberOfTrailingZeros(m)]);
+                }
+                applied.add(Collections.unmodifiableList(onLine));
+                lineTotals[i] = lineCost(line, bestSet, 0L);
+                subtotal += base[line];
+                total += lineTotals[i];
+            }
+            return new PromotionPlan(Collections.unmodifiableList(applied), lineTotals, subtotal, total,
+                    optimal, nodes, elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package product.checkout;
+
+import product.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Open-loop load generator for {@link CheckoutService}.
+ *
+ * Request i is scheduled at {@code start + i / rps} and dispatched to the
+ * service's request threads at that time regardless of how many requests are
+ * still running; if the dispatcher falls behind (GC pause, saturated CPU) it
+ * sends the overdue requests immediately, and their latency still counts from
+ * the scheduled time. This is how HdrHistogram-based load tools avoid
+ * coordinated omission: a stall shows up in p99/p999 instead of silently
+ * lowering the request rate.
+ */
+public final class CheckoutLoadGenerator {
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final CheckoutService service;
+    private final IntFunction<Cart> carts;
+
+    /**
+     * @param carts cart for request number i (called on the dispatcher thread)
+     */
+    public CheckoutLoadGenerator(CheckoutService service, IntFunction<Cart> carts) {
+        if (service == null || carts == null) throw new IllegalArgumentException("Service and carts must not be null");
+        this.service = service;
+        this.carts = carts;
+    }
+
+    /**
+     * Sends {@code requestsPerSecond * duration} requests at a constant rate
+     * and waits (up to a minute) for the outstanding ones to finish.
+     */
+    public LoadReport run(int requestsPerSecond, Duration duration) throws InterruptedException {
+        if (requestsPerSecond <= 0) throw new IllegalArgumentException("Rate must be positive: " + requestsPerSecond);
+        long total = duration.toNanos() * requestsPerSecond / 1_000_000_000L;
+        if (total <= 0 || total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Duration gives " + total + " requests at " + requestsPerSecond + " rps");
+        }
+        int requests = (int) total;
+        double interval = 1e9 / requestsPerSecond;
+
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        LongAdder failed = new LongAdder();
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long scheduled = start + (long) (i * interval);
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+                if (Thread.interrupted()) throw new InterruptedException();
+            }
+            Cart cart = carts.apply(i);
+            service.executor().execute(() -> {
+                long begin = System.nanoTime();
+                try {
+                    service.checkout(cart);
+                } catch (RuntimeException e) {
+                    failed.increment();
+                } finally {
+                    long end = System.nanoTime();
+                    serviceTime.record(end - begin);
+                    latency.record(end - scheduled);
+                    done.countDown();
+                }
+            });
+        }
+        done.await(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+        long completed = requests - done.getCount();
+        return new LoadReport(requestsPerSecond, requests, completed - failed.sum(), failed.sum(),
+                elapsed, latency, serviceTime);
+    }
+}
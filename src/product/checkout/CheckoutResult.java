@@ -0,0 +1,44 @@
+package product.checkout;
+
+/**
+ * Totals of one checkout.
+ *
+ * subtotal is the list price of all lines, merchandise the price after the
+ * best promotion per line; tax is charged on merchandise, and total is
+ * merchandise + tax + shipping.
+ */
+public final class CheckoutResult {
+    private final double[] lineTotals;
+    private final double subtotal;
+    private final double merchandise;
+    private final double tax;
+    private final double shipping;
+    private final int parcelCount;
+
+    CheckoutResult(double[] lineTotals, double subtotal, double merchandise, double tax,
+                   double shipping, int parcelCount) {
+        this.lineTotals = lineTotals;
+        this.subtotal = subtotal;
+        this.merchandise = merchandise;
+        this.tax = tax;
+        this.shipping = shipping;
+        this.parcelCount = parcelCount;
+    }
+
+    /** Price of a cart line after promotions, before tax. */
+    public double getLineTotal(int line) { return lineTotals[line]; }
+
+    public double getSubtotal() { return subtotal; }
+    public double getDiscount() { return subtotal - merchandise; }
+    public double getMerchandise() { return merchandise; }
+    public double getTax() { return tax; }
+    public double getShipping() { return shipping; }
+    public double getTotal() { return merchandise + tax + shipping; }
+    public int getParcelCount() { return parcelCount; }
+
+    @Override
+    public String toString() {
+        return String.format("CheckoutResult[subtotal=%.2f, discount=%.2f, tax=%.2f, shipping=%.2f (%d parcels), total=%.2f]",
+                subtotal, getDiscount(), tax, shipping, parcelCount, getTotal());
+    }
+}
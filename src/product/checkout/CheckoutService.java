@@ -0,0 +1,143 @@
+package product.checkout;
+
+import product.PhysicalProduct;
+import product.Product;
+import product.pricing.PolicySet;
+import product.shipping.ShipmentPlanner;
+import product.shipping.ShipmentQuote;
+import product.tax.TaxResolverHolder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prices carts end to end: best promotion per line ({@link PolicySet}),
+ * tax per line ({@link TaxResolverHolder}, so rules can be swapped while the
+ * service runs) and parcel shipping for the physical lines
+ * ({@link ShipmentPlanner}).
+ *
+ * {@link #checkout(Cart)} runs on the caller's thread. {@link #submit(Cart)}
+ * runs every request on its own thread: a virtual thread when the JDK
+ * provides them (Java 21+, looked up reflectively so the code still runs on
+ * 17), otherwise a cached pool of daemon platform threads. All collaborators
+ * are thread-safe, so requests need no locking.
+ */
+public final class CheckoutService implements AutoCloseable {
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+
+    private final PolicySet promotions;
+    private final TaxResolverHolder taxes;
+    private final ShipmentPlanner shipping;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    /**
+     * @param promotions line promotions (an empty set means list prices)
+     * @param taxes      tax rules
+     * @param shipping   parcel planner for the physical lines
+     */
+    public CheckoutService(PolicySet promotions, TaxResolverHolder taxes, ShipmentPlanner shipping) {
+        if (promotions == null || taxes == null || shipping == null) {
+            throw new IllegalArgumentException("Promotions, taxes and shipping must not be null");
+        }
+        this.promotions = promotions;
+        this.taxes = taxes;
+        this.shipping = shipping;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "checkout-" + THREAD_SEQ.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Prices the cart on the calling thread.
+     * Lines with a non-positive quantity cost nothing and are not shipped.
+     */
+    public CheckoutResult checkout(Cart cart) {
+        int lines = cart.size();
+        double[] lineTotals = new double[lines];
+        double subtotal = 0.0;
+        double merchandise = 0.0;
+        double tax = 0.0;
+        List<PhysicalProduct> physical = null;
+        int[] physicalQuantities = null;
+        int physicalCount = 0;
+        for (int i = 0; i < lines; i++) {
+            Product product = cart.getProduct(i);
+            int quantity = cart.getQuantity(i);
+            if (quantity <= 0) continue;
+            double lineTotal = promotions.finalPrice(product, quantity);
+            lineTotals[i] = lineTotal;
+            subtotal += product.finalPrice(quantity);
+            merchandise += lineTotal;
+            tax += taxes.get().calculateTax(product, lineTotal);
+            if (product instanceof PhysicalProduct) {
+                if (physical == null) {
+                    physical = new ArrayList<>(lines);
+                    physicalQuantities = new int[lines];
+                }
+                physical.add((PhysicalProduct) product);
+                physicalQuantities[physicalCount++] = quantity;
+            }
+        }
+        double shippingCost = 0.0;
+        int parcels = 0;
+        if (physicalCount > 0) {
+            ShipmentQuote quote = shipping.plan(physical, Arrays.copyOf(physicalQuantities, physicalCount));
+            shippingCost = quote.getTotalCost();
+            parcels = quote.getParcelCount();
+        }
+        return new CheckoutResult(lineTotals, subtotal, merchandise, tax, shippingCost, parcels);
+    }
+
+    /**
+     * Prices the cart on a new (virtual, when available) thread.
+     */
+    public CompletableFuture<CheckoutResult> submit(Cart cart) {
+        return CompletableFuture.supplyAsync(() -> checkout(cart), executor);
+    }
+
+    /** true if requests run on virtual threads. */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Stops accepting requests and waits up to 10 seconds for running ones.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) executor.shutdownNow();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() on Java 21+, null before
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
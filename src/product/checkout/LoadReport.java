@@ -0,0 +1,70 @@
+package product.checkout;
+
+import product.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link CheckoutLoadGenerator} run.
+ *
+ * Latency is measured from the moment a request was scheduled to be sent
+ * until it completed, so time spent queued behind slow requests counts
+ * (no coordinated omission). Service time is measured from the moment the
+ * request started running on its thread.
+ */
+public final class LoadReport {
+    private final int targetRps;
+    private final long sent;
+    private final long completed;
+    private final long failed;
+    private final long elapsedNanos;
+    private final LatencyHistogram latency;
+    private final LatencyHistogram serviceTime;
+
+    LoadReport(int targetRps, long sent, long completed, long failed, long elapsedNanos,
+               LatencyHistogram latency, LatencyHistogram serviceTime) {
+        this.targetRps = targetRps;
+        this.sent = sent;
+        this.completed = completed;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+    }
+
+    public int getTargetRps() { return targetRps; }
+    public long getSent() { return sent; }
+    public long getCompleted() { return completed; }
+    public long getFailed() { return failed; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getAchievedRps() {
+        return elapsedNanos == 0 ? 0.0 : completed * 1e9 / elapsedNanos;
+    }
+
+    /** Scheduled send to completion, in nanoseconds. */
+    public LatencyHistogram getLatency() { return latency; }
+
+    /** Start on the request thread to completion, in nanoseconds. */
+    public LatencyHistogram getServiceTime() { return serviceTime; }
+
+    public long getP50Nanos() { return latency.valueAtPercentile(50); }
+    public long getP99Nanos() { return latency.valueAtPercentile(99); }
+    public long getP999Nanos() { return latency.valueAtPercentile(99.9); }
+
+    /**
+     * Regression gate: every request completed without error and the p99
+     * latency is within the limit.
+     */
+    public boolean meets(long p99Limit, TimeUnit unit) {
+        return failed == 0 && completed == sent && getP99Nanos() <= unit.toNanos(p99Limit);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("target=%d rps, achieved=%.0f rps, sent=%d, completed=%d, failed=%d%n"
+                        + "  latency: %s%n  service: %s",
+                targetRps, getAchievedRps(), sent, completed, failed,
+                latency.summary(TimeUnit.MICROSECONDS), serviceTime.summary(TimeUnit.MICROSECONDS));
+    }
+}
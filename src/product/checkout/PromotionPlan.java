@@ -0,0 +1,68 @@
+package product.checkout;
+
+import product.money.Money;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Result of {@link CartPromotionOptimizer#optimize(Cart)}: the promotions
+ * applied to every cart line and the resulting prices, in minor units
+ * (see Money) with double accessors for convenience.
+ *
+ * optimal is true when the search finished within its budget and the total
+ * is the cheapest legal one; false means the best plan found before the
+ * deadline (at least as cheap as the greedy one) was returned.
+ */
+public final class PromotionPlan {
+    private final List<List<CartPromotion>> applied;
+    private final long[] lineTotalsMinor;
+    private final long subtotalMinor;
+    private final long totalMinor;
+    private final boolean optimal;
+    private final long nodesExplored;
+    private final long elapsedNanos;
+
+    PromotionPlan(List<List<CartPromotion>> applied, long[] lineTotalsMinor, long subtotalMinor, long totalMinor,
+                  boolean optimal, long nodesExplored, long elapsedNanos) {
+        this.applied = applied;
+        this.lineTotalsMinor = lineTotalsMinor;
+        this.subtotalMinor = subtotalMinor;
+        this.totalMinor = totalMinor;
+        this.optimal = optimal;
+        this.nodesExplored = nodesExplored;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Promotions applied to a cart line, in optimizer order; empty for list price. */
+    public List<CartPromotion> getAppliedPromotions(int line) { return applied.get(line); }
+
+    /** Distinct promotions used anywhere in the cart. */
+    public List<CartPromotion> getUsedPromotions() {
+        Set<CartPromotion> used = new LinkedHashSet<>();
+        for (List<CartPromotion> line : applied) used.addAll(line);
+        return new ArrayList<>(used);
+    }
+
+    public long getLineTotalMinor(int line) { return lineTotalsMinor[line]; }
+    public long getSubtotalMinor() { return subtotalMinor; }
+    public long getTotalMinor() { return totalMinor; }
+
+    public double getLineTotal(int line) { return Money.toMajor(lineTotalsMinor[line]); }
+    public double getSubtotal() { return Money.toMajor(subtotalMinor); }
+    public double getTotal() { return Money.toMajor(totalMinor); }
+    public double getDiscount() { return Money.toMajor(subtotalMinor - totalMinor); }
+
+    public boolean isOptimal() { return optimal; }
+    public long getNodesExplored() { return nodesExplored; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    @Override
+    public String toString() {
+        return String.format("PromotionPlan[subtotal=%.2f, discount=%.2f, total=%.2f, %s, %d nodes, %.1f us, used=%s]",
+                getSubtotal(), getDiscount(), getTotal(), optimal ? "optimal" : "best within budget",
+                nodesExplored, elapsedNanos / 1_000.0, getUsedPromotions());
+    }
+}
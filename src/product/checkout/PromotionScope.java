@@ -0,0 +1,11 @@
+package product.checkout;
+
+/**
+ * Where a {@link CartPromotion} applies.
+ */
+public enum PromotionScope {
+    /** Chosen per line: the optimizer decides which lines get it. */
+    LINE,
+    /** Cart-wide: once chosen it applies to every line it is applicable to. */
+    CART
+}
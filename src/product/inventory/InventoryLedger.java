@@ -0,0 +1,253 @@
+package product.inventory;
+
+import product.Product;
+import product.StockStatus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Складской учет с резервированием для параллельного оформления заказов.
+ *
+ * Остатки хранятся вне кучи (direct ByteBuffer) по одной ячейке long на
+ * товар: старшие 32 бита — доступное количество, младшие — в резерве.
+ * Обе величины меняются одним CAS через VarHandle, поэтому
+ * reserve/commit/release атомарны без блокировок, а getStockStatus видит
+ * согласованную пару (доступно, в резерве).
+ *
+ * Жизненный цикл единицы: reserve (доступно -> резерв), затем commit
+ * (резерв списывается) или release (резерв -> доступно).
+ *
+ * В режиме padded каждая ячейка занимает отдельную кеш-линию (64 байта),
+ * чтобы потоки, работающие с соседними товарами, не мешали друг другу.
+ * Память освобождается сборщиком мусора вместе с буфером.
+ *
+ * ID регистрируются один раз; для горячего пути есть перегрузки по номеру
+ * ячейки ({@link #slotOf(String)}), без поиска в словаре.
+ */
+public class InventoryLedger {
+    private static final VarHandle CELL =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int CACHE_LINE = 64;
+
+    private final ByteBuffer cells;
+    private final int stride;
+    private final int capacity;
+    private final Map<String, Integer> slotById = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    public InventoryLedger(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param capacity максимальное число товаров
+     * @param padded   одна ячейка на кеш-линию (больше памяти, нет ложного разделения)
+     */
+    public InventoryLedger(int capacity, boolean padded) {
+        if (capacity <= 0) throw new IllegalArgumentException("Емкость должна быть положительной: " + capacity);
+        this.stride = padded ? CACHE_LINE : Long.BYTES;
+        if ((long) capacity * stride > Integer.MAX_VALUE - CACHE_LINE) {
+            throw new IllegalArgumentException("Слишком большая емкость: " + capacity);
+        }
+        this.capacity = capacity;
+        // Запас на выравнивание: CAS по VarHandle требует адрес, кратный 8 (или 64 для padded)
+        ByteBuffer raw = ByteBuffer.allocateDirect(capacity * stride + CACHE_LINE);
+        int shift = raw.alignmentOffset(0, stride);
+        raw.position(shift == 0 ? 0 : stride - shift);
+        this.cells = raw.slice().order(ByteOrder.nativeOrder());
+    }
+
+    // --- Регистрация ---
+
+    /**
+     * Регистрирует товар с начальным остатком.
+     * @return номер ячейки или -1, если ID пуст, уже зарегистрирован,
+     *         остаток недопустим или ledger заполнен.
+     */
+    public int register(String id, int quantity) {
+        if (id == null || !Product.isValidId(id) || quantity < 0) return -1;
+        String key = id.trim();
+        if (slotById.containsKey(key)) return -1;
+        synchronized (slotById) {
+            if (slotById.containsKey(key) || nextSlot.get() >= capacity) return -1;
+            int slot = nextSlot.get();
+            CELL.setVolatile(cells, offset(slot), pack(quantity, 0));
+            nextSlot.set(slot + 1);
+            slotById.put(key, slot); // публикуем после записи ячейки
+            return slot;
+        }
+    }
+
+    public int register(Product product) {
+        return product == null ? -1 : register(product.getId(), product.getQuantity());
+    }
+
+    /**
+     * @return номер ячейки по ID или -1.
+     */
+    public int slotOf(String id) {
+        if (id == null) return -1;
+        Integer slot = slotById.get(id.trim());
+        return slot == null ? -1 : slot;
+    }
+
+    public int size() {
+        return nextSlot.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // --- Операции по ID ---
+
+    public boolean reserve(String id, int n) {
+        int slot = slotOf(id);
+        return slot >= 0 && reserve(slot, n);
+    }
+
+    public boolean commit(String id, int n) {
+        int slot = slotOf(id);
+        return slot >= 0 && commit(slot, n);
+    }
+
+    public boolean release(String id, int n) {
+        int slot = slotOf(id);
+        return slot >= 0 && release(slot, n);
+    }
+
+    public boolean restock(String id, int n) {
+        int slot = slotOf(id);
+        return slot >= 0 && restock(slot, n);
+    }
+
+    public int getAvailable(String id) {
+        int slot = slotOf(id);
+        return slot < 0 ? 0 : getAvailable(slot);
+    }
+
+    public int getReserved(String id) {
+        int slot = slotOf(id);
+        return slot < 0 ? 0 : getReserved(slot);
+    }
+
+    /**
+     * Статус по доступному (не зарезервированному) количеству,
+     * по тем же порогам, что Product.getStockStatus.
+     */
+    public String getStockStatus(String id) {
+        int slot = slotOf(id);
+        return slot < 0 ? Product.stockStatusOf(0) : getStockStatus(slot);
+    }
+
+    // --- Операции по номеру ячейки (CAS-циклы) ---
+
+    /**
+     * Переводит n единиц из доступных в резерв.
+     * @return false, если n <= 0 или доступно меньше n.
+     */
+    public boolean reserve(int slot, int n) {
+        if (n <= 0) return false;
+        int at = offset(checkSlot(slot));
+        for (;;) {
+            long cell = (long) CELL.getVolatile(cells, at);
+            int available = available(cell);
+            if (available < n) return false;
+            if (CELL.compareAndSet(cells, at, cell, pack(available - n, reserved(cell) + n))) return true;
+        }
+    }
+
+    /**
+     * Списывает n зарезервированных единиц (заказ оплачен).
+     * @return false, если n <= 0 или в резерве меньше n.
+     */
+    public boolean commit(int slot, int n) {
+        if (n <= 0) return false;
+        int at = offset(checkSlot(slot));
+        for (;;) {
+            long cell = (long) CELL.getVolatile(cells, at);
+            int reserved = reserved(cell);
+            if (reserved < n) return false;
+            if (CELL.compareAndSet(cells, at, cell, pack(available(cell), reserved - n))) return true;
+        }
+    }
+
+    /**
+     * Возвращает n зарезервированных единиц в доступные (заказ отменен).
+     * @return false, если n <= 0 или в резерве меньше n.
+     */
+    public boolean release(int slot, int n) {
+        if (n <= 0) return false;
+        int at = offset(checkSlot(slot));
+        for (;;) {
+            long cell = (long) CELL.getVolatile(cells, at);
+            int reserved = reserved(cell);
+            if (reserved < n) return false;
+            if (CELL.compareAndSet(cells, at, cell, pack(available(cell) + n, reserved - n))) return true;
+        }
+    }
+
+    /**
+     * Добавляет n единиц к доступным (поставка).
+     * @return false, если n <= 0 или доступное вместе с резервом превысило бы Integer.MAX_VALUE.
+     */
+    public boolean restock(int slot, int n) {
+        if (n <= 0) return false;
+        int at = offset(checkSlot(slot));
+        for (;;) {
+            long cell = (long) CELL.getVolatile(cells, at);
+            int available = available(cell);
+            int reserved = reserved(cell);
+            // Резерв позже вернется в доступные: их сумма тоже должна помещаться в int
+            if ((long) available + reserved + n > Integer.MAX_VALUE) return false;
+            if (CELL.compareAndSet(cells, at, cell, pack(available + n, reserved))) return true;
+        }
+    }
+
+    public int getAvailable(int slot) {
+        return available((long) CELL.getVolatile(cells, offset(checkSlot(slot))));
+    }
+
+    public int getReserved(int slot) {
+        return reserved((long) CELL.getVolatile(cells, offset(checkSlot(slot))));
+    }
+
+    public String getStockStatus(int slot) {
+        return Product.stockStatusOf(getAvailable(slot));
+    }
+
+    public StockStatus stockStatus(int slot) {
+        return StockStatus.of(getAvailable(slot));
+    }
+
+    // --- Упаковка ---
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & 0xFFFF_FFFFL);
+    }
+
+    private static int available(long cell) {
+        return (int) (cell >>> 32);
+    }
+
+    private static int reserved(long cell) {
+        return (int) cell;
+    }
+
+    private int offset(int slot) {
+        return slot * stride;
+    }
+
+    private int checkSlot(int slot) {
+        if (slot < 0 || slot >= nextSlot.get()) {
+            throw new IndexOutOfBoundsException("Ячейка " + slot + " вне диапазона [0, " + nextSlot.get() + ")");
+        }
+        return slot;
+    }
+}
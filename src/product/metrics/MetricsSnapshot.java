@@ -0,0 +1,65 @@
+package product.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of {@link PricingMetrics}. Counters are read one by one
+ * while calls may still be running, so totals of different maps can differ
+ * by the calls in flight.
+ */
+public final class MetricsSnapshot {
+    private final boolean enabled;
+    private final int sampleInterval;
+    private final Map<Operation, Long> calls;
+    private final Map<Operation, TimerStats> timers;
+    private final Map<String, Long> winners;
+    private final Map<String, Long> notApplicable;
+
+    MetricsSnapshot(boolean enabled, int sampleInterval, EnumMap<Operation, Long> calls,
+                    EnumMap<Operation, TimerStats> timers, Map<String, Long> winners,
+                    Map<String, Long> notApplicable) {
+        this.enabled = enabled;
+        this.sampleInterval = sampleInterval;
+        this.calls = Collections.unmodifiableMap(calls);
+        this.timers = Collections.unmodifiableMap(timers);
+        this.winners = Collections.unmodifiableMap(winners);
+        this.notApplicable = Collections.unmodifiableMap(notApplicable);
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /** One call in this many is timed. */
+    public int getSampleInterval() { return sampleInterval; }
+
+    public long getCalls(Operation operation) { return calls.getOrDefault(operation, 0L); }
+    public Map<Operation, Long> getCalls() { return calls; }
+
+    public TimerStats getTimer(Operation operation) { return timers.get(operation); }
+    public Map<Operation, TimerStats> getTimers() { return timers; }
+
+    /**
+     * How often each policy (by name) produced the best price in
+     * Product.finalPrice(qty, policies); {@link PricingMetrics#BASE_PRICE}
+     * when no applicable policy beat the base price.
+     */
+    public Map<String, Long> getWinners() { return winners; }
+
+    /** Failed applicableTo checks per policy name. */
+    public Map<String, Long> getNotApplicable() { return notApplicable; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PricingMetrics[enabled=").append(enabled)
+                .append(", sample 1/").append(sampleInterval).append("]\n");
+        for (Operation operation : Operation.values()) {
+            long n = getCalls(operation);
+            if (n == 0) continue;
+            sb.append(String.format("  %-16s calls=%d %s%n", operation, n, timers.get(operation)));
+        }
+        if (!winners.isEmpty()) sb.append("  winners: ").append(winners).append('\n');
+        if (!notApplicable.isEmpty()) sb.append("  not applicable: ").append(notApplicable).append('\n');
+        return sb.toString();
+    }
+}
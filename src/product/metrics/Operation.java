@@ -0,0 +1,19 @@
+package product.metrics;
+
+/**
+ * Instrumented pricing/tax/shipping call sites (see {@link PricingMetrics}).
+ */
+public enum Operation {
+    /** Product.finalPrice(qty, policies): best price over a policy list. */
+    FINAL_PRICE,
+    /** Promotion.apply. */
+    PROMOTION_APPLY,
+    /** Tax through TaxResolver.calculateTax and ProfitCalculator. */
+    TAX,
+    /** PhysicalProduct.estimateShippingCost (one ShippingPolicy call). */
+    SHIPPING_COST,
+    /** ShipmentPlanner.plan (packing plus a quote per parcel). */
+    SHIPMENT_PLAN,
+    /** ProfitCalculator.calculate. */
+    PROFIT
+}
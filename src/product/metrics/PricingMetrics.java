@@ -0,0 +1,197 @@
+package product.metrics;
+
+import product.Product;
+import product.pricing.PricePolicy;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters for the pricing, tax and shipping hot paths.
+ *
+ * Off by default. Start the JVM with {@code -Dproduct.metrics.enabled=true}
+ * to turn it on. {@link #ENABLED} is a static final constant, so the JIT
+ * folds every {@code if (PricingMetrics.ENABLED)} guard and removes the
+ * instrumentation completely when it is off (MetricsBenchmark compares the
+ * two against an uninstrumented loop).
+ *
+ * When enabled:
+ * - every call of an {@link Operation} increments a striped counter (LongAdder);
+ * - one call in {@code product.metrics.sampleInterval} (default 64, rounded
+ *   up to a power of two) is timed into a {@link LatencyHistogram}, so
+ *   System.nanoTime is not paid on every call;
+ * - Product.finalPrice(qty, policies) records which policy won;
+ * - failed PricePolicy.applicableTo checks are counted per policy.
+ *
+ * Read the values with {@link #snapshot()} or through JMX after
+ * {@link #registerMBean()}.
+ */
+public final class PricingMetrics {
+    public static final String ENABLED_PROPERTY = "product.metrics.enabled";
+    public static final String SAMPLE_INTERVAL_PROPERTY = "product.metrics.sampleInterval";
+    public static final String OBJECT_NAME = "product:type=PricingMetrics";
+    /** Winner key for "no policy beat the base price". */
+    public static final String BASE_PRICE = "(base price)";
+
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /** Returned by {@link #start} for calls that are counted but not timed. */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    // Distinct policy instances tracked individually; the rest share one slot
+    private static final int MAX_TRACKED_POLICIES = 1024;
+    private static final Object OTHER_POLICIES = new Object();
+
+    private static final int SAMPLE_MASK = sampleMask(Integer.getInteger(SAMPLE_INTERVAL_PROPERTY, 64));
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final LongAdder[] CALLS = new LongAdder[OPERATIONS.length];
+    private static final LatencyHistogram[] TIMERS = new LatencyHistogram[OPERATIONS.length];
+    // Keyed by policy instance: name() may build a new string on every call
+    private static final Map<Object, LongAdder> WINNERS = new ConcurrentHashMap<>();
+    private static final Map<Object, LongAdder> NOT_APPLICABLE = new ConcurrentHashMap<>();
+    private static final Object BASE_KEY = new Object();
+
+    static {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            CALLS[i] = new LongAdder();
+            TIMERS[i] = new LatencyHistogram();
+        }
+    }
+
+    private PricingMetrics() {
+    }
+
+    // --- Recording (call only under if (PricingMetrics.ENABLED)) ---
+
+    /**
+     * Counts a call and decides whether to time it.
+     * @return start timestamp for {@link #stop}, or {@link #NOT_SAMPLED}
+     */
+    public static long start(Operation operation) {
+        CALLS[operation.ordinal()].increment();
+        if ((ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) != 0) return NOT_SAMPLED;
+        return System.nanoTime();
+    }
+
+    public static void stop(Operation operation, long start) {
+        if (start == NOT_SAMPLED) return;
+        TIMERS[operation.ordinal()].record(System.nanoTime() - start);
+    }
+
+    /**
+     * @param winner the policy whose price was lowest, or null; a winner not
+     *               applicable to the product means the base price won
+     */
+    public static void recordWinner(Product product, PricePolicy winner) {
+        Object key = winner == null || !winner.applicableTo(product) ? BASE_KEY : winner;
+        counter(WINNERS, key).increment();
+    }
+
+    public static void recordNotApplicable(PricePolicy policy) {
+        counter(NOT_APPLICABLE, policy).increment();
+    }
+
+    private static LongAdder counter(Map<Object, LongAdder> map, Object key) {
+        LongAdder counter = map.get(key);
+        if (counter != null) return counter;
+        if (map.size() >= MAX_TRACKED_POLICIES) key = OTHER_POLICIES;
+        return map.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    // --- Reading ---
+
+    public static MetricsSnapshot snapshot() {
+        EnumMap<Operation, Long> calls = new EnumMap<>(Operation.class);
+        EnumMap<Operation, TimerStats> timers = new EnumMap<>(Operation.class);
+        for (Operation operation : OPERATIONS) {
+            calls.put(operation, CALLS[operation.ordinal()].sum());
+            timers.put(operation, new TimerStats(TIMERS[operation.ordinal()]));
+        }
+        return new MetricsSnapshot(ENABLED, SAMPLE_MASK + 1, calls, timers, byName(WINNERS), byName(NOT_APPLICABLE));
+    }
+
+    /**
+     * Clears all counters. Calls running concurrently may be partially kept.
+     */
+    public static void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            CALLS[i].reset();
+            TIMERS[i].reset();
+        }
+        WINNERS.clear();
+        NOT_APPLICABLE.clear();
+    }
+
+    /**
+     * Registers the {@link PricingMetricsMXBean} in the platform MBean server
+     * (no-op if already registered).
+     */
+    public static ObjectName registerMBean() throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (!server.isRegistered(name)) {
+            server.registerMBean(new MXBean(), name);
+        }
+        return name;
+    }
+
+    private static Map<String, Long> byName(Map<Object, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<Object, LongAdder> e : counters.entrySet()) {
+            Object key = e.getKey();
+            String name = key == BASE_KEY ? BASE_PRICE
+                    : key == OTHER_POLICIES ? "(other)"
+                    : ((PricePolicy) key).name();
+            result.merge(name, e.getValue().sum(), Long::sum);
+        }
+        return result;
+    }
+
+    private static int sampleMask(int interval) {
+        if (interval <= 1) return 0;
+        return Integer.highestOneBit(interval - 1) * 2 - 1;
+    }
+
+    private static final class MXBean implements PricingMetricsMXBean {
+        @Override public boolean isEnabled() { return ENABLED; }
+        @Override public int getSampleInterval() { return SAMPLE_MASK + 1; }
+
+        @Override
+        public Map<String, Long> getCalls() {
+            Map<String, Long> result = new TreeMap<>();
+            for (Operation operation : OPERATIONS) result.put(operation.name(), CALLS[operation.ordinal()].sum());
+            return result;
+        }
+
+        @Override
+        public Map<String, Double> getMeanMicros() {
+            Map<String, Double> result = new TreeMap<>();
+            for (Operation operation : OPERATIONS) {
+                result.put(operation.name(), TIMERS[operation.ordinal()].getMean() / 1_000.0);
+            }
+            return result;
+        }
+
+        @Override public Map<String, Double> getP99Micros() { return percentileMicros(99); }
+        @Override public Map<String, Double> getP999Micros() { return percentileMicros(99.9); }
+        @Override public Map<String, Long> getWinners() { return byName(WINNERS); }
+        @Override public Map<String, Long> getNotApplicable() { return byName(NOT_APPLICABLE); }
+        @Override public void reset() { PricingMetrics.reset(); }
+
+        private static Map<String, Double> percentileMicros(double percentile) {
+            Map<String, Double> result = new TreeMap<>();
+            for (Operation operation : OPERATIONS) {
+                result.put(operation.name(), TIMERS[operation.ordinal()].valueAtPercentile(percentile) / 1_000.0);
+            }
+            return result;
+        }
+    }
+}
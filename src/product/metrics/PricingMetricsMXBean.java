@@ -0,0 +1,28 @@
+package product.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link PricingMetrics} (registered by
+ * {@link PricingMetrics#registerMBean()} as {@value PricingMetrics#OBJECT_NAME}).
+ * Maps are keyed by operation or policy name.
+ */
+public interface PricingMetricsMXBean {
+    boolean isEnabled();
+
+    int getSampleInterval();
+
+    Map<String, Long> getCalls();
+
+    Map<String, Double> getMeanMicros();
+
+    Map<String, Double> getP99Micros();
+
+    Map<String, Double> getP999Micros();
+
+    Map<String, Long> getWinners();
+
+    Map<String, Long> getNotApplicable();
+
+    void reset();
+}
@@ -0,0 +1,35 @@
+package product.metrics;
+
+/**
+ * Sampled latency of one {@link Operation}, in nanoseconds.
+ */
+public final class TimerStats {
+    private final long samples;
+    private final double mean;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    TimerStats(LatencyHistogram histogram) {
+        this.samples = histogram.getCount();
+        this.mean = histogram.getMean();
+        this.p50 = histogram.valueAtPercentile(50);
+        this.p99 = histogram.valueAtPercentile(99);
+        this.p999 = histogram.valueAtPercentile(99.9);
+        this.max = histogram.getMax();
+    }
+
+    /** Number of timed calls (about calls / sample interval). */
+    public long getSamples() { return samples; }
+    public double getMeanNanos() { return mean; }
+    public long getP50Nanos() { return p50; }
+    public long getP99Nanos() { return p99; }
+    public long getP999Nanos() { return p999; }
+    public long getMaxNanos() { return max; }
+
+    @Override
+    public String toString() {
+        return String.format("samples=%d mean=%.0f p50=%d p99=%d p999=%d max=%d ns", samples, mean, p50, p99, p999, max);
+    }
+}
@@ -0,0 +1,108 @@
+package product.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежная арифметика в целых минимальных единицах (тиын: 1 KZT = 100 тиын).
+ *
+ * Все операции работают с long и округляют по одному правилу —
+ * банковскому (HALF_EVEN), поэтому суммы по миллионам строк сходятся
+ * до тиына. Ставки задаются в миллионных долях (ppm): 12% = 120 000 ppm.
+ * Переполнение не проходит молча: методы бросают ArithmeticException.
+ *
+ * Методы не выделяют память; исключение — редкий случай в
+ * {@link #toMinor(double)}, когда double лежит ровно на половине тиына.
+ */
+public final class Money {
+    public static final long MINOR_PER_MAJOR = 100;
+    public static final long PPM = 1_000_000;
+
+    // |major| * 100 должен помещаться в long с запасом точности double
+    private static final double MAX_MAJOR = 1e15;
+
+    private Money() {
+        // Утилитный класс
+    }
+
+    // --- Преобразования ---
+
+    /**
+     * Переводит сумму в тенге (double) в тиыны с округлением HALF_EVEN
+     * по десятичной записи числа (1.005 -> 1.00, 1.015 -> 1.02).
+     */
+    public static long toMinor(double major) {
+        if (!Double.isFinite(major) || Math.abs(major) >= MAX_MAJOR) {
+            throw new ArithmeticException("Сумма вне допустимого диапазона: " + major);
+        }
+        double scaled = major * MINOR_PER_MAJOR;
+        double fraction = scaled - Math.floor(scaled);
+        double tolerance = Math.max(1e-6, 4 * Math.ulp(scaled));
+        if (Math.abs(fraction - 0.5) > tolerance) {
+            return (long) Math.rint(scaled);
+        }
+        // Ровно половина тиына: решаем по десятичной записи
+        return BigDecimal.valueOf(major).setScale(2, RoundingMode.HALF_EVEN).movePointRight(2).longValueExact();
+    }
+
+    public static double toMajor(long minor) {
+        return minor / (double) MINOR_PER_MAJOR;
+    }
+
+    /**
+     * Ставка в процентах -> ppm (12.5 -> 125 000).
+     */
+    public static long percentToPpm(double percent) {
+        return Math.round(percent * (PPM / 100));
+    }
+
+    /**
+     * Ставка долей -> ppm (0.12 -> 120 000).
+     */
+    public static long fractionToPpm(double fraction) {
+        return Math.round(fraction * PPM);
+    }
+
+    // --- Арифметика ---
+
+    public static long times(long minor, long quantity) {
+        return Math.multiplyExact(minor, quantity);
+    }
+
+    /**
+     * minor * ratePpm / 1 000 000 с округлением HALF_EVEN.
+     * Сумма делится на целую и дробную (по модулю PPM) части, поэтому
+     * промежуточное произведение не переполняется, пока результат
+     * помещается в long.
+     */
+    public static long applyRate(long minor, long ratePpm) {
+        long high = minor / PPM;
+        long low = minor % PPM;
+        long part = low * ratePpm; // |low| < 10^6, |ratePpm| <= ~10^12
+        long base = Math.addExact(Math.multiplyExact(high, ratePpm), part / PPM);
+        return roundHalfEven(base, part % PPM, PPM);
+    }
+
+    /**
+     * numerator / denominator с округлением HALF_EVEN (denominator > 0).
+     */
+    public static long divide(long numerator, long denominator) {
+        if (denominator <= 0) {
+            throw new ArithmeticException("Делитель должен быть положительным: " + denominator);
+        }
+        return roundHalfEven(numerator / denominator, numerator % denominator, denominator);
+    }
+
+    /**
+     * Округляет base + remainder / denominator до целого (|remainder| < denominator).
+     */
+    private static long roundHalfEven(long base, long remainder, long denominator) {
+        if (remainder == 0) return base;
+        long twice = 2 * Math.abs(remainder);
+        long step = remainder > 0 ? 1 : -1;
+        if (twice > denominator || (twice == denominator && (base & 1) != 0)) {
+            return base + step;
+        }
+        return base;
+    }
+}
@@ -1,6 +1,7 @@
 package product.pricing;
 
 import product.Product;
+import product.money.Money;
 
 /**
  * Реализация PricePolicy: "Buy-One-Get-One-Half" (второй за полцены).
@@ -21,4 +22,13 @@ public class BogoHalf implements PricePolicy {
         // Стоимость пар + стоимость оставшегося
         return pairs * (price * 1.5) + singles * price;
     }
+
+    @Override
+    public long applyMinor(Product p, int qty) {
+        long price = p.getPriceMinor();
+        int pairs = Math.max(0, qty) / 2;
+        int singles = Math.max(0, qty) % 2;
+        // Пара = 3/2 цены, округление один раз на строку
+        return Math.addExact(Money.divide(Money.times(price, 3L * pairs), 2), Money.times(price, singles));
+    }
 }
\ No newline at end of file
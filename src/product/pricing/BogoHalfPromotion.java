@@ -1,6 +1,7 @@
 package product.pricing;
 
 import product.Product;
+import product.money.Money;
 
 /**
  * Promotion: "Buy-One-Get-One-Half" (second item at half price).
@@ -21,4 +22,9 @@ public class BogoHalfPromotion extends Promotion {
         // Discount is 50% of the second item price for each pair
         return pairs * (price * 0.5);
     }
+
+    @Override
+    protected long calculateDiscountMinor(Product p, int qty) {
+        return Money.divide(Money.times(p.getPriceMinor(), qty / 2), 2);
+    }
 }
@@ -1,6 +1,7 @@
 package product.pricing;
 
 import product.Product;
+import product.money.Money;
 
 /**
  * Promotion: "Buy 3, Pay for 2" - Every 3rd item is free.
@@ -21,4 +22,9 @@ public class Buy3Pay2Promotion extends Promotion {
         // Discount is the price of the free items
         return p.getPrice() * freeItems;
     }
+
+    @Override
+    protected long calculateDiscountMinor(Product p, int qty) {
+        return Money.times(p.getPriceMinor(), qty / 3);
+    }
 }
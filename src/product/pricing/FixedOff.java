@@ -2,15 +2,18 @@ package product.pricing;
 
 import product.DigitalProduct;
 import product.Product;
+import product.money.Money;
 
 /**
  * Реализация PricePolicy: Фиксированная скидка на единицу товара.
  */
 public class FixedOff implements PricePolicy {
     private final double amount; // >= 0
+    private final long amountMinor;
 
     public FixedOff(double amount) {
         this.amount = Math.max(0, amount);
+        this.amountMinor = Money.toMinor(this.amount);
     }
 
     @Override
@@ -18,6 +21,10 @@ public class FixedOff implements PricePolicy {
         return "Fixed-" + amount;
     }
 
+    double amount() {
+        return amount;
+    }
+
     @Override
     public double apply(Product p, int qty) {
         // Цена за единицу не может быть ниже нуля
@@ -25,6 +32,12 @@ public class FixedOff implements PricePolicy {
         return unitPrice * Math.max(0, qty);
 
     }
+
+    @Override
+    public long applyMinor(Product p, int qty) {
+        long unitPrice = Math.max(0L, p.getPriceMinor() - amountMinor);
+        return Money.times(unitPrice, Math.max(0, qty));
+    }
     
     @Override
     public boolean applicableTo(Product p) {
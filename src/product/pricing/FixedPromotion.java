@@ -1,6 +1,7 @@
 package product.pricing;
 
 import product.Product;
+import product.money.Money;
 
 /**
  * Promotion that applies a fixed discount amount per unit.
@@ -8,9 +9,11 @@ import product.Product;
  */
 public class FixedPromotion extends Promotion {
     private final double amount; // >= 0
+    private final long amountMinor;
 
     public FixedPromotion(double amount) {
         this.amount = Math.max(0, amount);
+        this.amountMinor = Money.toMinor(this.amount);
     }
 
     @Override
@@ -18,6 +21,10 @@ public class FixedPromotion extends Promotion {
         return "Fixed-" + amount;
     }
 
+    double amount() {
+        return amount;
+    }
+
     @Override
     protected double calculateDiscount(Product p, int qty) {
         // Fixed discount per unit, but total discount cannot exceed base price
@@ -25,4 +32,9 @@ public class FixedPromotion extends Promotion {
         double totalDiscount = amount * qty;
         return Math.min(totalDiscount, maxDiscount);
     }
+
+    @Override
+    protected long calculateDiscountMinor(Product p, int qty) {
+        return Math.min(Money.times(amountMinor, qty), Money.times(p.getPriceMinor(), qty));
+    }
 }
@@ -1,16 +1,19 @@
 package product.pricing;
 
 import product.Product;
+import product.money.Money;
 
 /**
  * Реализация PricePolicy: Скидка в процентах.
  */
 public class PercentageOff implements PricePolicy {
     private final double percent; // 0..90
+    private final long keptPpm;   // доля цены, которая остается, в ppm
 
     public PercentageOff(double percent) {
         // Гарантируем, что процент находится в допустимом диапазоне
         this.percent = Math.max(0, Math.min(90, percent));
+        this.keptPpm = Money.PPM - Money.percentToPpm(this.percent);
     }
 
     @Override
@@ -18,9 +21,18 @@ public class PercentageOff implements PricePolicy {
         return "Percent-" + percent + "%";
     }
 
+    double percent() {
+        return percent;
+    }
+
     @Override
     public double apply(Product p, int qty) {
         double unitPrice = p.getPrice() * (1 - percent / 100.0);
         return unitPrice * Math.max(0, qty);
     }
+
+    @Override
+    public long applyMinor(Product p, int qty) {
+        return Money.applyRate(Money.times(p.getPriceMinor(), Math.max(0, qty)), keptPpm);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package product.pricing;
 
 import product.Product;
+import product.money.Money;
 
 /**
  * Promotion that applies a percentage discount.
@@ -9,10 +10,12 @@ import product.Product;
 public class PercentagePromotion extends Promotion {
     private static final double MAX_DISCOUNT_PERCENT = 90.0;
     private final double percent; // 0..90
+    private final long percentPpm;
 
     public PercentagePromotion(double percent) {
         // Guarantee percent is within valid range
         this.percent = Math.max(0, Math.min(MAX_DISCOUNT_PERCENT, percent));
+        this.percentPpm = Money.percentToPpm(this.percent);
     }
 
     @Override
@@ -20,9 +23,18 @@ public class PercentagePromotion extends Promotion {
         return "Percent-" + percent + "%";
     }
 
+    double percent() {
+        return percent;
+    }
+
     @Override
     protected double calculateDiscount(Product p, int qty) {
         double basePrice = p.getPrice() * qty;
         return basePrice * (percent / 100.0);
     }
+
+    @Override
+    protected long calculateDiscountMinor(Product p, int qty) {
+        return Money.applyRate(Money.times(p.getPriceMinor(), qty), percentPpm);
+    }
 }
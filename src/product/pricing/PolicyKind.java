@@ -0,0 +1,37 @@
+package product.pricing;
+
+/**
+ * Classifies the built-in policies whose formulas are known to the batch
+ * engines. Only exact classes are recognized: a subclass may override
+ * applicableTo() or the discount hook, so it falls back to GENERIC.
+ */
+enum PolicyKind {
+    PERCENTAGE_OFF,
+    FIXED_OFF,
+    BOGO_HALF,
+    PERCENTAGE_PROMOTION,
+    FIXED_PROMOTION,
+    BOGO_HALF_PROMOTION,
+    BUY3_PAY2_PROMOTION,
+    GENERIC;
+
+    static PolicyKind of(PricePolicy policy) {
+        Class<?> type = policy.getClass();
+        if (type == PercentageOff.class) return PERCENTAGE_OFF;
+        if (type == FixedOff.class) return FIXED_OFF;
+        if (type == BogoHalf.class) return BOGO_HALF;
+        if (type == PercentagePromotion.class) return PERCENTAGE_PROMOTION;
+        if (type == FixedPromotion.class) return FIXED_PROMOTION;
+        if (type == BogoHalfPromotion.class) return BOGO_HALF_PROMOTION;
+        if (type == Buy3Pay2Promotion.class) return BUY3_PAY2_PROMOTION;
+        return GENERIC;
+    }
+
+    /**
+     * True if applicableTo() depends only on the product type
+     * (all built-ins: either always true or an instanceof check).
+     */
+    boolean applicabilityByTypeOnly() {
+        return this != GENERIC;
+    }
+}
@@ -0,0 +1,233 @@
+package product.pricing;
+
+import product.Product;
+import product.metrics.Operation;
+import product.metrics.PricingMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A list of price policies compiled once into a reusable evaluator.
+ *
+ * Compilation splits the policies into two groups:
+ * - built-in policies, whose applicability depends only on the product
+ *   class and whose price depends only on (unit price, qty);
+ * - everything else ("generic"), which is evaluated on every call.
+ *
+ * For each product class the applicable built-ins are resolved once. The
+ * best built-in result depends only on (product class, unit price, qty), so
+ * for small quantities it is memoized per class in a fixed-size
+ * open-addressed table keyed by (unit price, qty). Products of one class
+ * with different prices get separate entries. A price change (trySetPrice,
+ * applyDiscount) just looks up another key, so no change listener is
+ * needed. When the probe window is full, the home slot is overwritten,
+ * which keeps the table bounded (CACHE_SLOTS entries per class).
+ *
+ * {@link #finalPrice(Product, int)} returns the same value as
+ * {@code p.finalPrice(qty, policies)} and, when metrics are enabled, records
+ * the same FINAL_PRICE timing, winner and not-applicable counts (memo hits
+ * included). The evaluator is thread-safe.
+ */
+public final class PolicySet {
+    static final int MAX_CACHED_QTY = 64;
+    static final int CACHE_SLOTS = 4096;  // per product class, power of two
+    private static final int PROBE_LIMIT = 4;
+
+    private final PricePolicy[] policies;
+    private final boolean[] generic;
+    private final boolean hasGeneric;
+    private final Map<Class<?>, ClassPlan> plans = new ConcurrentHashMap<>();
+
+    private PolicySet(List<PricePolicy> source) {
+        List<PricePolicy> list = source == null ? List.of() : new ArrayList<>(source);
+        this.policies = list.toArray(new PricePolicy[0]);
+        this.generic = new boolean[policies.length];
+        boolean anyGeneric = false;
+        for (int i = 0; i < policies.length; i++) {
+            generic[i] = policies[i] != null && !PolicyKind.of(policies[i]).applicabilityByTypeOnly();
+            anyGeneric |= generic[i];
+        }
+        this.hasGeneric = anyGeneric;
+    }
+
+    public static PolicySet compile(List<PricePolicy> policies) {
+        return new PolicySet(policies);
+    }
+
+    public int size() {
+        return policies.length;
+    }
+
+    /**
+     * Best total price for 'qty' units, identical to Product.finalPrice(qty, policies).
+     */
+    public double finalPrice(Product p, int qty) {
+        if (!PricingMetrics.ENABLED) return bestFinalPrice(p, qty);
+        long start = PricingMetrics.start(Operation.FINAL_PRICE);
+        double price = bestFinalPrice(p, qty);
+        PricingMetrics.stop(Operation.FINAL_PRICE, start);
+        return price;
+    }
+
+    private double bestFinalPrice(Product p, int qty) {
+        if (qty <= 0) return 0.0;
+        if (policies.length == 0) return p.finalPrice(qty);
+        ClassPlan plan = plan(p);
+        Winner winner = builtInWinner(plan, p, qty);
+        double best = winner.value;
+        int bestIndex = winner.index;
+        if (hasGeneric) {
+            for (int i = 0; i < policies.length; i++) {
+                if (!generic[i]) continue;
+                double price = p.finalPrice(qty, policies[i]); // counts its own not-applicable calls
+                if (price < best) {
+                    best = price;
+                    bestIndex = i;
+                }
+            }
+        }
+        if (PricingMetrics.ENABLED) {
+            for (int i : plan.notApplicable) PricingMetrics.recordNotApplicable(policies[i]);
+            PricingMetrics.recordWinner(p, bestIndex < 0 ? null : policies[bestIndex]);
+        }
+        return best;
+    }
+
+    /**
+     * The policy that produces {@link #finalPrice(Product, int)}, or null if
+     * no policy beats the base price (or qty <= 0).
+     */
+    public PricePolicy bestPolicy(Product p, int qty) {
+        if (qty <= 0 || policies.length == 0) return null;
+        Winner winner = builtInWinner(plan(p), p, qty);
+        double best = winner.value;
+        int bestIndex = winner.index;
+        if (hasGeneric) {
+            for (int i = 0; i < policies.length; i++) {
+                if (!generic[i]) continue;
+                PricePolicy policy = policies[i];
+                if (!policy.applicableTo(p)) {
+                    double base = p.finalPrice(qty);
+                    if (base < best) {
+                        best = base;
+                        bestIndex = Winner.BASE_PRICE;
+                    }
+                    continue;
+                }
+                double price = policy.apply(p, qty);
+                if (price < best) {
+                    best = price;
+                    bestIndex = i;
+                }
+            }
+        }
+        return bestIndex < 0 ? null : policies[bestIndex];
+    }
+
+    // --- Built-in part: resolved per class, memoized per (class, price, qty) ---
+
+    private ClassPlan plan(Product p) {
+        ClassPlan plan = plans.get(p.getClass());
+        if (plan == null) {
+            plan = plans.computeIfAbsent(p.getClass(), type -> new ClassPlan(this, p));
+        }
+        return plan;
+    }
+
+    private Winner builtInWinner(ClassPlan plan, Product p, int qty) {
+        double price = p.getPrice();
+        if (qty > MAX_CACHED_QTY) return plan.evaluate(p, qty, price);
+
+        long priceBits = Double.doubleToRawLongBits(price);
+        Winner[] cache = plan.cache;
+        int home = slot(priceBits, qty);
+        int free = -1;
+        for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+            int at = (home + probe) & (CACHE_SLOTS - 1);
+            Winner cached = cache[at];
+            if (cached == null) {
+                if (free < 0) free = at;
+            } else if (cached.priceBits == priceBits && cached.qty == qty) {
+                return cached;
+            }
+        }
+        Winner computed = plan.evaluate(p, qty, price);
+        cache[free >= 0 ? free : home] = computed; // immutable entry: safe to publish via a race
+        return computed;
+    }
+
+    private static int slot(long priceBits, int qty) {
+        int h = Long.hashCode(priceBits * 0x9E3779B97F4A7C15L) + qty * 0x61C88647;
+        return (h ^ (h >>> 16)) & (CACHE_SLOTS - 1);
+    }
+
+    /**
+     * Applicability of the built-in policies for one product class.
+     */
+    private static final class ClassPlan {
+        private final PricePolicy[] policies;
+        private final int[] applicable;     // indexes of applicable built-ins
+        private final int[] notApplicable;  // indexes of non-null built-ins that do not apply (metrics only)
+        private final boolean baseCandidate; // some built-in (or null) is not applicable
+        private final Winner[] cache = new Winner[CACHE_SLOTS];
+
+        ClassPlan(PolicySet set, Product sample) {
+            this.policies = set.policies;
+            int[] indexes = new int[policies.length];
+            int[] skipped = new int[policies.length];
+            int n = 0;
+            int m = 0;
+            boolean base = false;
+            for (int i = 0; i < policies.length; i++) {
+                if (set.generic[i]) continue;
+                if (policies[i] != null && policies[i].applicableTo(sample)) {
+                    indexes[n++] = i;
+                } else {
+                    if (policies[i] != null) skipped[m++] = i;
+                    base = true;
+                }
+            }
+            this.applicable = Arrays.copyOf(indexes, n);
+            this.notApplicable = Arrays.copyOf(skipped, m);
+            this.baseCandidate = base;
+        }
+
+        Winner evaluate(Product p, int qty, double price) {
+            double best = Double.POSITIVE_INFINITY;
+            int bestIndex = Winner.NONE;
+            if (baseCandidate) {
+                best = p.finalPrice(qty);
+                bestIndex = Winner.BASE_PRICE;
+            }
+            for (int i : applicable) {
+                double total = policies[i].apply(p, qty);
+                if (total < best) {
+                    best = total;
+                    bestIndex = i;
+                }
+            }
+            return new Winner(Double.doubleToRawLongBits(price), qty, best, bestIndex);
+        }
+    }
+
+    private static final class Winner {
+        static final int BASE_PRICE = -1;
+        static final int NONE = -2;
+
+        final long priceBits;
+        final int qty;
+        final double value;
+        final int index;
+
+        Winner(long priceBits, int qty, double value, int index) {
+            this.priceBits = priceBits;
+            this.qty = qty;
+            this.value = value;
+            this.index = index;
+        }
+    }
+}
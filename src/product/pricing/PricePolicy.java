@@ -1,6 +1,7 @@
 package product.pricing;
 
 import product.Product;
+import product.money.Money;
 
 /**
  * Интерфейс (контракт) для любого правила ценообразования.
@@ -17,6 +18,15 @@ public interface PricePolicy {
      */
     double apply(Product p, int qty);
 
+    /**
+     * То же, что apply, но в тиынах (long) с округлением HALF_EVEN.
+     * По умолчанию округляет результат apply один раз; встроенные правила
+     * переопределяют метод и считают без double.
+     */
+    default long applyMinor(Product p, int qty) {
+        return Money.toMinor(apply(p, qty));
+    }
+
     /**
      * По умолчанию, правило применимо ко всем товарам.
      */
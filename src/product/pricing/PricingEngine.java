@@ -0,0 +1,238 @@
+package product.pricing;
+
+import product.DigitalProduct;
+import product.Product;
+
+import java.util.Arrays;
+
+/**
+ * Batch pricing: evaluates N products against M policies in one pass.
+ *
+ * The result for row i is bit-identical to
+ * {@code product.finalPrice(qtys[i], List.of(policies))}: the same formulas
+ * are evaluated in the same order and the minimum is taken with the same
+ * strict comparison. Built-in policies run as tight primitive loops
+ * (policy-outer, product-inner), so there is one type check per policy
+ * instead of a virtual call per (product, policy) pair. Unknown policies
+ * fall back to applicableTo()/apply().
+ */
+public final class PricingEngine {
+
+    private PricingEngine() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Best price for each row, where every row is treated as a plain
+     * Product with the given unit price (so FixedOff never applies).
+     *
+     * @param prices unit prices
+     * @param qtys quantities (same length as prices)
+     * @param policies candidate policies; null or empty means base price
+     * @param out receives the best total price per row
+     */
+    public static void bestPrices(double[] prices, int[] qtys, PricePolicy[] policies, double[] out) {
+        checkLengths(prices.length, qtys.length, out.length);
+        bestPrices(prices, qtys, null, policies, out, null);
+    }
+
+    /**
+     * Best price for each product, with the same applicability rules as
+     * {@link Product#finalPrice(int, java.util.List)}.
+     */
+    public static void bestPrices(Product[] products, int[] qtys, PricePolicy[] policies, double[] out) {
+        checkLengths(products.length, qtys.length, out.length);
+        int n = products.length;
+        double[] prices = new double[n];
+        boolean[] digital = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            prices[i] = products[i].getPrice();
+            digital[i] = products[i] instanceof DigitalProduct;
+        }
+        bestPrices(prices, qtys, digital, policies, out, new ProductRows(products));
+    }
+
+    private static void bestPrices(double[] prices, int[] qtys, boolean[] digital,
+                                   PricePolicy[] policies, double[] out, RowProducts rows) {
+        int n = prices.length;
+        if (policies == null || policies.length == 0) {
+            for (int i = 0; i < n; i++) {
+                out[i] = qtys[i] <= 0 ? 0.0 : prices[i] * qtys[i];
+            }
+            return;
+        }
+
+        Arrays.fill(out, 0, n, Double.POSITIVE_INFINITY);
+        for (PricePolicy policy : policies) {
+            if (policy == null) {
+                basePrices(prices, qtys, out);
+                continue;
+            }
+            switch (PolicyKind.of(policy)) {
+                case PERCENTAGE_OFF:
+                    percentageOff(prices, qtys, ((PercentageOff) policy).percent(), out);
+                    break;
+                case FIXED_OFF:
+                    if (digital == null) {
+                        basePrices(prices, qtys, out);
+                    } else {
+                        fixedOff(prices, qtys, digital, ((FixedOff) policy).amount(), out);
+                    }
+                    break;
+                case BOGO_HALF:
+                    bogoHalf(prices, qtys, out);
+                    break;
+                case PERCENTAGE_PROMOTION:
+                    percentagePromotion(prices, qtys, ((PercentagePromotion) policy).percent(), out);
+                    break;
+                case FIXED_PROMOTION:
+                    fixedPromotion(prices, qtys, ((FixedPromotion) policy).amount(), out);
+                    break;
+                case BOGO_HALF_PROMOTION:
+                    bogoHalfPromotion(prices, qtys, out);
+                    break;
+                case BUY3_PAY2_PROMOTION:
+                    buy3Pay2Promotion(prices, qtys, out);
+                    break;
+                default:
+                    generic(prices, qtys, policy, rows, out);
+            }
+        }
+
+        // finalPrice() returns 0 for non-positive quantities before looking at policies
+        for (int i = 0; i < n; i++) {
+            if (qtys[i] <= 0) out[i] = 0.0;
+        }
+    }
+
+    // --- Primitive kernels: each mirrors the corresponding apply() exactly ---
+
+    private static void basePrices(double[] prices, int[] qtys, double[] out) {
+        for (int i = 0; i < prices.length; i++) {
+            double v = prices[i] * qtys[i];
+            if (v < out[i]) out[i] = v;
+        }
+    }
+
+    private static void percentageOff(double[] prices, int[] qtys, double percent, double[] out) {
+        double factor = 1 - percent / 100.0;
+        for (int i = 0; i < prices.length; i++) {
+            double v = (prices[i] * factor) * Math.max(0, qtys[i]);
+            if (v < out[i]) out[i] = v;
+        }
+    }
+
+    private static void fixedOff(double[] prices, int[] qtys, boolean[] digital, double amount, double[] out) {
+        for (int i = 0; i < prices.length; i++) {
+            double v = digital[i]
+                    ? Math.max(0.0, prices[i] - amount) * Math.max(0, qtys[i])
+                    : prices[i] * qtys[i];
+            if (v < out[i]) out[i] = v;
+        }
+    }
+
+    private static void bogoHalf(double[] prices, int[] qtys, double[] out) {
+        for (int i = 0; i < prices.length; i++) {
+            double price = prices[i];
+            int q = Math.max(0, qtys[i]);
+            double v = (q / 2) * (price * 1.5) + (q % 2) * price;
+            if (v < out[i]) out[i] = v;
+        }
+    }
+
+    private static void percentagePromotion(double[] prices, int[] qtys, double percent, double[] out) {
+        double rate = percent / 100.0;
+        for (int i = 0; i < prices.length; i++) {
+            double base = prices[i] * qtys[i];
+            double v = Math.max(0.0, base - base * rate);
+            if (v < out[i]) out[i] = v;
+        }
+    }
+
+    private static void fixedPromotion(double[] prices, int[] qtys, double amount, double[] out) {
+        for (int i = 0; i < prices.length; i++) {
+            double base = prices[i] * qtys[i];
+            double discount = Math.min(amount * qtys[i], base);
+            double v = Math.max(0.0, base - discount);
+            if (v < out[i]) out[i] = v;
+        }
+    }
+
+    private static void bogoHalfPromotion(double[] prices, int[] qtys, double[] out) {
+        for (int i = 0; i < prices.length; i++) {
+            double base = prices[i] * qtys[i];
+            double discount = (qtys[i] / 2) * (prices[i] * 0.5);
+            double v = Math.max(0.0, base - discount);
+            if (v < out[i]) out[i] = v;
+        }
+    }
+
+    private static void buy3Pay2Promotion(double[] prices, int[] qtys, double[] out) {
+        for (int i = 0; i < prices.length; i++) {
+            double base = prices[i] * qtys[i];
+            double discount = prices[i] * (qtys[i] / 3);
+            double v = Math.max(0.0, base - discount);
+            if (v < out[i]) out[i] = v;
+        }
+    }
+
+    private static void generic(double[] prices, int[] qtys, PricePolicy policy, RowProducts rows, double[] out) {
+        if (rows == null) rows = new PriceOnlyProduct();
+        for (int i = 0; i < prices.length; i++) {
+            if (qtys[i] <= 0) continue;
+            Product p = rows.at(i, prices[i]);
+            double v = policy.applicableTo(p) ? policy.apply(p, qtys[i]) : prices[i] * qtys[i];
+            if (v < out[i]) out[i] = v;
+        }
+    }
+
+    private static void checkLengths(int rows, int qtys, int out) {
+        if (qtys != rows || out < rows) {
+            throw new IllegalArgumentException("Array lengths do not match: rows=" + rows
+                    + ", qtys=" + qtys + ", out=" + out);
+        }
+    }
+
+    // --- Fallback views for policies without a primitive kernel ---
+
+    private interface RowProducts {
+        Product at(int row, double price);
+    }
+
+    private static final class ProductRows implements RowProducts {
+        private final Product[] products;
+
+        ProductRows(Product[] products) {
+            this.products = products;
+        }
+
+        @Override
+        public Product at(int row, double price) {
+            return products[row];
+        }
+    }
+
+    /**
+     * Reusable plain Product whose price is the current row's price.
+     * Created only when a batch contains an unknown policy; uses the view
+     * constructor, so it is not counted by Product.getCreatedCount().
+     */
+    private static final class PriceOnlyProduct extends Product implements RowProducts {
+        private double rowPrice;
+
+        PriceOnlyProduct() {
+            super("BATCH-ROW", "Batch row");
+        }
+
+        @Override
+        public Product at(int row, double price) {
+            this.rowPrice = price;
+            return this;
+        }
+
+        @Override
+        public double getPrice() {
+            return rowPrice;
+        }
+    }
+}
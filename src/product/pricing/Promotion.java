@@ -1,6 +1,9 @@
 package product.pricing;
 
 import product.Product;
+import product.metrics.Operation;
+import product.metrics.PricingMetrics;
+import product.money.Money;
 
 /**
  * Abstract class representing a promotion that implements PricePolicy.
@@ -15,12 +18,31 @@ public abstract class Promotion implements PricePolicy {
      */
     @Override
     public final double apply(Product p, int qty) {
+        if (!PricingMetrics.ENABLED) return applyDiscount(p, qty);
+        long start = PricingMetrics.start(Operation.PROMOTION_APPLY);
+        double price = applyDiscount(p, qty);
+        PricingMetrics.stop(Operation.PROMOTION_APPLY, start);
+        return price;
+    }
+
+    private double applyDiscount(Product p, int qty) {
         if (qty <= 0) return 0.0;
         double basePrice = p.getPrice() * qty;
         double discount = calculateDiscount(p, qty);
         return Math.max(0.0, basePrice - discount);
     }
 
+    /**
+     * Template method in minor units (see Money): same rules as apply().
+     */
+    @Override
+    public final long applyMinor(Product p, int qty) {
+        if (qty <= 0) return 0L;
+        long basePrice = Money.times(p.getPriceMinor(), qty);
+        long discount = calculateDiscountMinor(p, qty);
+        return Math.max(0L, basePrice - discount);
+    }
+
     /**
      * Hook method: subclasses define how the discount is calculated.
      * @param p The product
@@ -28,4 +50,12 @@ public abstract class Promotion implements PricePolicy {
      * @return The discount amount to subtract from the base price
      */
     protected abstract double calculateDiscount(Product p, int qty);
+
+    /**
+     * Hook method in minor units. The default rounds calculateDiscount once
+     * (HALF_EVEN); the built-in promotions override it with exact arithmetic.
+     */
+    protected long calculateDiscountMinor(Product p, int qty) {
+        return Money.toMinor(calculateDiscount(p, qty));
+    }
 }
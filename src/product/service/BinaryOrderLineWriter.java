@@ -0,0 +1,51 @@
+package product.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Пишет строки заказов в двоичном формате {@link OrderLineFormat#BINARY}.
+ */
+public class BinaryOrderLineWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    public BinaryOrderLineWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    public void write(LocalDate date, String productId, int quantity) throws IOException {
+        byte[] id = productId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("ID товара слишком длинный: " + id.length + " байт");
+        }
+        if (buffer.remaining() < 10 + id.length) flush();
+        buffer.putInt((int) date.toEpochDay());
+        buffer.putInt(quantity);
+        buffer.putShort((short) id.length);
+        buffer.put(id);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
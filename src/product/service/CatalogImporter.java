@@ -0,0 +1,243 @@
+package product.service;
+
+import category.Category;
+import product.catalog.ColumnarCatalog;
+import product.catalog.ProductKind;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Массовый импорт товаров из CSV/JSON lines (см. ImportFormat) прямо в ColumnarCatalog.
+ *
+ * Файл делится на куски по chunkSize байт. Рабочие потоки читают свои куски
+ * позиционным FileChannel.read, разбирают и проверяют строки (ImportChunk);
+ * строка принадлежит куску, в котором начинается. Готовые куски сливаются
+ * в каталог по порядку в вызывающем потоке: там разрешаются категории и
+ * отсекаются повторы ID, поэтому номера строк каталога и отчет об ошибках
+ * идут в порядке файла при любом числе потоков. Вперед разбирается не больше
+ * 2 * threads кусков, так что память ограничена размером окна, а не файла.
+ *
+ * Объекты Product не создаются: строки пишутся через ColumnarCatalog.add /
+ * addPhysical / addDigital с теми же правилами валидации, что у конструкторов,
+ * включая скидку за малый размер файла у цифровых товаров.
+ *
+ * Каталог на время импорта должен принадлежать вызывающему потоку.
+ */
+public class CatalogImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    /** Максимальная длина строки; более длинные отклоняются как MALFORMED. */
+    static final int MAX_LINE = 64 << 10;
+
+    private static final AtomicInteger POOL_SEQ = new AtomicInteger();
+
+    private final int threads;
+    private final int chunkSize;
+
+    public CatalogImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public CatalogImporter(int threads) {
+        this(threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param threads   число потоков разбора (1 — все в вызывающем потоке)
+     * @param chunkSize размер куска файла в байтах
+     */
+    public CatalogImporter(int threads, int chunkSize) {
+        if (threads < 1) throw new IllegalArgumentException("threads должно быть >= 1: " + threads);
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize должно быть >= 1: " + chunkSize);
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Импорт без категорий: строки с непустым categoryId отклоняются как UNKNOWN_CATEGORY.
+     */
+    public ImportReport importFile(Path file, ImportFormat format, ColumnarCatalog target) throws IOException {
+        return importFile(file, format, target, id -> null);
+    }
+
+    /**
+     * @param categories категория по ID (null — нет такой); вызывается один раз на ID
+     */
+    public ImportReport importFile(Path file, ImportFormat format, ColumnarCatalog target,
+                                   IntFunction<Category> categories) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            int chunks = (int) Math.max(1, (fileSize + chunkSize - 1) / chunkSize);
+            Merge merge = new Merge(target, categories);
+            if (threads == 1 || chunks == 1) {
+                for (int i = 0; i < chunks; i++) {
+                    merge.accept(parseChunk(channel, fileSize, i, format));
+                }
+            } else {
+                parseInParallel(channel, fileSize, chunks, format, merge);
+            }
+            return new ImportReport(merge.rows, merge.imported,
+                    Collections.unmodifiableList(merge.rejections), System.nanoTime() - start);
+        }
+    }
+
+    private void parseInParallel(FileChannel channel, long fileSize, int chunks, ImportFormat format,
+                                 Merge merge) throws IOException {
+        int poolId = POOL_SEQ.incrementAndGet();
+        AtomicInteger threadSeq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, chunks), task -> {
+            Thread thread = new Thread(task, "catalog-import-" + poolId + "-" + threadSeq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            ArrayDeque<Future<ImportChunk>> window = new ArrayDeque<>();
+            int windowSize = 2 * threads;
+            int next = 0;
+            while (next < chunks || !window.isEmpty()) {
+                while (next < chunks && window.size() < windowSize) {
+                    int index = next++;
+                    window.add(pool.submit(() -> parseChunk(channel, fileSize, index, format)));
+                }
+                merge.accept(await(window.poll()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static ImportChunk await(Future<ImportChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Импорт прерван");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Читает кусок [index * chunkSize, (index + 1) * chunkSize) с запасом MAX_LINE
+     * на последнюю строку и байтом перед началом, чтобы найти первую строку куска.
+     */
+    private ImportChunk parseChunk(FileChannel channel, long fileSize, int index, ImportFormat format)
+            throws IOException {
+        long start = (long) index * chunkSize;
+        long end = Math.min(fileSize, start + chunkSize);
+        long readFrom = index == 0 ? 0 : start - 1;
+        long readTo = Math.min(fileSize, end + MAX_LINE);
+        ByteBuffer buffer = ByteBuffer.allocate((int) (readTo - readFrom));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, readFrom + buffer.position()) < 0) break;
+        }
+        byte[] bytes = buffer.array();
+        int limit = buffer.position();
+        ImportChunk chunk = new ImportChunk();
+
+        int from = 0;
+        if (index > 0) {
+            // Строка, начавшаяся в предыдущем куске, принадлежит ему
+            int newline = ImportChunk.indexOf(bytes, 0, limit, (byte) '\n');
+            if (newline < 0) return chunk;
+            from = newline + 1;
+        }
+        return chunk.parse(bytes, from, (int) (end - readFrom), limit, readFrom + limit == fileSize,
+                format, index == 0);
+    }
+
+    /**
+     * Последовательное слияние кусков в каталог (вызывающий поток).
+     */
+    private static final class Merge {
+        private final ColumnarCatalog target;
+        private final IntFunction<Category> categories;
+        private final Map<Integer, Category> categoryById = new HashMap<>();
+        private final List<ImportRejection> rejections = new ArrayList<>();
+        private long lineBase;
+        private long rows;
+        private long imported;
+
+        Merge(ColumnarCatalog target, IntFunction<Category> categories) {
+            this.target = target;
+            this.categories = categories;
+        }
+
+        void accept(ImportChunk chunk) {
+            target.ensureCapacity(target.size() + chunk.count);
+            int rejected = 0; // ошибки разбора сливаются с ошибками слияния по номеру строки
+            for (int i = 0; i < chunk.count; i++) {
+                while (rejected < chunk.rejectedCount && chunk.rejectedLines[rejected] < chunk.lineOf[i]) {
+                    addParseRejection(chunk, rejected++);
+                }
+                ImportError error = add(chunk, i);
+                if (error != null) {
+                    rejections.add(new ImportRejection(lineBase + chunk.lineOf[i], chunk.ids[i], error));
+                } else {
+                    imported++;
+                }
+            }
+            while (rejected < chunk.rejectedCount) addParseRejection(chunk, rejected++);
+            rows += chunk.rows;
+            lineBase += chunk.lines;
+        }
+
+        private void addParseRejection(ImportChunk chunk, int r) {
+            rejections.add(new ImportRejection(lineBase + chunk.rejectedLines[r], chunk.rejectedIds[r],
+                    chunk.rejectedErrors[r]));
+        }
+
+        private ImportError add(ImportChunk chunk, int i) {
+            Category category = null;
+            int categoryId = chunk.categoryIds[i];
+            if (categoryId != ImportChunk.NO_CATEGORY_ID) {
+                category = categoryById.get(categoryId);
+                if (category == null) {
+                    category = categories.apply(categoryId);
+                    if (category == null) return ImportError.UNKNOWN_CATEGORY;
+                    categoryById.put(categoryId, category);
+                }
+            }
+            String id = chunk.ids[i];
+            int row;
+            switch (ProductKind.ofOrdinal(chunk.kinds[i])) {
+                case PHYSICAL:
+                    row = target.addPhysical(id, chunk.names[i], chunk.prices[i], chunk.quantities[i],
+                            chunk.costPrices[i], category, chunk.weights[i], chunk.lengths[i],
+                            chunk.widths[i], chunk.heights[i]);
+                    break;
+                case DIGITAL:
+                    row = target.addDigital(id, chunk.names[i], chunk.prices[i], chunk.quantities[i],
+                            chunk.costPrices[i], category, chunk.downloadSizes[i], chunk.licenses[i]);
+                    break;
+                default:
+                    row = target.add(ProductKind.GENERIC, id, chunk.names[i], chunk.prices[i],
+                            chunk.quantities[i], chunk.costPrices[i], category);
+            }
+            if (row >= 0) return null;
+            // Значения уже проверены в ImportChunk; остается повтор ID
+            return target.rowOf(id) >= 0 ? ImportError.DUPLICATE_ID : ImportError.MALFORMED;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package product.service;
+
+import product.Product;
+import product.money.Money;
+import product.pricing.PricePolicy;
+import product.tax.TaxPolicy;
+
+/**
+ * Накопитель экономики продаж в тиынах (long). Считает то же, что
+ * ProfitCalculator.calculateExact, и в отличие от ProfitAccumulator
+ * не накапливает ошибку округления double: итог по миллионам строк
+ * равен сумме округленных строк.
+ *
+ * Не выделяет память на строку. Не потокобезопасен: один накопитель
+ * на поток и объединение через {@link #merge(ExactProfitAccumulator)}.
+ */
+public class ExactProfitAccumulator {
+    private long revenueMinor;
+    private long taxMinor;
+    private long costMinor;
+    private long lines;
+    private long units;
+
+    /**
+     * Добавляет одну продажу.
+     */
+    public void add(Product product, int quantity, PricePolicy promotion, TaxPolicy taxPolicy) {
+        if (quantity <= 0) return;
+        long lineRevenue = product.finalPriceMinor(quantity, promotion);
+        addLineMinor(lineRevenue, taxPolicy.calculateTaxMinor(lineRevenue),
+                Money.times(product.getCostPriceMinor(), quantity), quantity);
+    }
+
+    /**
+     * Добавляет уже рассчитанную строку в тиынах.
+     */
+    public void addLineMinor(long lineRevenue, long lineTax, long lineCost, int quantity) {
+        revenueMinor = Math.addExact(revenueMinor, lineRevenue);
+        taxMinor = Math.addExact(taxMinor, lineTax);
+        costMinor = Math.addExact(costMinor, lineCost);
+        lines++;
+        units += quantity;
+    }
+
+    public ExactProfitAccumulator merge(ExactProfitAccumulator other) {
+        revenueMinor = Math.addExact(revenueMinor, other.revenueMinor);
+        taxMinor = Math.addExact(taxMinor, other.taxMinor);
+        costMinor = Math.addExact(costMinor, other.costMinor);
+        lines += other.lines;
+        units += other.units;
+        return this;
+    }
+
+    public void reset() {
+        revenueMinor = 0;
+        taxMinor = 0;
+        costMinor = 0;
+        lines = 0;
+        units = 0;
+    }
+
+    /**
+     * Отчет в тенге (перевод из тиынов выполняется один раз).
+     */
+    public FinancialReport snapshot() {
+        return new FinancialReport(Money.toMajor(revenueMinor), Money.toMajor(taxMinor), Money.toMajor(costMinor));
+    }
+
+    public long getRevenueMinor() { return revenueMinor; }
+    public long getTaxMinor() { return taxMinor; }
+    public long getCostMinor() { return costMinor; }
+    public long getNetProfitMinor() { return revenueMinor - costMinor; }
+    public long getLineCount() { return lines; }
+    public long getUnitCount() { return units; }
+}
@@ -26,6 +26,12 @@ public class FinancialReport {
         this.netProfit = netRevenue - costOfGoods;
     }
 
+    public double getRevenue() { return revenue; }
+    public double getTaxAmount() { return taxAmount; }
+    public double getNetRevenue() { return netRevenue; }
+    public double getCostOfGoods() { return costOfGoods; }
+    public double getNetProfit() { return netProfit; }
+
     public void printReport(String productName) {
         System.out.println("\n===== ФИНАНСОВЫЙ ОТЧЕТ: " + productName + " =====");
         System.out.printf("1. Выручка магазина:          %10.2f KZT\n", revenue);
@@ -0,0 +1,539 @@
+package product.service;
+
+import product.DigitalProduct;
+import product.PhysicalProduct;
+import product.Product;
+import product.catalog.ProductKind;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Разобранный и проверенный кусок файла импорта.
+ *
+ * Рабочий поток разбирает строки прямо из байтов и проверяет их теми же
+ * правилами, что и мутаторы Product/PhysicalProduct/DigitalProduct; для
+ * цифровых товаров сразу применяется скидка за малый размер файла, как в
+ * DigitalProduct.trySetDownloadSizeMb. Принятые строки складываются в
+ * колонки куска, отклоненные — в список ошибок с номером строки внутри куска.
+ * Проверки, требующие общего состояния (категория, повтор ID), делает
+ * CatalogImporter при последовательном слиянии.
+ */
+final class ImportChunk {
+    static final int NO_CATEGORY_ID = Integer.MIN_VALUE;
+
+    // --- Поля строки (порядок колонок CSV) ---
+    private static final int KIND = 0;
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int PRICE = 3;
+    private static final int QUANTITY = 4;
+    private static final int COST_PRICE = 5;
+    private static final int CATEGORY_ID = 6;
+    private static final int WEIGHT = 7;
+    private static final int LENGTH = 8;
+    private static final int WIDTH = 9;
+    private static final int HEIGHT = 10;
+    private static final int DOWNLOAD_SIZE = 11;
+    private static final int LICENSE_KEY = 12;
+    private static final int FIELDS = 13;
+
+    private static final byte[][] KEYS = {
+            ascii("kind"), ascii("id"), ascii("name"), ascii("price"), ascii("quantity"),
+            ascii("costPrice"), ascii("categoryId"), ascii("weightKg"), ascii("lengthCm"),
+            ascii("widthCm"), ascii("heightCm"), ascii("downloadSizeMb"), ascii("licenseKey")
+    };
+    private static final byte[][] KIND_NAMES;
+    static {
+        ProductKind[] kinds = ProductKind.values();
+        KIND_NAMES = new byte[kinds.length][];
+        for (int i = 0; i < kinds.length; i++) KIND_NAMES[i] = ascii(kinds[i].name());
+    }
+
+    // Точные степени десяти: m / 10^k округляется так же, как Double.parseDouble
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+    private static final int MAX_FAST_DIGITS = 15;
+
+    // --- Принятые строки ---
+    int rows;        // строк с данными
+    int count;       // из них принято
+    byte[] kinds = new byte[64];
+    String[] ids = new String[64];
+    String[] names = new String[64];
+    double[] prices = new double[64];
+    int[] quantities = new int[64];
+    double[] costPrices = new double[64];
+    int[] categoryIds = new int[64];
+    double[] weights = new double[64];
+    double[] lengths = new double[64];
+    double[] widths = new double[64];
+    double[] heights = new double[64];
+    double[] downloadSizes = new double[64];
+    boolean[] licenses = new boolean[64];
+    int[] lineOf = new int[64];
+
+    // --- Отклоненные строки ---
+    int rejectedCount;
+    int[] rejectedLines = new int[16];
+    String[] rejectedIds = new String[16];
+    ImportError[] rejectedErrors = new ImportError[16];
+
+    /** Строк, начинающихся в куске (включая пустые и заголовок). */
+    int lines;
+
+    // --- Разбор текущей строки ---
+    private byte[] src;
+    private final int[] starts = new int[FIELDS];
+    private final int[] ends = new int[FIELDS];
+    private final String[] decoded = new String[FIELDS];
+
+    /**
+     * Разбирает строки, начинающиеся в [from, end). Строка может заканчиваться
+     * после end, но не дальше limit; строки длиннее MAX_LINE (в том числе не
+     * закончившиеся до limit, если limit — не конец файла) отклоняются.
+     * @param skipHeader первая строка куска — начало файла (BOM и заголовок CSV допустимы)
+     */
+    ImportChunk parse(byte[] b, int from, int end, int limit, boolean endOfFile,
+                      ImportFormat format, boolean skipHeader) {
+        src = b;
+        int pos = from;
+        if (skipHeader && limit - pos >= 3 && b[pos] == (byte) 0xEF && b[pos + 1] == (byte) 0xBB
+                && b[pos + 2] == (byte) 0xBF) {
+            pos += 3;
+        }
+        while (pos < end) {
+            int newline = indexOf(b, pos, limit, (byte) '\n');
+            int lineEnd;
+            int next;
+            if (newline >= 0) {
+                lineEnd = newline;
+                next = newline + 1;
+            } else if (endOfFile) {
+                lineEnd = limit;
+                next = limit;
+            } else {
+                lines++;
+                rows++;
+                reject(lines, null, ImportError.MALFORMED);
+                break;
+            }
+            lines++;
+            if (lineEnd > pos && b[lineEnd - 1] == '\r') lineEnd--;
+            if (lineEnd - pos > CatalogImporter.MAX_LINE) {
+                rows++;
+                reject(lines, null, ImportError.MALFORMED);
+            } else if (skipWhitespace(b, pos, lineEnd) < lineEnd) {
+                boolean header = skipHeader && lines == 1 && format == ImportFormat.CSV && isCsvHeader(b, pos, lineEnd);
+                if (!header) {
+                    rows++;
+                    line(format, pos, lineEnd);
+                }
+            }
+            pos = next;
+        }
+        src = null;
+        return this;
+    }
+
+    private void line(ImportFormat format, int from, int to) {
+        Arrays.fill(starts, 0);
+        Arrays.fill(ends, 0);
+        Arrays.fill(decoded, null);
+        boolean ok = format == ImportFormat.CSV ? splitCsv(from, to) : splitJson(from, to);
+        if (!ok) {
+            reject(lines, null, ImportError.MALFORMED);
+            return;
+        }
+        validate();
+    }
+
+    // --- Проверка и сохранение строки ---
+
+    private void validate() {
+        ProductKind kind = kind();
+        String id = isPresent(ID) ? text(ID).trim() : null;
+        if (kind == null) { reject(lines, id, ImportError.INVALID_KIND); return; }
+        if (!Product.isValidId(id)) { reject(lines, null, ImportError.INVALID_ID); return; }
+        String name = isPresent(NAME) ? text(NAME) : null;
+        if (!Product.isValidName(name)) { reject(lines, id, ImportError.INVALID_NAME); return; }
+        double price = isPresent(PRICE) ? number(PRICE) : Double.NaN;
+        if (!Product.isValidPrice(price)) { reject(lines, id, ImportError.INVALID_PRICE); return; }
+        int quantity = isPresent(QUANTITY) ? integer(QUANTITY) : 0;
+        if (!Product.isValidQuantity(quantity)) { reject(lines, id, ImportError.INVALID_QUANTITY); return; }
+        double costPrice = isPresent(COST_PRICE) ? number(COST_PRICE) : 0.0;
+        if (!(costPrice >= 0)) { reject(lines, id, ImportError.INVALID_COST_PRICE); return; }
+        int categoryId = NO_CATEGORY_ID;
+        if (isPresent(CATEGORY_ID)) {
+            categoryId = integer(CATEGORY_ID);
+            if (categoryId == Integer.MIN_VALUE) { reject(lines, id, ImportError.INVALID_CATEGORY); return; }
+        }
+
+        double weight = 0, length = 0, width = 0, height = 0, downloadSize = 0;
+        boolean license = false;
+        if (kind == ProductKind.PHYSICAL) {
+            weight = optionalNumber(WEIGHT);
+            if (!PhysicalProduct.isValidWeightKg(weight)) { reject(lines, id, ImportError.INVALID_WEIGHT); return; }
+            length = optionalNumber(LENGTH);
+            width = optionalNumber(WIDTH);
+            height = optionalNumber(HEIGHT);
+            if (!PhysicalProduct.isValidDimensions(length, width, height)) {
+                reject(lines, id, ImportError.INVALID_DIMENSIONS);
+                return;
+            }
+        } else if (kind == ProductKind.DIGITAL) {
+            downloadSize = optionalNumber(DOWNLOAD_SIZE);
+            if (!DigitalProduct.isValidDownloadSizeMb(downloadSize)) {
+                reject(lines, id, ImportError.INVALID_DOWNLOAD_SIZE);
+                return;
+            }
+            String key = isPresent(LICENSE_KEY) ? text(LICENSE_KEY) : null;
+            if (!DigitalProduct.isValidLicenseKey(key)) { reject(lines, id, ImportError.INVALID_LICENSE_KEY); return; }
+            license = key != null && !key.isBlank();
+            if (downloadSize < DigitalProduct.SMALL_DOWNLOAD_LIMIT_MB) {
+                price *= (1 - DigitalProduct.SMALL_DOWNLOAD_DISCOUNT_PERCENT / 100.0);
+            }
+        }
+
+        if (count == ids.length) grow();
+        int i = count++;
+        kinds[i] = (byte) kind.ordinal();
+        ids[i] = id;
+        names[i] = name;
+        prices[i] = price;
+        quantities[i] = quantity;
+        costPrices[i] = costPrice;
+        categoryIds[i] = categoryId;
+        weights[i] = weight;
+        lengths[i] = length;
+        widths[i] = width;
+        heights[i] = height;
+        downloadSizes[i] = downloadSize;
+        licenses[i] = license;
+        lineOf[i] = lines;
+    }
+
+    private void reject(int line, String id, ImportError error) {
+        if (rejectedCount == rejectedLines.length) {
+            int capacity = rejectedCount * 2;
+            rejectedLines = Arrays.copyOf(rejectedLines, capacity);
+            rejectedIds = Arrays.copyOf(rejectedIds, capacity);
+            rejectedErrors = Arrays.copyOf(rejectedErrors, capacity);
+        }
+        rejectedLines[rejectedCount] = line;
+        rejectedIds[rejectedCount] = id;
+        rejectedErrors[rejectedCount] = error;
+        rejectedCount++;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        costPrices = Arrays.copyOf(costPrices, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        downloadSizes = Arrays.copyOf(downloadSizes, capacity);
+        licenses = Arrays.copyOf(licenses, capacity);
+        lineOf = Arrays.copyOf(lineOf, capacity);
+    }
+
+    // --- Значения полей ---
+
+    private boolean isPresent(int field) {
+        return decoded[field] != null ? !decoded[field].isEmpty() : ends[field] > starts[field];
+    }
+
+    private String text(int field) {
+        if (decoded[field] != null) return decoded[field];
+        return new String(src, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+    }
+
+    /** null — неизвестный вид; отсутствующее поле — GENERIC. */
+    private ProductKind kind() {
+        if (!isPresent(KIND)) return ProductKind.GENERIC;
+        if (decoded[KIND] != null) {
+            for (ProductKind kind : ProductKind.values()) {
+                if (kind.name().equalsIgnoreCase(decoded[KIND].trim())) return kind;
+            }
+            return null;
+        }
+        int from = starts[KIND];
+        int length = ends[KIND] - from;
+        for (int k = 0; k < KIND_NAMES.length; k++) {
+            byte[] name = KIND_NAMES[k];
+            if (name.length != length) continue;
+            int i = 0;
+            while (i < length && (src[from + i] & 0xDF) == name[i]) i++;
+            if (i == length) return ProductKind.ofOrdinal(k);
+        }
+        return null;
+    }
+
+    private double optionalNumber(int field) {
+        return isPresent(field) ? number(field) : 0.0;
+    }
+
+    /** NaN, если поле не число. */
+    private double number(int field) {
+        if (decoded[field] != null) return parseDouble(decoded[field].trim());
+        int from = starts[field];
+        int to = ends[field];
+        boolean negative = src[from] == '-';
+        int i = negative ? from + 1 : from;
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; i < to; i++) {
+            byte c = src[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fraction >= 0) fraction++;
+            } else if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == to && digits > 0 && digits <= MAX_FAST_DIGITS) {
+            double value = fraction > 0 ? mantissa / POWERS_OF_TEN[fraction] : mantissa;
+            return negative ? -value : value;
+        }
+        // Экспонента, длинная мантисса и прочее — через JDK
+        return parseDouble(new String(src, from, to - from, StandardCharsets.ISO_8859_1));
+    }
+
+    /** Integer.MIN_VALUE, если поле не целое число из не более чем 9 цифр. */
+    private int integer(int field) {
+        if (decoded[field] != null) {
+            String value = decoded[field].trim();
+            byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+            return parseInt(bytes, 0, bytes.length);
+        }
+        return parseInt(src, starts[field], ends[field]);
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static int parseInt(byte[] b, int from, int to) {
+        if (from >= to) return Integer.MIN_VALUE;
+        boolean negative = b[from] == '-';
+        int i = negative ? from + 1 : from;
+        if (i >= to || to - i > 9) return Integer.MIN_VALUE;
+        int value = 0;
+        for (; i < to; i++) {
+            if (b[i] < '0' || b[i] > '9') return Integer.MIN_VALUE;
+            value = value * 10 + (b[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    // --- CSV ---
+
+    private static boolean isCsvHeader(byte[] b, int from, int to) {
+        while (from < to && b[from] == ' ') from++;
+        if (from < to && b[from] == '"') from++;
+        byte[] kind = KEYS[KIND];
+        if (to - from < kind.length) return false;
+        for (int i = 0; i < kind.length; i++) {
+            if ((b[from + i] | 0x20) != kind[i]) return false;
+        }
+        int after = from + kind.length;
+        return after == to || b[after] == ',' || b[after] == '"' || b[after] == ' ';
+    }
+
+    private boolean splitCsv(int from, int to) {
+        byte[] b = src;
+        int field = 0;
+        int i = from;
+        for (;;) {
+            if (field == FIELDS) return false; // лишние колонки
+            while (i < to && b[i] == ' ') i++;
+            int next;
+            if (i < to && b[i] == '"') {
+                int close = i + 1;
+                boolean escaped = false;
+                for (;;) {
+                    close = indexOf(b, close, to, (byte) '"');
+                    if (close < 0) return false;
+                    if (close + 1 < to && b[close + 1] == '"') {
+                        escaped = true;
+                        close += 2;
+                    } else {
+                        break;
+                    }
+                }
+                if (escaped) {
+                    decoded[field] = new String(b, i + 1, close - i - 1, StandardCharsets.UTF_8).replace("\"\"", "\"");
+                } else {
+                    starts[field] = i + 1;
+                    ends[field] = close;
+                }
+                next = close + 1;
+                while (next < to && b[next] == ' ') next++;
+                if (next < to && b[next] != ',') return false;
+            } else {
+                next = indexOf(b, i, to, (byte) ',');
+                if (next < 0) next = to;
+                int end = next;
+                while (end > i && b[end - 1] == ' ') end--;
+                starts[field] = i;
+                ends[field] = end;
+            }
+            field++;
+            if (next >= to) return true;
+            i = next + 1;
+        }
+    }
+
+    // --- JSON lines ---
+
+    private boolean splitJson(int from, int to) {
+        byte[] b = src;
+        int i = skipWhitespace(b, from, to);
+        if (i >= to || b[i] != '{') return false;
+        i = skipWhitespace(b, i + 1, to);
+        if (i < to && b[i] == '}') return skipWhitespace(b, i + 1, to) == to;
+        for (;;) {
+            // Ключ
+            if (i >= to || b[i] != '"') return false;
+            int keyEnd = stringEnd(b, i + 1, to);
+            if (keyEnd < 0) return false;
+            int field = fieldOf(b, i + 1, keyEnd);
+            i = skipWhitespace(b, keyEnd + 1, to);
+            if (i >= to || b[i] != ':') return false;
+            i = skipWhitespace(b, i + 1, to);
+            if (i >= to) return false;
+
+            // Значение
+            byte c = b[i];
+            if (c == '"') {
+                int end = stringEnd(b, i + 1, to);
+                if (end < 0) return false;
+                if (field >= 0) {
+                    if (indexOf(b, i + 1, end, (byte) '\\') >= 0) {
+                        decoded[field] = unescape(b, i + 1, end);
+                        if (decoded[field] == null) return false;
+                    } else {
+                        decoded[field] = null;
+                        starts[field] = i + 1;
+                        ends[field] = end;
+                    }
+                }
+                i = end + 1;
+            } else if (c == '{' || c == '[') {
+                return false; // только плоские объекты
+            } else {
+                int end = i;
+                while (end < to && b[end] != ',' && b[end] != '}' && b[end] != ' ' && b[end] != '\t') end++;
+                boolean isNull = end - i == 4 && b[i] == 'n' && b[i + 1] == 'u' && b[i + 2] == 'l' && b[i + 3] == 'l';
+                if (field >= 0) {
+                    decoded[field] = null;
+                    starts[field] = i;
+                    ends[field] = isNull ? i : end;
+                }
+                i = end;
+            }
+
+            i = skipWhitespace(b, i, to);
+            if (i >= to) return false;
+            if (b[i] == '}') return skipWhitespace(b, i + 1, to) == to;
+            if (b[i] != ',') return false;
+            i = skipWhitespace(b, i + 1, to);
+        }
+    }
+
+    /** Индекс закрывающей кавычки строки, начинающейся после открывающей, или -1. */
+    private static int stringEnd(byte[] b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (b[i] == '\\') i++;
+            else if (b[i] == '"') return i;
+        }
+        return -1;
+    }
+
+    private static int fieldOf(byte[] b, int from, int to) {
+        int length = to - from;
+        for (int f = 0; f < FIELDS; f++) {
+            byte[] key = KEYS[f];
+            if (key.length != length) continue;
+            int i = 0;
+            while (i < length && b[from + i] == key[i]) i++;
+            if (i == length) return f;
+        }
+        return -1;
+    }
+
+    /** null, если escape-последовательность некорректна. */
+    private static String unescape(byte[] b, int from, int to) {
+        StringBuilder sb = new StringBuilder(to - from);
+        int run = from;
+        int i = from;
+        while (i < to) {
+            if (b[i] != '\\') {
+                i++;
+                continue;
+            }
+            sb.append(new String(b, run, i - run, StandardCharsets.UTF_8));
+            if (i + 1 >= to) return null;
+            byte c = b[i + 1];
+            switch (c) {
+                case '"': sb.append('"'); break;
+                case '\\': sb.append('\\'); break;
+                case '/': sb.append('/'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (i + 6 > to) return null;
+                    int code = 0;
+                    for (int k = i + 2; k < i + 6; k++) {
+                        int digit = Character.digit(b[k], 16);
+                        if (digit < 0) return null;
+                        code = code * 16 + digit;
+                    }
+                    sb.append((char) code);
+                    i += 4;
+                    break;
+                default:
+                    return null;
+            }
+            i += 2;
+            run = i;
+        }
+        sb.append(new String(b, run, to - run, StandardCharsets.UTF_8));
+        return sb.toString();
+    }
+
+    private static int skipWhitespace(byte[] b, int from, int to) {
+        while (from < to && (b[from] == ' ' || b[from] == '\t')) from++;
+        return from;
+    }
+
+    static int indexOf(byte[] b, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (b[i] == value) return i;
+        }
+        return -1;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
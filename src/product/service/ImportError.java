@@ -0,0 +1,24 @@
+package product.service;
+
+/**
+ * Причина отклонения строки при импорте каталога.
+ */
+public enum ImportError {
+    /** Строка не разбирается: кавычки, синтаксис JSON, слишком длинная строка. */
+    MALFORMED,
+    INVALID_KIND,
+    INVALID_ID,
+    INVALID_NAME,
+    INVALID_PRICE,
+    INVALID_QUANTITY,
+    INVALID_COST_PRICE,
+    INVALID_CATEGORY,
+    INVALID_WEIGHT,
+    INVALID_DIMENSIONS,
+    INVALID_DOWNLOAD_SIZE,
+    INVALID_LICENSE_KEY,
+    /** Категории с таким ID нет. */
+    UNKNOWN_CATEGORY,
+    /** ID уже есть в каталоге или встречался выше в файле. */
+    DUPLICATE_ID
+}
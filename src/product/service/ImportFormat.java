@@ -0,0 +1,22 @@
+package product.service;
+
+/**
+ * Форматы файлов для массового импорта товаров (см. CatalogImporter).
+ *
+ * CSV:        {@code kind,id,name,price,quantity,costPrice,categoryId,weightKg,lengthCm,widthCm,heightCm,downloadSizeMb,licenseKey}
+ *             — одна строка на товар, UTF-8. Хвостовые колонки можно опустить;
+ *             поля с запятыми и кавычками берутся в двойные кавычки ("" внутри — кавычка).
+ *             Строка-заголовок (первое поле {@code kind}) допускается.
+ * JSON_LINES: один плоский JSON-объект на строку с теми же ключами, например
+ *             {@code {"kind":"DIGITAL","id":"D-1","name":"Ebook","price":9.5,"downloadSizeMb":12}}.
+ *             Неизвестные ключи пропускаются.
+ *
+ * Пустые строки и строки из одних пробелов пропускаются в обоих форматах.
+ * kind — GENERIC, PHYSICAL или DIGITAL (пусто — GENERIC); атрибуты чужого
+ * вида игнорируются. Пустые quantity, costPrice и атрибуты — 0,
+ * пустой categoryId — товар без категории.
+ */
+public enum ImportFormat {
+    CSV,
+    JSON_LINES
+}
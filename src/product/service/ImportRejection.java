@@ -0,0 +1,29 @@
+package product.service;
+
+/**
+ * Отклоненная строка файла импорта.
+ */
+public class ImportRejection {
+    private final long line;
+    private final String id;
+    private final ImportError error;
+
+    ImportRejection(long line, String id, ImportError error) {
+        this.line = line;
+        this.id = id;
+        this.error = error;
+    }
+
+    /** Номер строки в файле, с 1 (заголовок и пустые строки тоже считаются). */
+    public long getLine() { return line; }
+
+    /** ID товара, если его удалось прочитать, иначе null. */
+    public String getId() { return id; }
+
+    public ImportError getError() { return error; }
+
+    @Override
+    public String toString() {
+        return "line " + line + (id != null ? " [" + id + "]" : "") + ": " + error;
+    }
+}
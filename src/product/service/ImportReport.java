@@ -0,0 +1,47 @@
+package product.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Результат импорта: число добавленных товаров и отклоненные строки
+ * в порядке файла.
+ */
+public class ImportReport {
+    private final long rows;
+    private final long imported;
+    private final List<ImportRejection> rejections;
+    private final long elapsedNanos;
+
+    ImportReport(long rows, long imported, List<ImportRejection> rejections, long elapsedNanos) {
+        this.rows = rows;
+        this.imported = imported;
+        this.rejections = rejections;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Строк с данными (без заголовка и пустых строк). */
+    public long getRows() { return rows; }
+
+    /** Добавлено в каталог. */
+    public long getImported() { return imported; }
+
+    public long getRejectedCount() { return rejections.size(); }
+
+    public List<ImportRejection> getRejections() { return rejections; }
+
+    public Map<ImportError, Integer> getRejectionsByError() {
+        Map<ImportError, Integer> counts = new EnumMap<>(ImportError.class);
+        for (ImportRejection rejection : rejections) {
+            counts.merge(rejection.getError(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : rows * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,14 @@
+package product.service;
+
+/**
+ * Форматы файлов строк заказов для потоковой обработки.
+ *
+ * CSV:    {@code yyyy-MM-dd,productId,quantity} — одна строка на продажу,
+ *         строка-заголовок и пустые строки допускаются.
+ * BINARY: записи {@code int epochDay, int quantity, short idLength, byte[idLength] id (UTF-8)},
+ *         big-endian (см. BinaryOrderLineWriter).
+ */
+public enum OrderLineFormat {
+    CSV,
+    BINARY
+}
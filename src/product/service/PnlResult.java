@@ -0,0 +1,50 @@
+package product.service;
+
+import category.Category;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Результат потокового P&L: общий итог, разбивки по товару, категории
+ * и дню, а также статистика обработки.
+ * Товары без категории попадают в группу с ключом null.
+ */
+public class PnlResult {
+    private final FinancialReport total;
+    private final Map<String, FinancialReport> byProduct;
+    private final Map<Category, FinancialReport> byCategory;
+    private final Map<LocalDate, FinancialReport> byDay;
+    private final long lines;
+    private final long rejectedLines;
+    private final long elapsedNanos;
+
+    PnlResult(FinancialReport total, Map<String, FinancialReport> byProduct,
+              Map<Category, FinancialReport> byCategory, Map<LocalDate, FinancialReport> byDay,
+              long lines, long rejectedLines, long elapsedNanos) {
+        this.total = total;
+        this.byProduct = byProduct;
+        this.byCategory = byCategory;
+        this.byDay = byDay;
+        this.lines = lines;
+        this.rejectedLines = rejectedLines;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public FinancialReport getTotal() { return total; }
+    public Map<String, FinancialReport> getByProduct() { return byProduct; }
+    public Map<Category, FinancialReport> getByCategory() { return byCategory; }
+    public Map<LocalDate, FinancialReport> getByDay() { return byDay; }
+
+    /** Прочитано строк (включая отклоненные). */
+    public long getLines() { return lines; }
+
+    /** Строки с ошибкой формата, неизвестным товаром или количеством <= 0. */
+    public long getRejectedLines() { return rejectedLines; }
+
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getLinesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : lines * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,75 @@
+package product.service;
+
+import product.Product;
+import product.pricing.PricePolicy;
+import product.tax.TaxPolicy;
+
+/**
+ * Изменяемый накопитель для расчета экономики по множеству продаж.
+ * Считает то же, что ProfitCalculator.calculate, но складывает результат
+ * в примитивные поля, не создавая FinancialReport на каждую строку заказа.
+ *
+ * Не потокобезопасен: для параллельной обработки — один накопитель
+ * на поток и объединение через {@link #merge(ProfitAccumulator)}.
+ */
+public class ProfitAccumulator {
+    private double revenue;
+    private double taxAmount;
+    private double costOfGoods;
+    private long lines;
+    private long units;
+
+    /**
+     * Добавляет одну продажу (без выделения памяти).
+     */
+    public void add(Product product, int quantity, PricePolicy promotion, TaxPolicy taxPolicy) {
+        if (quantity <= 0) return;
+        double lineRevenue = product.finalPrice(quantity, promotion);
+        addLine(lineRevenue, taxPolicy.calculateTax(lineRevenue), product.getCostPrice() * quantity, quantity);
+    }
+
+    /**
+     * Добавляет уже рассчитанную строку (выручка, налог, себестоимость).
+     */
+    public void addLine(double lineRevenue, double lineTax, double lineCost, int quantity) {
+        revenue += lineRevenue;
+        taxAmount += lineTax;
+        costOfGoods += lineCost;
+        lines++;
+        units += quantity;
+    }
+
+    /**
+     * Прибавляет итоги другого накопителя (для параллельной редукции).
+     */
+    public ProfitAccumulator merge(ProfitAccumulator other) {
+        revenue += other.revenue;
+        taxAmount += other.taxAmount;
+        costOfGoods += other.costOfGoods;
+        lines += other.lines;
+        units += other.units;
+        return this;
+    }
+
+    public void reset() {
+        revenue = 0;
+        taxAmount = 0;
+        costOfGoods = 0;
+        lines = 0;
+        units = 0;
+    }
+
+    /**
+     * Единственное место, где создается отчет.
+     */
+    public FinancialReport snapshot() {
+        return new FinancialReport(revenue, taxAmount, costOfGoods);
+    }
+
+    public double getRevenue() { return revenue; }
+    public double getTaxAmount() { return taxAmount; }
+    public double getCostOfGoods() { return costOfGoods; }
+    public double getNetProfit() { return revenue - costOfGoods; }
+    public long getLineCount() { return lines; }
+    public long getUnitCount() { return units; }
+}
@@ -1,6 +1,9 @@
 package product.service;
 
 import product.Product;
+import product.metrics.Operation;
+import product.metrics.PricingMetrics;
+import product.money.Money;
 import product.pricing.PricePolicy;
 import product.tax.TaxPolicy;
 
@@ -10,13 +13,21 @@ public class ProfitCalculator {
      * Рассчитывает экономику одной продажи.
      */
     public FinancialReport calculate(Product product, int quantity, PricePolicy promotion, TaxPolicy taxPolicy) {
+        if (!PricingMetrics.ENABLED) return report(product, quantity, promotion, taxPolicy);
+        long start = PricingMetrics.start(Operation.PROFIT);
+        FinancialReport report = report(product, quantity, promotion, taxPolicy);
+        PricingMetrics.stop(Operation.PROFIT, start);
+        return report;
+    }
+
+    private FinancialReport report(Product product, int quantity, PricePolicy promotion, TaxPolicy taxPolicy) {
         if (quantity <= 0) return new FinancialReport(0, 0, 0);
 
         // 1. Считаем цену продажи с учетом скидок (Выручка магазина)
         double revenue = product.finalPrice(quantity, promotion);
         
         // 2. Считаем налог (он идет государству, в прибыль не входит)
-        double tax = taxPolicy.calculateTax(revenue);
+        double tax = tax(taxPolicy, revenue);
         
         // 3. Считаем себестоимость партии
         double totalCost = product.getCostPrice() * quantity;
@@ -24,4 +35,25 @@ public class ProfitCalculator {
         // 4. Формируем отчет
         return new FinancialReport(revenue, tax, totalCost);
     }
+
+    private static double tax(TaxPolicy taxPolicy, double revenue) {
+        if (!PricingMetrics.ENABLED) return taxPolicy.calculateTax(revenue);
+        long start = PricingMetrics.start(Operation.TAX);
+        double tax = taxPolicy.calculateTax(revenue);
+        PricingMetrics.stop(Operation.TAX, start);
+        return tax;
+    }
+
+    /**
+     * То же, что calculate, но в точной арифметике: цена, налог и
+     * себестоимость считаются в тиынах (long, HALF_EVEN) и переводятся
+     * в double только для отчета. Суммы строк сходятся до тиына.
+     */
+    public FinancialReport calculateExact(Product product, int quantity, PricePolicy promotion, TaxPolicy taxPolicy) {
+        if (quantity <= 0) return new FinancialReport(0, 0, 0);
+        long revenue = product.finalPriceMinor(quantity, promotion);
+        long tax = taxPolicy.calculateTaxMinor(revenue);
+        long totalCost = Money.times(product.getCostPriceMinor(), quantity);
+        return new FinancialReport(Money.toMajor(revenue), Money.toMajor(tax), Money.toMajor(totalCost));
+    }
 }
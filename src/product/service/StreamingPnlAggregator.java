@@ -0,0 +1,319 @@
+package product.service;
+
+import category.Category;
+import product.Product;
+import product.catalog.ColumnarCatalog;
+import product.catalog.ProductCursor;
+import product.pricing.PricePolicy;
+import product.tax.TaxPolicy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Потоковый расчет P&L по файлам строк заказов, которые не помещаются в память.
+ *
+ * Файл читается через FileChannel блоками фиксированного размера; строки
+ * разбираются прямо из байтов. Товар находится в ColumnarCatalog и
+ * передается в PricePolicy/TaxPolicy через переиспользуемый ProductCursor.
+ * Каждая строка добавляется в накопители ProfitAccumulator (итог, товар,
+ * категория, день), поэтому память ограничена числом различных групп,
+ * а не размером файла.
+ *
+ * Не потокобезопасен: один агрегатор — один файл за раз.
+ */
+public class StreamingPnlAggregator {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int BINARY_HEADER = 10; // int day + int qty + short idLength
+
+    private final ColumnarCatalog catalog;
+    private final PricePolicy promotion;
+    private final TaxPolicy taxPolicy;
+    private final ProductCursor cursor;
+
+    // --- Состояние текущего прогона ---
+    private ProfitAccumulator total;
+    private ProfitAccumulator[] byRow;
+    private ProfitAccumulator[] byCategory;
+    private ProfitAccumulator noCategory;
+    private Map<Integer, ProfitAccumulator> byDay;
+    private int lastDay;
+    private ProfitAccumulator lastDayAccumulator;
+    private long lines;
+    private long rejected;
+
+    // Кеш разбора даты: в файлах строки обычно идут по дням подряд
+    private int cachedDateKey = -1;
+    private int cachedEpochDay;
+
+    /**
+     * @param promotion правило цены (null — без скидок)
+     * @param taxPolicy налоговая политика
+     */
+    public StreamingPnlAggregator(ColumnarCatalog catalog, PricePolicy promotion, TaxPolicy taxPolicy) {
+        this.catalog = catalog;
+        this.promotion = promotion;
+        this.taxPolicy = taxPolicy;
+        this.cursor = catalog.cursor();
+    }
+
+    public PnlResult process(Path file, OrderLineFormat format) throws IOException {
+        reset();
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (format == OrderLineFormat.CSV) {
+                readCsv(channel);
+            } else {
+                readBinary(channel);
+            }
+        }
+        return buildResult(System.nanoTime() - start);
+    }
+
+    private void reset() {
+        total = new ProfitAccumulator();
+        byRow = new ProfitAccumulator[catalog.size()];
+        byCategory = new ProfitAccumulator[catalog.categoryCount()];
+        noCategory = null;
+        byDay = new HashMap<>();
+        lastDay = Integer.MIN_VALUE;
+        lastDayAccumulator = null;
+        lines = 0;
+        rejected = 0;
+    }
+
+    // --- CSV ---
+
+    private void readCsv(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        boolean eof = false;
+        while (!eof) {
+            eof = channel.read(buffer) < 0;
+            int limit = buffer.position();
+            int lineStart = 0;
+            for (int i = 0; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    csvLine(bytes, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (eof) {
+                if (lineStart < limit) csvLine(bytes, lineStart, limit); // последняя строка без \n
+            } else if (lineStart == 0 && limit == bytes.length) {
+                // Строка длиннее буфера: отбрасываем ее целиком
+                lines++;
+                rejected++;
+                skipToNextLine(channel, buffer);
+                continue;
+            }
+            buffer.position(lineStart);
+            buffer.limit(limit);
+            buffer.compact();
+        }
+    }
+
+    private void skipToNextLine(FileChannel channel, ByteBuffer buffer) throws IOException {
+        byte[] bytes = buffer.array();
+        for (;;) {
+            buffer.clear();
+            if (channel.read(buffer) < 0) {
+                buffer.clear();
+                return;
+            }
+            int limit = buffer.position();
+            for (int i = 0; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    buffer.position(i + 1);
+                    buffer.limit(limit);
+                    buffer.compact();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void csvLine(byte[] b, int from, int to) {
+        if (to > from && b[to - 1] == '\r') to--;
+        if (to == from) return; // пустая строка
+        if (lines == 0 && rejected == 0 && !isDigit(b[from])) return; // заголовок
+
+        lines++;
+        int comma1 = indexOf(b, from, to, (byte) ',');
+        int comma2 = comma1 < 0 ? -1 : indexOf(b, comma1 + 1, to, (byte) ',');
+        if (comma2 < 0) {
+            rejected++;
+            return;
+        }
+        int epochDay = parseDate(b, from, comma1);
+        int quantity = parseInt(b, comma2 + 1, to);
+        if (epochDay == Integer.MIN_VALUE || quantity == Integer.MIN_VALUE) {
+            rejected++;
+            return;
+        }
+        String id = new String(b, comma1 + 1, comma2 - comma1 - 1, StandardCharsets.UTF_8);
+        accept(epochDay, id, quantity);
+    }
+
+    // --- Binary ---
+
+    private void readBinary(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        boolean eof = false;
+        while (!eof) {
+            eof = channel.read(buffer) < 0;
+            buffer.flip();
+            while (buffer.remaining() >= BINARY_HEADER) {
+                int start = buffer.position();
+                int idLength = buffer.getShort(start + 8);
+                if (idLength < 0 || idLength > BUFFER_SIZE - BINARY_HEADER) {
+                    throw new IOException("Поврежденная запись в позиции буфера " + start);
+                }
+                if (buffer.remaining() < BINARY_HEADER + idLength) break;
+                int epochDay = buffer.getInt(start);
+                int quantity = buffer.getInt(start + 4);
+                String id = new String(bytes, start + BINARY_HEADER, idLength, StandardCharsets.UTF_8);
+                buffer.position(start + BINARY_HEADER + idLength);
+                lines++;
+                accept(epochDay, id, quantity);
+            }
+            if (eof && buffer.hasRemaining()) {
+                lines++;
+                rejected++; // обрезанная последняя запись
+            }
+            buffer.compact();
+        }
+    }
+
+    // --- Агрегация ---
+
+    private void accept(int epochDay, String productId, int quantity) {
+        int row = catalog.rowOf(productId);
+        if (row < 0 || quantity <= 0) {
+            rejected++;
+            return;
+        }
+        Product product = cursor.at(row);
+        double revenue = product.finalPrice(quantity, promotion);
+        double tax = taxPolicy.calculateTax(revenue);
+        double cost = product.getCostPrice() * quantity;
+
+        total.addLine(revenue, tax, cost, quantity);
+        productAccumulator(row).addLine(revenue, tax, cost, quantity);
+        categoryAccumulator(catalog.getCategoryOrdinal(row)).addLine(revenue, tax, cost, quantity);
+        dayAccumulator(epochDay).addLine(revenue, tax, cost, quantity);
+    }
+
+    private ProfitAccumulator productAccumulator(int row) {
+        if (row >= byRow.length) {
+            byRow = Arrays.copyOf(byRow, catalog.size());
+        }
+        ProfitAccumulator acc = byRow[row];
+        if (acc == null) {
+            acc = new ProfitAccumulator();
+            byRow[row] = acc;
+        }
+        return acc;
+    }
+
+    private ProfitAccumulator categoryAccumulator(int ordinal) {
+        if (ordinal == ColumnarCatalog.NO_CATEGORY) {
+            if (noCategory == null) noCategory = new ProfitAccumulator();
+            return noCategory;
+        }
+        if (ordinal >= byCategory.length) {
+            byCategory = Arrays.copyOf(byCategory, catalog.categoryCount());
+        }
+        ProfitAccumulator acc = byCategory[ordinal];
+        if (acc == null) {
+            acc = new ProfitAccumulator();
+            byCategory[ordinal] = acc;
+        }
+        return acc;
+    }
+
+    private ProfitAccumulator dayAccumulator(int epochDay) {
+        if (epochDay != lastDay) {
+            lastDay = epochDay;
+            lastDayAccumulator = byDay.computeIfAbsent(epochDay, day -> new ProfitAccumulator());
+        }
+        return lastDayAccumulator;
+    }
+
+    private PnlResult buildResult(long elapsedNanos) {
+        Map<String, FinancialReport> products = new LinkedHashMap<>();
+        for (int row = 0; row < byRow.length; row++) {
+            if (byRow[row] != null) products.put(catalog.getId(row), byRow[row].snapshot());
+        }
+        Map<Category, FinancialReport> categories = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < byCategory.length; ordinal++) {
+            if (byCategory[ordinal] != null) {
+                categories.put(catalog.categoryAt(ordinal), byCategory[ordinal].snapshot());
+            }
+        }
+        if (noCategory != null) categories.put(null, noCategory.snapshot());
+        Map<LocalDate, FinancialReport> days = new TreeMap<>();
+        for (Map.Entry<Integer, ProfitAccumulator> e : byDay.entrySet()) {
+            days.put(LocalDate.ofEpochDay(e.getKey()), e.getValue().snapshot());
+        }
+        return new PnlResult(total.snapshot(), products, categories, days, lines, rejected, elapsedNanos);
+    }
+
+    // --- Разбор байтов без промежуточных строк ---
+
+    private int parseDate(byte[] b, int from, int to) {
+        // yyyy-MM-dd
+        if (to - from != 10 || b[from + 4] != '-' || b[from + 7] != '-') return Integer.MIN_VALUE;
+        int year = parseInt(b, from, from + 4);
+        int month = parseInt(b, from + 5, from + 7);
+        int day = parseInt(b, from + 8, from + 10);
+        if (year == Integer.MIN_VALUE || month == Integer.MIN_VALUE || day == Integer.MIN_VALUE) {
+            return Integer.MIN_VALUE;
+        }
+        int key = (year * 100 + month) * 100 + day;
+        if (key == cachedDateKey) return cachedEpochDay;
+        try {
+            cachedEpochDay = (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return Integer.MIN_VALUE;
+        }
+        cachedDateKey = key;
+        return cachedEpochDay;
+    }
+
+    private static int parseInt(byte[] b, int from, int to) {
+        if (from >= to) return Integer.MIN_VALUE;
+        boolean negative = b[from] == '-';
+        int i = negative ? from + 1 : from;
+        if (i >= to || to - i > 9) return Integer.MIN_VALUE;
+        int value = 0;
+        for (; i < to; i++) {
+            if (!isDigit(b[i])) return Integer.MIN_VALUE;
+            value = value * 10 + (b[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private static int indexOf(byte[] b, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (b[i] == value) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+}
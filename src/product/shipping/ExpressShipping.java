@@ -10,8 +10,16 @@ public class ExpressShipping implements ShippingPolicy {
 
     @Override
     public double calculate(double weightKg, double lengthCm, double widthCm, double heightCm) {
-        double volumetricWeight = (lengthCm * widthCm * heightCm) / VOLUMETRIC_DIVISOR;
-        double billableWeight = Math.max(weightKg, volumetricWeight);
+        return calculateBillable(ShippingPolicy.billableWeight(weightKg, lengthCm, widthCm, heightCm));
+    }
+
+    @Override
+    public double calculateBillable(double billableWeight) {
         return billableWeight * EXPRESS_RATE_PER_KG + EXPRESS_FEE;
     }
+
+    @Override
+    public boolean pricesByBillableWeight() {
+        return true;
+    }
 }
@@ -10,13 +10,20 @@ public class FreeShipping implements ShippingPolicy {
 
     @Override
     public double calculate(double weightKg, double lengthCm, double widthCm, double heightCm) {
-        double volumetricWeight = (lengthCm * widthCm * heightCm) / VOLUMETRIC_DIVISOR;
-        double billableWeight = Math.max(weightKg, volumetricWeight);
-        
+        return calculateBillable(ShippingPolicy.billableWeight(weightKg, lengthCm, widthCm, heightCm));
+    }
+
+    @Override
+    public double calculateBillable(double billableWeight) {
         if (billableWeight <= FREE_WEIGHT_THRESHOLD) {
             return 0.0; // Free shipping
         }
         // If over threshold, charge standard rate
         return billableWeight * STANDARD_RATE_PER_KG;
     }
+
+    @Override
+    public boolean pricesByBillableWeight() {
+        return true;
+    }
 }
@@ -0,0 +1,239 @@
+package product.shipping;
+
+import product.PhysicalProduct;
+import product.metrics.Operation;
+import product.metrics.PricingMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consolidates a cart of physical products into parcels and quotes them.
+ *
+ * Packing is first-fit decreasing: lines are sorted by unit billable weight
+ * (heaviest first), and each unit goes into the first open parcel whose
+ * actual weight and volume limits it still fits. Units of the same line are
+ * identical, so they are placed in batches (as many as fit per parcel)
+ * instead of one by one. A unit that exceeds the limits on its own ships
+ * in its own parcel.
+ *
+ * Each parcel is billed by max(actual weight, volume / VOLUMETRIC_DIVISOR)
+ * and priced with the cheapest policy via
+ * {@link ShippingPolicy#calculateBillable(double)}. A parcel has no single
+ * set of dimensions, so policies that do not
+ * {@link ShippingPolicy#pricesByBillableWeight() price by billable weight}
+ * are quoted through calculate() with the parcel as a cube of its packed
+ * volume.
+ *
+ * The planner is immutable and thread-safe; every plan() call uses its own
+ * scratch arrays.
+ */
+public final class ShipmentPlanner {
+    private final ShippingPolicy[] policies;
+    private final double maxParcelWeightKg;
+    private final double maxParcelVolumeCm3;
+
+    public ShipmentPlanner(List<? extends ShippingPolicy> policies) {
+        this(policies, ShippingConstants.MAX_PARCEL_WEIGHT_KG, ShippingConstants.MAX_PARCEL_VOLUME_CM3);
+    }
+
+    public ShipmentPlanner(List<? extends ShippingPolicy> policies, double maxParcelWeightKg, double maxParcelVolumeCm3) {
+        this.policies = new ArrayList<ShippingPolicy>(policies).toArray(new ShippingPolicy[0]);
+        if (this.policies.length == 0) {
+            throw new IllegalArgumentException("Shipment planner needs at least one policy");
+        }
+        for (ShippingPolicy policy : this.policies) {
+            if (policy == null) throw new IllegalArgumentException("Shipping policy must not be null");
+        }
+        if (!(maxParcelWeightKg > 0) || !(maxParcelVolumeCm3 > 0)) {
+            throw new IllegalArgumentException("Parcel limits must be positive");
+        }
+        this.maxParcelWeightKg = maxParcelWeightKg;
+        this.maxParcelVolumeCm3 = maxParcelVolumeCm3;
+    }
+
+    /**
+     * Packs the cart and quotes every parcel.
+     * Lines with a null product or a non-positive quantity are skipped.
+     *
+     * @param products   cart line products
+     * @param quantities units per line, same length as products
+     */
+    public ShipmentQuote plan(List<? extends PhysicalProduct> products, int[] quantities) {
+        if (!PricingMetrics.ENABLED) return pack(products, quantities);
+        long start = PricingMetrics.start(Operation.SHIPMENT_PLAN);
+        ShipmentQuote quote = pack(products, quantities);
+        PricingMetrics.stop(Operation.SHIPMENT_PLAN, start);
+        return quote;
+    }
+
+    private ShipmentQuote pack(List<? extends PhysicalProduct> products, int[] quantities) {
+        int lines = products.size();
+        if (quantities.length != lines) {
+            throw new IllegalArgumentException("Expected " + lines + " quantities, got " + quantities.length);
+        }
+
+        // Unit weight, volume and sort key per line
+        double[] unitWeight = new double[lines];
+        double[] unitVolume = new double[lines];
+        double[] unitBillable = new double[lines];
+        int[] order = new int[lines];
+        int active = 0;
+        for (int i = 0; i < lines; i++) {
+            PhysicalProduct product = products.get(i);
+            if (product == null || quantities[i] <= 0) continue;
+            unitWeight[i] = product.getWeightKg();
+            unitVolume[i] = product.getLengthCm() * product.getWidthCm() * product.getHeightCm();
+            unitBillable[i] = product.getShippingWeight();
+            order[active++] = i;
+        }
+        sortByKeyDescending(order, active, unitBillable);
+
+        Packing packing = new Packing(Math.max(4, active));
+        for (int n = 0; n < active; n++) {
+            int line = order[n];
+            place(packing, line, quantities[line], unitWeight[line], unitVolume[line]);
+        }
+        return quote(packing);
+    }
+
+    // --- Packing ---
+
+    private void place(Packing packing, int line, int units, double weight, double volume) {
+        int remaining = units;
+        for (int parcel = 0; parcel < packing.parcels && remaining > 0; parcel++) {
+            int fits = fitting(maxParcelWeightKg - packing.weights[parcel], weight,
+                               maxParcelVolumeCm3 - packing.volumes[parcel], volume, remaining);
+            if (fits > 0) {
+                packing.add(parcel, line, fits, weight, volume);
+                remaining -= fits;
+            }
+        }
+        while (remaining > 0) {
+            int fits = fitting(maxParcelWeightKg, weight, maxParcelVolumeCm3, volume, remaining);
+            int parcel = packing.open();
+            int batch = Math.max(1, fits); // oversized unit: one per parcel
+            packing.add(parcel, line, batch, weight, volume);
+            remaining -= batch;
+        }
+    }
+
+    /**
+     * How many units (up to 'limit') fit into the free weight and volume.
+     */
+    private static int fitting(double freeWeight, double unitWeight, double freeVolume, double unitVolume, int limit) {
+        if (freeWeight < unitWeight || freeVolume < unitVolume) return 0;
+        double n = limit;
+        if (unitWeight > 0) n = Math.min(n, Math.floor(freeWeight / unitWeight));
+        if (unitVolume > 0) n = Math.min(n, Math.floor(freeVolume / unitVolume));
+        return (int) n;
+    }
+
+    private ShipmentQuote quote(Packing packing) {
+        int parcels = packing.parcels;
+        double[] billable = new double[parcels];
+        double[] costs = new double[parcels];
+        ShippingPolicy[] chosen = new ShippingPolicy[parcels];
+        double total = 0.0;
+        for (int parcel = 0; parcel < parcels; parcel++) {
+            double weight = Math.max(packing.weights[parcel],
+                                     ShippingPolicy.volumetricWeight(packing.volumes[parcel]));
+            double side = Math.cbrt(packing.volumes[parcel]);
+            double best = Double.POSITIVE_INFINITY;
+            ShippingPolicy bestPolicy = null;
+            for (ShippingPolicy policy : policies) {
+                double cost = ShippingPolicy.quote(policy, packing.weights[parcel], side, side, side, weight);
+                if (cost < best) {
+                    best = cost;
+                    bestPolicy = policy;
+                }
+            }
+            billable[parcel] = weight;
+            costs[parcel] = best;
+            chosen[parcel] = bestPolicy;
+            total += best;
+        }
+        return new ShipmentQuote(parcels,
+                Arrays.copyOf(packing.weights, parcels), Arrays.copyOf(packing.volumes, parcels),
+                billable, costs, chosen,
+                packing.placements, Arrays.copyOf(packing.placementLines, packing.placements),
+                Arrays.copyOf(packing.placementParcels, packing.placements),
+                Arrays.copyOf(packing.placementUnits, packing.placements), total);
+    }
+
+    /**
+     * Stable sort of the first 'n' indexes by key, largest first.
+     * Insertion sort for typical carts, merge sort above that.
+     */
+    private static void sortByKeyDescending(int[] idx, int n, double[] key) {
+        if (n <= 32) {
+            for (int i = 1; i < n; i++) {
+                int v = idx[i];
+                int j = i - 1;
+                while (j >= 0 && key[idx[j]] < key[v]) {
+                    idx[j + 1] = idx[j];
+                    j--;
+                }
+                idx[j + 1] = v;
+            }
+            return;
+        }
+        int[] tmp = new int[n];
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n - width; lo += width << 1) {
+                int mid = lo + width;
+                int hi = Math.min(lo + (width << 1), n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) tmp[k++] = key[idx[j]] > key[idx[i]] ? idx[j++] : idx[i++];
+                while (i < mid) tmp[k++] = idx[i++];
+                while (j < hi) tmp[k++] = idx[j++];
+                System.arraycopy(tmp, lo, idx, lo, hi - lo);
+            }
+        }
+    }
+
+    /**
+     * Open parcels and placements of one plan() call.
+     */
+    private static final class Packing {
+        double[] weights;
+        double[] volumes;
+        int parcels;
+        int[] placementLines;
+        int[] placementParcels;
+        int[] placementUnits;
+        int placements;
+
+        Packing(int capacity) {
+            weights = new double[capacity];
+            volumes = new double[capacity];
+            placementLines = new int[capacity];
+            placementParcels = new int[capacity];
+            placementUnits = new int[capacity];
+        }
+
+        int open() {
+            if (parcels == weights.length) {
+                weights = Arrays.copyOf(weights, parcels * 2);
+                volumes = Arrays.copyOf(volumes, parcels * 2);
+            }
+            return parcels++;
+        }
+
+        void add(int parcel, int line, int units, double unitWeight, double unitVolume) {
+            weights[parcel] += unitWeight * units;
+            volumes[parcel] += unitVolume * units;
+            if (placements == placementLines.length) {
+                int capacity = placements * 2;
+                placementLines = Arrays.copyOf(placementLines, capacity);
+                placementParcels = Arrays.copyOf(placementParcels, capacity);
+                placementUnits = Arrays.copyOf(placementUnits, capacity);
+            }
+            placementLines[placements] = line;
+            placementParcels[placements] = parcel;
+            placementUnits[placements] = units;
+            placements++;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package product.shipping;
+
+/**
+ * Result of {@link ShipmentPlanner#plan}: the parcels a cart was packed into,
+ * the cheapest policy for each parcel and the total shipping cost.
+ *
+ * Placements describe the contents: placement i puts
+ * {@code getPlacementUnits(i)} units of cart line {@code getPlacementLine(i)}
+ * into parcel {@code getPlacementParcel(i)}.
+ */
+public final class ShipmentQuote {
+    private final int parcelCount;
+    private final double[] parcelWeights;
+    private final double[] parcelVolumes;
+    private final double[] parcelBillableWeights;
+    private final double[] parcelCosts;
+    private final ShippingPolicy[] parcelPolicies;
+    private final int placementCount;
+    private final int[] placementLines;
+    private final int[] placementParcels;
+    private final int[] placementUnits;
+    private final double totalCost;
+
+    ShipmentQuote(int parcelCount, double[] parcelWeights, double[] parcelVolumes,
+                  double[] parcelBillableWeights, double[] parcelCosts, ShippingPolicy[] parcelPolicies,
+                  int placementCount, int[] placementLines, int[] placementParcels, int[] placementUnits,
+                  double totalCost) {
+        this.parcelCount = parcelCount;
+        this.parcelWeights = parcelWeights;
+        this.parcelVolumes = parcelVolumes;
+        this.parcelBillableWeights = parcelBillableWeights;
+        this.parcelCosts = parcelCosts;
+        this.parcelPolicies = parcelPolicies;
+        this.placementCount = placementCount;
+        this.placementLines = placementLines;
+        this.placementParcels = placementParcels;
+        this.placementUnits = placementUnits;
+        this.totalCost = totalCost;
+    }
+
+    public int getParcelCount() { return parcelCount; }
+    public double getTotalCost() { return totalCost; }
+
+    public double getParcelWeightKg(int parcel) { return parcelWeights[checkParcel(parcel)]; }
+    public double getParcelVolumeCm3(int parcel) { return parcelVolumes[checkParcel(parcel)]; }
+    public double getParcelBillableWeightKg(int parcel) { return parcelBillableWeights[checkParcel(parcel)]; }
+    public double getParcelCost(int parcel) { return parcelCosts[checkParcel(parcel)]; }
+    public ShippingPolicy getParcelPolicy(int parcel) { return parcelPolicies[checkParcel(parcel)]; }
+
+    public int getPlacementCount() { return placementCount; }
+    public int getPlacementLine(int placement) { return placementLines[checkPlacement(placement)]; }
+    public int getPlacementParcel(int placement) { return placementParcels[checkPlacement(placement)]; }
+    public int getPlacementUnits(int placement) { return placementUnits[checkPlacement(placement)]; }
+
+    private int checkParcel(int parcel) {
+        if (parcel < 0 || parcel >= parcelCount) {
+            throw new IndexOutOfBoundsException("Parcel " + parcel + " out of range [0, " + parcelCount + ")");
+        }
+        return parcel;
+    }
+
+    private int checkPlacement(int placement) {
+        if (placement < 0 || placement >= placementCount) {
+            throw new IndexOutOfBoundsException("Placement " + placement + " out of range [0, " + placementCount + ")");
+        }
+        return placement;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ShipmentQuote[parcels=%d, total=%.2f]", parcelCount, totalCost);
+    }
+}
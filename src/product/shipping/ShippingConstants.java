@@ -24,4 +24,10 @@ public final class ShippingConstants {
     
     /** Weight threshold for free shipping in kilograms */
     public static final double FREE_WEIGHT_THRESHOLD = 2.0;
+
+    /** Default maximum actual weight of one parcel in kilograms */
+    public static final double MAX_PARCEL_WEIGHT_KG = 30.0;
+
+    /** Default maximum volume of one parcel in cubic centimeters (60 x 50 x 50 cm) */
+    public static final double MAX_PARCEL_VOLUME_CM3 = 150_000.0;
 }
@@ -17,4 +17,54 @@ public interface ShippingPolicy {
      * @return The calculated shipping cost
      */
     double calculate(double weightKg, double lengthCm, double widthCm, double heightCm);
+
+    /**
+     * Calculates the shipping cost from an already computed billable weight
+     * (see {@link #billableWeight}). Lets callers that cache the billable
+     * weight skip the volumetric calculation on every quote.
+     * Callers use it only when {@link #pricesByBillableWeight()} is true.
+     * The default passes the weight with zero dimensions.
+     *
+     * @param billableWeightKg max(actual weight, volumetric weight) in kilograms
+     * @return The calculated shipping cost
+     */
+    default double calculateBillable(double billableWeightKg) {
+        return calculate(billableWeightKg, 0.0, 0.0, 0.0);
+    }
+
+    /**
+     * true if the cost depends only on the billable weight, so that
+     * {@link #calculateBillable(double)} gives the same result as
+     * {@link #calculate}. The built-in policies opt in. The default is false,
+     * so a custom policy that reads the dimensions (for example an oversize
+     * surcharge) is always quoted through calculate().
+     */
+    default boolean pricesByBillableWeight() {
+        return false;
+    }
+
+    /**
+     * Quotes one item: through the cached billable weight if the policy
+     * opts in, otherwise through calculate() with the real dimensions.
+     */
+    static double quote(ShippingPolicy policy, double weightKg, double lengthCm, double widthCm, double heightCm,
+                        double billableWeightKg) {
+        if (policy.pricesByBillableWeight()) return policy.calculateBillable(billableWeightKg);
+        return policy.calculate(weightKg, lengthCm, widthCm, heightCm);
+    }
+
+    /**
+     * Billable weight: the greater of the actual weight and the
+     * volumetric weight (L * W * H / VOLUMETRIC_DIVISOR).
+     */
+    static double billableWeight(double weightKg, double lengthCm, double widthCm, double heightCm) {
+        return Math.max(weightKg, volumetricWeight(lengthCm * widthCm * heightCm));
+    }
+
+    /**
+     * Volumetric weight in kilograms for a volume in cubic centimeters.
+     */
+    static double volumetricWeight(double volumeCm3) {
+        return volumeCm3 / ShippingConstants.VOLUMETRIC_DIVISOR;
+    }
 }
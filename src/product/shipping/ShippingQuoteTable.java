@@ -0,0 +1,136 @@
+package product.shipping;
+
+import product.PhysicalProduct;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed shipping quotes for every (product, policy) pair.
+ *
+ * Costs are stored in one primitive matrix, row-major by product:
+ * {@code costs[product * policyCount + policy]}. Each cost is computed once,
+ * from the product's cached billable weight for policies that
+ * {@link ShippingPolicy#pricesByBillableWeight() price by it} and from the
+ * weight and dimensions for the rest, so cart-level shipping is an array
+ * lookup instead of a chain of policy calls.
+ *
+ * The table is a snapshot: it does not track later changes to weight,
+ * dimensions or the policy list. Rebuild it after such changes.
+ * Immutable and thread-safe once built.
+ */
+public final class ShippingQuoteTable {
+    private final PhysicalProduct[] products;
+    private final ShippingPolicy[] policies;
+    private final double[] costs;
+    private final int[] cheapest;
+    private final Map<PhysicalProduct, Integer> indexByProduct = new IdentityHashMap<>();
+
+    private ShippingQuoteTable(List<? extends PhysicalProduct> productList, List<? extends ShippingPolicy> policyList) {
+        this.products = new ArrayList<PhysicalProduct>(productList).toArray(new PhysicalProduct[0]);
+        this.policies = new ArrayList<ShippingPolicy>(policyList).toArray(new ShippingPolicy[0]);
+        if (policies.length == 0) {
+            throw new IllegalArgumentException("Shipping quote table needs at least one policy");
+        }
+        int k = policies.length;
+        this.costs = new double[products.length * k];
+        this.cheapest = new int[products.length];
+        for (int p = 0; p < products.length; p++) {
+            PhysicalProduct product = products[p];
+            double billable = product.getShippingWeight();
+            int base = p * k;
+            int best = 0;
+            for (int j = 0; j < k; j++) {
+                double cost = ShippingPolicy.quote(policies[j], product.getWeightKg(), product.getLengthCm(),
+                        product.getWidthCm(), product.getHeightCm(), billable);
+                costs[base + j] = cost;
+                if (cost < costs[base + best]) best = j;
+            }
+            cheapest[p] = best;
+            indexByProduct.putIfAbsent(products[p], p);
+        }
+    }
+
+    /**
+     * Builds the table. Product and policy indexes follow the list order.
+     */
+    public static ShippingQuoteTable of(List<? extends PhysicalProduct> products, List<? extends ShippingPolicy> policies) {
+        return new ShippingQuoteTable(products, policies);
+    }
+
+    public int productCount() {
+        return products.length;
+    }
+
+    public int policyCount() {
+        return policies.length;
+    }
+
+    public PhysicalProduct productAt(int product) {
+        return products[product];
+    }
+
+    public ShippingPolicy policyAt(int policy) {
+        return policies[policy];
+    }
+
+    /**
+     * @return index of the product in the table, or -1 if it is not there.
+     */
+    public int indexOf(PhysicalProduct product) {
+        Integer index = indexByProduct.get(product);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Cost of shipping one line of 'product' with 'policy'.
+     */
+    public double quote(int product, int policy) {
+        if (policy < 0 || policy >= policies.length) {
+            throw new IndexOutOfBoundsException("Policy " + policy + " out of range [0, " + policies.length + ")");
+        }
+        return costs[product * policies.length + policy];
+    }
+
+    /**
+     * Index of the cheapest policy for the product (first one on ties).
+     */
+    public int cheapestPolicy(int product) {
+        return cheapest[product];
+    }
+
+    public double cheapestQuote(int product) {
+        return costs[product * policies.length + cheapest[product]];
+    }
+
+    /**
+     * Shipping for a cart where every line uses the same policy.
+     * @param cartProducts product indexes, one per cart line
+     */
+    public double cartTotal(int[] cartProducts, int policy) {
+        if (policy < 0 || policy >= policies.length) {
+            throw new IndexOutOfBoundsException("Policy " + policy + " out of range [0, " + policies.length + ")");
+        }
+        int k = policies.length;
+        double total = 0.0;
+        for (int product : cartProducts) {
+            total += costs[product * k + policy];
+        }
+        return total;
+    }
+
+    /**
+     * Shipping for a cart where every line uses its cheapest policy.
+     * @param cartProducts product indexes, one per cart line
+     */
+    public double cheapestCartTotal(int[] cartProducts) {
+        int k = policies.length;
+        double total = 0.0;
+        for (int product : cartProducts) {
+            total += costs[product * k + cheapest[product]];
+        }
+        return total;
+    }
+}
@@ -11,8 +11,16 @@ public class StandardShipping implements ShippingPolicy {
 
     @Override
     public double calculate(double weightKg, double lengthCm, double widthCm, double heightCm) {
-        double volumetricWeight = (lengthCm * widthCm * heightCm) / VOLUMETRIC_DIVISOR;
-        double billableWeight = Math.max(weightKg, volumetricWeight);
+        return calculateBillable(ShippingPolicy.billableWeight(weightKg, lengthCm, widthCm, heightCm));
+    }
+
+    @Override
+    public double calculateBillable(double billableWeight) {
         return billableWeight * STANDARD_RATE_PER_KG;
     }
+
+    @Override
+    public boolean pricesByBillableWeight() {
+        return true;
+    }
 }
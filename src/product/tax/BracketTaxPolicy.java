@@ -0,0 +1,150 @@
+package product.tax;
+
+import java.util.Arrays;
+
+/**
+ * Table-driven tax with any number of brackets.
+ *
+ * Bracket i covers bases in [thresholds[i], thresholds[i + 1]); the last
+ * bracket is open-ended. Two modes:
+ * - marginal: each bracket's rate applies only to the part of the base
+ *   inside that bracket (income-tax style);
+ * - flat-per-band: the whole base is taxed at the rate of the bracket it
+ *   falls into (like ProgressiveTaxStrategy, except that a base equal to a
+ *   threshold always belongs to the upper bracket).
+ *
+ * The bracket is found by binary search over the sorted thresholds, and the
+ * tax of all lower brackets is precomputed, so calculateTax is O(log n)
+ * and allocation-free. Bases below the first threshold use the first rate;
+ * in marginal mode the first rate also covers the part of the base below
+ * thresholds[0], so the tax never goes negative for a non-negative base.
+ */
+public final class BracketTaxPolicy implements TaxPolicy {
+    private final double[] thresholds;
+    private final double[] rates;
+    private final double[] cumulativeTax; // tax of [0, thresholds[i]) (marginal mode)
+    private final boolean marginal;
+
+    private BracketTaxPolicy(double[] thresholds, double[] ratesPercent, boolean marginal) {
+        if (thresholds == null || ratesPercent == null || thresholds.length == 0
+                || thresholds.length != ratesPercent.length) {
+            throw new IllegalArgumentException("Thresholds and rates must be non-empty and of equal length");
+        }
+        this.thresholds = thresholds.clone();
+        this.rates = new double[ratesPercent.length];
+        for (int i = 0; i < rates.length; i++) {
+            if (!Double.isFinite(this.thresholds[i]) || !Double.isFinite(ratesPercent[i])) {
+                throw new IllegalArgumentException("Bracket " + i + " has a non-finite threshold or rate");
+            }
+            if (i > 0 && this.thresholds[i] <= this.thresholds[i - 1]) {
+                throw new IllegalArgumentException("Thresholds must be strictly increasing (bracket " + i + ")");
+            }
+            rates[i] = ratesPercent[i] / 100.0;
+        }
+        this.marginal = marginal;
+        this.cumulativeTax = new double[rates.length];
+        cumulativeTax[0] = this.thresholds[0] * rates[0];
+        for (int i = 1; i < rates.length; i++) {
+            cumulativeTax[i] = cumulativeTax[i - 1] + (this.thresholds[i] - this.thresholds[i - 1]) * rates[i - 1];
+        }
+    }
+
+    /**
+     * Marginal brackets: rate i applies to the part of the base above thresholds[i]
+     * (the first rate also to the part below thresholds[0]).
+     * @param thresholds   lower bounds of the brackets, strictly increasing
+     * @param ratesPercent rate of each bracket in percent (e.g. 12 for 12%)
+     */
+    public static BracketTaxPolicy marginal(double[] thresholds, double[] ratesPercent) {
+        return new BracketTaxPolicy(thresholds, ratesPercent, true);
+    }
+
+    /**
+     * Flat-per-band brackets: the whole base is taxed at the rate of its bracket.
+     * @param thresholds   lower bounds of the brackets, strictly increasing
+     * @param ratesPercent rate of each bracket in percent (e.g. 12 for 12%)
+     */
+    public static BracketTaxPolicy flatPerBand(double[] thresholds, double[] ratesPercent) {
+        return new BracketTaxPolicy(thresholds, ratesPercent, false);
+    }
+
+    /**
+     * Rate of the top bracket: the limit of the effective rate for large bases.
+     * Use {@link #effectiveRate(double)} for the rate at a given base.
+     */
+    @Override
+    public double taxRate() {
+        return rates[rates.length - 1];
+    }
+
+    @Override
+    public double calculateTax(double base) {
+        return taxAt(bracketOf(base), base);
+    }
+
+    /**
+     * Batch version: out[i] = calculateTax(bases[i]).
+     */
+    @Override
+    public void calculateTax(double[] bases, double[] out) {
+        if (out.length < bases.length) {
+            throw new IllegalArgumentException("Output array is shorter than input: " + out.length + " < " + bases.length);
+        }
+        for (int i = 0; i < bases.length; i++) {
+            double base = bases[i];
+            out[i] = taxAt(bracketOf(base), base);
+        }
+    }
+
+    /**
+     * Tax divided by base (0 for a zero base).
+     */
+    public double effectiveRate(double base) {
+        return base == 0.0 ? 0.0 : calculateTax(base) / base;
+    }
+
+    /**
+     * Marginal rate of the bracket the base falls into.
+     */
+    public double marginalRate(double base) {
+        return rates[bracketOf(base)];
+    }
+
+    public int bracketCount() {
+        return thresholds.length;
+    }
+
+    public boolean isMarginal() {
+        return marginal;
+    }
+
+    /**
+     * Index of the last bracket whose threshold is <= base (0 below the first threshold).
+     */
+    private int bracketOf(double base) {
+        int lo = 0;
+        int hi = thresholds.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (thresholds[mid] <= base) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private double taxAt(int bracket, double base) {
+        if (marginal) {
+            return cumulativeTax[bracket] + (base - thresholds[bracket]) * rates[bracket];
+        }
+        return base * rates[bracket];
+    }
+
+    @Override
+    public String toString() {
+        return "BracketTaxPolicy[" + (marginal ? "marginal" : "flat-per-band")
+                + ", thresholds=" + Arrays.toString(thresholds) + "]";
+    }
+}
@@ -1,17 +1,26 @@
 package product.tax;
 
+import product.money.Money;
+
 /**
  * Tax policy with a flat VAT rate (e.g., 12%).
  */
 public class FlatVat implements TaxPolicy {
     private final double rate;
+    private final long ratePpm;
 
     public FlatVat(double ratePercent) {
         this.rate = ratePercent / 100.0;
+        this.ratePpm = Money.percentToPpm(ratePercent);
     }
 
     @Override
     public double taxRate() {
         return rate;
     }
+
+    @Override
+    public long calculateTaxMinor(long baseMinor) {
+        return Money.applyRate(baseMinor, ratePpm);
+    }
 }
@@ -9,4 +9,9 @@ public class NoTax implements TaxPolicy {
     public double taxRate() {
         return 0.0;
     }
+
+    @Override
+    public long calculateTaxMinor(long baseMinor) {
+        return 0L;
+    }
 }
@@ -1,5 +1,7 @@
 package product.tax;
 
+import product.money.Money;
+
 /**
  * Progressive tax strategy that applies different tax rates based on price tiers.
  * - Price < 100: 5% tax
@@ -21,6 +23,13 @@ public class ProgressiveTaxStrategy implements TaxPolicy {
     private static final double MID_RATE = 0.10;    // 10%
     private static final double HIGH_RATE = 0.15;   // 15%
 
+    // Те же пороги и ставки в тиынах и ppm для calculateTaxMinor
+    private static final long LOW_THRESHOLD_MINOR = 10_000;
+    private static final long HIGH_THRESHOLD_MINOR = 50_000;
+    private static final long LOW_RATE_PPM = 50_000;
+    private static final long MID_RATE_PPM = 100_000;
+    private static final long HIGH_RATE_PPM = 150_000;
+
     /**
      * Returns a nominal rate (middle tier) since actual rate is price-dependent.
      * For accurate tax calculation, use calculateTax(price) instead.
@@ -40,4 +49,15 @@ public class ProgressiveTaxStrategy implements TaxPolicy {
             return price * HIGH_RATE;   // 15%
         }
     }
+
+    @Override
+    public long calculateTaxMinor(long priceMinor) {
+        if (priceMinor < LOW_THRESHOLD_MINOR) {
+            return Money.applyRate(priceMinor, LOW_RATE_PPM);
+        } else if (priceMinor <= HIGH_THRESHOLD_MINOR) {
+            return Money.applyRate(priceMinor, MID_RATE_PPM);
+        } else {
+            return Money.applyRate(priceMinor, HIGH_RATE_PPM);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package product.tax;
 
 import product.DigitalProduct;
 import product.Product;
+import product.money.Money;
 
 /**
  * Reduced VAT rate for digital products (e.g., 5%).
@@ -9,9 +10,11 @@ import product.Product;
  */
 public class ReducedDigitalVat implements TaxPolicy {
     private final double rate;
+    private final long ratePpm;
 
     public ReducedDigitalVat(double ratePercent) {
         this.rate = ratePercent / 100.0;
+        this.ratePpm = Money.percentToPpm(ratePercent);
     }
 
     @Override
@@ -19,6 +22,11 @@ public class ReducedDigitalVat implements TaxPolicy {
         return rate;
     }
 
+    @Override
+    public long calculateTaxMinor(long baseMinor) {
+        return Money.applyRate(baseMinor, ratePpm);
+    }
+
     @Override
     public boolean applicableTo(Product p) {
         return p instanceof DigitalProduct;
@@ -1,6 +1,7 @@
 package product.tax;
 
 import product.Product;
+import product.money.Money;
 
 /**
  * Interface for tax calculation policies.
@@ -22,6 +23,31 @@ public interface TaxPolicy {
         return basePrice * taxRate();
     }
 
+    /**
+     * Batch version of {@link #calculateTax(double)}: out[i] = calculateTax(bases[i]).
+     * @param bases The prices before tax
+     * @param out Receives the tax amounts; must be at least as long as bases
+     */
+    default void calculateTax(double[] bases, double[] out) {
+        if (out.length < bases.length) {
+            throw new IllegalArgumentException("Output array is shorter than input: " + out.length + " < " + bases.length);
+        }
+        for (int i = 0; i < bases.length; i++) {
+            out[i] = calculateTax(bases[i]);
+        }
+    }
+
+    /**
+     * Tax in minor units (see Money) with HALF_EVEN rounding.
+     * The default rounds calculateTax once; the flat and progressive
+     * built-in policies override it with exact arithmetic.
+     * @param baseMinor The price before tax, in minor units
+     * @return The tax amount in minor units
+     */
+    default long calculateTaxMinor(long baseMinor) {
+        return Money.toMinor(calculateTax(Money.toMajor(baseMinor)));
+    }
+
     /**
      * Checks if this tax policy is applicable to the given product.
      * @param p The product to check
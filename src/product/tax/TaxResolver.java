@@ -0,0 +1,153 @@
+package product.tax;
+
+import category.Category;
+import product.Product;
+import product.metrics.Operation;
+import product.metrics.PricingMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the TaxPolicy for a product from a list of {@link TaxRule}s.
+ *
+ * Rules are compiled into a dispatch table: for every concrete product
+ * class a row of policies indexed by category slot. Categories are matched
+ * by id; slot 0 holds the result for products without a category or in a
+ * category no rule mentions. A row is built the first time a class is seen
+ * and contains the already resolved winner (priority, specificity,
+ * {@link TaxPolicy#applicableTo}, then the fallback), so
+ * {@link #resolve(Product)} is a map hit plus an array read.
+ *
+ * applicableTo() is evaluated once per class, on the first product seen,
+ * so it must depend only on the product type (true for the built-in
+ * policies). The resolver is immutable and thread-safe. To change rules at
+ * runtime, build a new resolver and publish it through a
+ * {@link TaxResolverHolder}.
+ */
+public final class TaxResolver {
+    private static final int MAX_DENSE_CATEGORY_ID = 4095;
+
+    private final TaxRule[] rules;
+    private final TaxPolicy fallback;
+    private final int[] denseSlots;            // category id -> slot (0 = no rule for the id)
+    private final Map<Integer, Integer> sparseSlots; // used when ids do not fit the dense table
+    private final int[] slotCategoryIds;        // slot -> category id (slot 0 unused)
+    private final Map<Class<?>, TaxPolicy[]> rows = new ConcurrentHashMap<>();
+
+    private TaxResolver(List<TaxRule> ruleList, TaxPolicy fallback) {
+        if (fallback == null) {
+            throw new IllegalArgumentException("Fallback tax policy must not be null");
+        }
+        this.rules = new ArrayList<>(ruleList).toArray(new TaxRule[0]);
+        this.fallback = fallback;
+
+        // Slots for the categories mentioned by rules
+        Map<Integer, Integer> slots = new HashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        ids.add(0); // slot 0 placeholder
+        boolean dense = true;
+        int maxId = 0;
+        for (TaxRule rule : rules) {
+            if (rule == null) throw new IllegalArgumentException("Tax rule must not be null");
+            Category category = rule.getCategory();
+            if (category == null || slots.containsKey(category.getId())) continue;
+            int id = category.getId();
+            slots.put(id, ids.size());
+            ids.add(id);
+            dense &= id >= 0 && id <= MAX_DENSE_CATEGORY_ID;
+            maxId = Math.max(maxId, id);
+        }
+        this.slotCategoryIds = ids.stream().mapToInt(Integer::intValue).toArray();
+        if (dense) {
+            this.denseSlots = new int[slots.isEmpty() ? 0 : maxId + 1];
+            slots.forEach((id, slot) -> denseSlots[id] = slot);
+            this.sparseSlots = null;
+        } else {
+            this.denseSlots = null;
+            this.sparseSlots = slots;
+        }
+    }
+
+    /**
+     * @param rules    tax rules; order matters only for ties
+     * @param fallback policy used when no rule matches (e.g. NoTax or FlatVat)
+     */
+    public static TaxResolver compile(List<TaxRule> rules, TaxPolicy fallback) {
+        return new TaxResolver(rules == null ? List.of() : rules, fallback);
+    }
+
+    /**
+     * Tax policy for the product, or the fallback if no rule matches.
+     */
+    public TaxPolicy resolve(Product p) {
+        TaxPolicy[] row = rows.get(p.getClass());
+        if (row == null) {
+            row = rows.computeIfAbsent(p.getClass(), type -> buildRow(p));
+        }
+        return row[slotOf(p.getCategory())];
+    }
+
+    /**
+     * Shortcut for resolve(p).calculateTax(base).
+     */
+    public double calculateTax(Product p, double base) {
+        if (!PricingMetrics.ENABLED) return resolve(p).calculateTax(base);
+        long start = PricingMetrics.start(Operation.TAX);
+        double tax = resolve(p).calculateTax(base);
+        PricingMetrics.stop(Operation.TAX, start);
+        return tax;
+    }
+
+    public TaxPolicy getFallback() {
+        return fallback;
+    }
+
+    public int ruleCount() {
+        return rules.length;
+    }
+
+    private int slotOf(Category category) {
+        if (category == null) return 0;
+        int id = category.getId();
+        if (denseSlots != null) {
+            return id >= 0 && id < denseSlots.length ? denseSlots[id] : 0;
+        }
+        Integer slot = sparseSlots.get(id);
+        return slot == null ? 0 : slot;
+    }
+
+    // --- Compilation of one class row ---
+
+    private TaxPolicy[] buildRow(Product sample) {
+        Class<?> type = sample.getClass();
+        TaxPolicy[] row = new TaxPolicy[slotCategoryIds.length];
+        for (int slot = 0; slot < row.length; slot++) {
+            TaxRule best = null;
+            for (TaxRule rule : rules) {
+                if (!rule.getProductType().isAssignableFrom(type)) continue;
+                Category category = rule.getCategory();
+                if (category != null && (slot == 0 || category.getId() != slotCategoryIds[slot])) continue;
+                if (!rule.getPolicy().applicableTo(sample)) continue;
+                if (best == null || beats(rule, best)) best = rule;
+            }
+            row[slot] = best == null ? fallback : best.getPolicy();
+        }
+        return row;
+    }
+
+    private static boolean beats(TaxRule candidate, TaxRule current) {
+        if (candidate.getPriority() != current.getPriority()) {
+            return candidate.getPriority() > current.getPriority();
+        }
+        boolean candidateScoped = candidate.getCategory() != null;
+        boolean currentScoped = current.getCategory() != null;
+        if (candidateScoped != currentScoped) return candidateScoped;
+        Class<?> a = candidate.getProductType();
+        Class<?> b = current.getProductType();
+        return a != b && b.isAssignableFrom(a); // strictly more specific; otherwise the earlier rule stays
+    }
+}
@@ -0,0 +1,36 @@
+package product.tax;
+
+import product.Product;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hot-swappable reference to the current {@link TaxResolver}.
+ * Readers see either the old or the new resolver, never a mix: the
+ * resolver itself is immutable and is published through an AtomicReference.
+ */
+public final class TaxResolverHolder {
+    private final AtomicReference<TaxResolver> current;
+
+    public TaxResolverHolder(TaxResolver initial) {
+        if (initial == null) throw new IllegalArgumentException("Tax resolver must not be null");
+        this.current = new AtomicReference<>(initial);
+    }
+
+    public TaxResolver get() {
+        return current.get();
+    }
+
+    /**
+     * Replaces the resolver for all subsequent lookups.
+     * @return the previous resolver
+     */
+    public TaxResolver swap(TaxResolver next) {
+        if (next == null) throw new IllegalArgumentException("Tax resolver must not be null");
+        return current.getAndSet(next);
+    }
+
+    public TaxPolicy resolve(Product p) {
+        return current.get().resolve(p);
+    }
+}
@@ -0,0 +1,54 @@
+package product.tax;
+
+import category.Category;
+import product.Product;
+
+/**
+ * One entry of a {@link TaxResolver}: products of 'productType' (including
+ * subclasses), optionally only in 'category', are taxed with 'policy'.
+ *
+ * Among matching rules the highest priority wins; on a tie a
+ * category-specific rule beats a type-only rule, then the more specific
+ * product type wins, then the rule listed first.
+ */
+public final class TaxRule {
+    private final Class<? extends Product> productType;
+    private final Category category;
+    private final TaxPolicy policy;
+    private final int priority;
+
+    /**
+     * @param productType product class the rule applies to (subclasses included)
+     * @param category    category the rule is limited to, or null for any category
+     * @param policy      tax policy to use
+     * @param priority    higher wins
+     */
+    public TaxRule(Class<? extends Product> productType, Category category, TaxPolicy policy, int priority) {
+        if (productType == null || policy == null) {
+            throw new IllegalArgumentException("Tax rule needs a product type and a policy");
+        }
+        this.productType = productType;
+        this.category = category;
+        this.policy = policy;
+        this.priority = priority;
+    }
+
+    /**
+     * Rule for a product type in any category.
+     */
+    public TaxRule(Class<? extends Product> productType, TaxPolicy policy, int priority) {
+        this(productType, null, policy, priority);
+    }
+
+    public Class<? extends Product> getProductType() { return productType; }
+    public Category getCategory() { return category; }
+    public TaxPolicy getPolicy() { return policy; }
+    public int getPriority() { return priority; }
+
+    @Override
+    public String toString() {
+        return "TaxRule[" + productType.getSimpleName()
+                + (category == null ? "" : ", category=" + category.getName())
+                + ", priority=" + priority + "]";
+    }
+}